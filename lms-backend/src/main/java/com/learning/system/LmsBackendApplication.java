@@ -2,12 +2,20 @@ package com.learning.system;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableAsync
+@EnableScheduling
 public class LmsBackendApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(LmsBackendApplication.class, args);
+        SpringApplication application = new SpringApplication(LmsBackendApplication.class);
+        // Records startup steps for the startup report and /actuator/startup
+        application.setApplicationStartup(new BufferingApplicationStartup(10000));
+        application.run(args);
     }
 
 }
@@ -0,0 +1,144 @@
+package com.learning.system.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Bounded executors for background work, so bulk jobs cannot starve request threads
+ */
+@Configuration
+public class AsyncConfig {
+
+    @Value("${bulk-approval.hashing-threads:0}")
+    private int hashingThreads;
+
+    @Value("${login.verification-threads:0}")
+    private int loginThreads;
+
+    @Value("${login.max-queued:200}")
+    private int loginMaxQueued;
+
+    /**
+     * Runs bulk approval jobs one at a time
+     */
+    @Bean(name = "bulkApprovalExecutor")
+    public ThreadPoolTaskExecutor bulkApprovalExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("bulk-approval-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * CPU-bound BCrypt hashing; when the queue is full the submitting job thread hashes itself
+     */
+    @Bean(name = "passwordHashingExecutor")
+    public ThreadPoolTaskExecutor passwordHashingExecutor() {
+        int threads = hashingThreads > 0 ? hashingThreads : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("password-hash-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Verifies login passwords; a full queue rejects new logins instead of piling them onto request threads
+     */
+    @Bean(name = "loginExecutor")
+    public ThreadPoolTaskExecutor loginExecutor() {
+        int threads = loginThreads > 0 ? loginThreads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(loginMaxQueued);
+        executor.setThreadNamePrefix("login-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Sends notification emails off the request and job threads
+     */
+    @Bean(name = "mailExecutor")
+    public ThreadPoolTaskExecutor mailExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(10000);
+        executor.setThreadNamePrefix("mail-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Runs StreamingResponseBody and other async MVC handlers
+     */
+    @Bean(name = "mvcAsyncExecutor")
+    public ThreadPoolTaskExecutor mvcAsyncExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(16);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("mvc-async-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Serializes and fans out server-sent events after commit, off the committing request thread
+     */
+    @Bean(name = "liveUpdateExecutor")
+    public ThreadPoolTaskExecutor liveUpdateExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(10000);
+        executor.setThreadNamePrefix("live-update-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Runs after-commit domain event handlers such as module roll-ups. A full queue runs the handler on
+     * the committing thread rather than dropping it, so handlers must not rely on running in order.
+     */
+    @Bean(name = "domainEventExecutor")
+    public ThreadPoolTaskExecutor domainEventExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(10000);
+        executor.setThreadNamePrefix("domain-event-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Decodes and resizes uploaded images; CPU- and memory-heavy, so only a couple run at once.
+     * A full queue rejects new uploads rather than decoding them on request threads.
+     */
+    @Bean(name = "imageProcessingExecutor")
+    public ThreadPoolTaskExecutor imageProcessingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("image-processing-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -36,6 +36,7 @@ public class CorsConfig {
         
         // Add exposed headers
         config.addExposedHeader("Authorization");
+        config.addExposedHeader("ETag");
         
         source.registerCorsConfiguration("/**", config);
         return new CorsFilter(source);
@@ -3,12 +3,14 @@ package com.learning.system.config;
 import lombok.Getter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
-import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+/**
+ * Upload settings; the files themselves are kept by the configured StorageBackend
+ * and served from /uploads by FileDownloadController.
+ */
 @Getter
 @Configuration
-public class FileStorageConfig implements WebMvcConfigurer {
+public class FileStorageConfig {
 
     @Value("${file.upload-dir}")
     private String uploadDir;
@@ -16,10 +18,4 @@ public class FileStorageConfig implements WebMvcConfigurer {
     @Value("${file.access-url}")
     private String accessUrl;
 
-    @Override
-    public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:" + uploadDir);
-    }
-
-}
\ No newline at end of file
+}
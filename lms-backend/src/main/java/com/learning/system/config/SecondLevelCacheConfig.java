@@ -0,0 +1,95 @@
+package com.learning.system.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.stat.HibernateMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Caffeine-backed regions of the Hibernate second-level cache.
+ *
+ * Roles and permissions never change after startup and are cached read-only; the course catalog
+ * (courses, modules, chapters, documents and the collections between them) is read-mostly and
+ * cached read-write. Every region is created here with a size bound, and Hibernate is set to fail
+ * on any region missing from this list instead of creating an unbounded one.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    private static final List<String> REFERENCE_REGIONS = List.of("roles", "permissions", "role-permissions");
+
+    private static final List<String> CATALOG_REGIONS = List.of("courses", "course-modules", "modules",
+            "module-chapters", "chapters", "chapter-documents", "documents", "published-courses",
+            "default-query-results-region");
+
+    // Must outlive every cached query result, so it is neither size-bounded nor expired
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Value("${cache.second-level.reference-size:1000}")
+    private long referenceSize;
+
+    @Value("${cache.second-level.catalog-size:20000}")
+    private long catalogSize;
+
+    @Value("${cache.second-level.catalog-ttl:PT1H}")
+    private Duration catalogTtl;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+        for (String region : REFERENCE_REGIONS) {
+            createRegion(cacheManager, region, referenceSize, null);
+        }
+        for (String region : CATALOG_REGIONS) {
+            createRegion(cacheManager, region, catalogSize, catalogTtl);
+        }
+        createRegion(cacheManager, UPDATE_TIMESTAMPS_REGION, null, null);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    /**
+     * Hit, miss and put counts per region, plus the query cache and entity statistics
+     */
+    @Bean
+    public MeterBinder hibernateMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> new HibernateMetrics(entityManagerFactory.unwrap(SessionFactory.class),
+                "entityManagerFactory", Tags.empty()).bindTo(registry);
+    }
+
+    private void createRegion(CacheManager cacheManager, String region, Long maximumSize, Duration ttl) {
+        if (cacheManager.getCache(region) != null) {
+            cacheManager.destroyCache(region);
+        }
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        if (maximumSize != null) {
+            configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        }
+        if (ttl != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        cacheManager.createCache(region, configuration);
+    }
+}
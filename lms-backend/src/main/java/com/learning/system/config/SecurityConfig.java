@@ -3,7 +3,11 @@ package com.learning.system.config;
 import com.learning.system.security.JwtAccessDeniedHandler;
 import com.learning.system.security.JwtAuthenticationEntryPoint;
 import com.learning.system.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
+import com.learning.system.service.CustomUserDetailsService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -20,16 +24,30 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Slf4j
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+    private static final Pattern BCRYPT_COST = Pattern.compile("\\$2[abxy]?\\$(\\d{2})\\$");
+
     private final JwtAuthenticationFilter jwtAuthFilter;
     private final UserDetailsService userDetailsService;
     private final JwtAuthenticationEntryPoint authenticationEntryPoint;
     private final JwtAccessDeniedHandler accessDeniedHandler;
+    private final CustomUserDetailsService userDetailsPasswordService;
+
+    @Value("${security.bcrypt.strength:10}")
+    private int bcryptStrength;
+
+    @Value("${security.bcrypt.max-hash-time:PT0.3S}")
+    private Duration maxHashTime;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -41,7 +59,10 @@ public class SecurityConfig {
                 .accessDeniedHandler(accessDeniedHandler)
             )
             .authorizeHttpRequests(auth -> auth
+                // Streaming responses finish on an async dispatch; the original request was already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/api/auth/**").permitAll()
+                    // Checked by SignedDownloadFilter instead
                     .requestMatchers("/uploads/**").permitAll()
                     .requestMatchers("/api/test/email/**").permitAll()
                 .requestMatchers("/api/courses/published").permitAll()
@@ -59,6 +80,9 @@ public class SecurityConfig {
                 .requestMatchers("/api/student-profiles").hasAuthority("ROLE_ADMIN")
                 .requestMatchers("/api/chapters/**").permitAll()
                 .requestMatchers("/api/courses/{courseId}/modules/{moduleId}/chapters/free").permitAll()
+                .requestMatchers("/actuator/metrics/**").hasAuthority("ROLE_ADMIN")
+                .requestMatchers("/actuator/hotfiles/**").hasAuthority("ROLE_ADMIN")
+                .requestMatchers("/actuator/startup/**").hasAuthority("ROLE_ADMIN")
                 .anyRequest().authenticated()
             )
             .sessionManagement(session -> session
@@ -75,6 +99,8 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        // Stores a new hash on login when the stored one was made with another cost
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService);
         return authProvider;
     }
 
@@ -83,8 +109,36 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
+    /**
+     * BCrypt with the configured cost; hashes made with any other cost are upgraded (or downgraded) on login
+     */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        int strength = bcryptStrength;
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength) {
+            @Override
+            public boolean upgradeEncoding(String encodedPassword) {
+                Matcher matcher = BCRYPT_COST.matcher(encodedPassword != null ? encodedPassword : "");
+                return matcher.lookingAt() && Integer.parseInt(matcher.group(1)) != strength;
+            }
+        };
+        benchmark(encoder, strength);
+        return encoder;
+    }
+
+    /**
+     * Time one hash at startup, so a cost too high for this hardware shows up before the first login burst
+     */
+    private void benchmark(PasswordEncoder encoder, int strength) {
+        encoder.encode("warm-up");
+        long start = System.nanoTime();
+        encoder.encode("benchmark");
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        if (elapsed.compareTo(maxHashTime) > 0) {
+            log.warn("BCrypt cost {} takes {} ms per hash, more than the {} ms budget; consider lowering security.bcrypt.strength",
+                    strength, elapsed.toMillis(), maxHashTime.toMillis());
+        } else {
+            log.info("BCrypt cost {} takes {} ms per hash", strength, elapsed.toMillis());
+        }
     }
 } 
\ No newline at end of file
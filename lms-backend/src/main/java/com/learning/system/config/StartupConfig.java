@@ -0,0 +1,84 @@
+package com.learning.system.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.annotation.Schedules;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazy bean initialization and the startup-time report.
+ *
+ * With spring.main.lazy-initialization most beans are created on first use. The exceptions are
+ * beans that must do their work at startup: the Flyway migrations and the entity manager factory
+ * (so a schema mismatch fails the deployment instead of the first request), and beans with
+ * {@code @Scheduled} methods, which are only registered once the bean exists.
+ */
+@Slf4j
+@Configuration
+public class StartupConfig {
+
+    private static final String BEAN_INSTANTIATE_STEP = "spring.beans.instantiate";
+
+    @Value("${startup.report.slowest-beans:10}")
+    private int slowestBeans;
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerStartupBeans() {
+        return (beanName, beanDefinition, beanType) -> "entityManagerFactory".equals(beanName)
+                || beanType != null && (FlywayMigrationInitializer.class.isAssignableFrom(beanType)
+                        || EntityManagerFactory.class.isAssignableFrom(beanType)
+                        || hasScheduledMethods(beanType));
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        return Arrays.stream(ReflectionUtils.getAllDeclaredMethods(beanType))
+                .anyMatch(method -> AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)
+                        || AnnotatedElementUtils.hasAnnotation(method, Schedules.class));
+    }
+
+    /**
+     * Log the time to ready and the slowest bean initializations; the full timeline is at
+     * /actuator/startup. A bean's time includes the dependencies created for it.
+     */
+    @EventListener
+    public void reportStartup(ApplicationReadyEvent event) {
+        if (!(event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup)) {
+            log.info("Ready in {} ms", event.getTimeTaken().toMillis());
+            return;
+        }
+        List<TimelineEvent> slowest = startup.getBufferedTimeline().getEvents().stream()
+                .filter(timelineEvent -> BEAN_INSTANTIATE_STEP.equals(timelineEvent.getStartupStep().getName()))
+                .sorted(Comparator.comparing(TimelineEvent::getDuration).reversed())
+                .limit(slowestBeans)
+                .toList();
+        log.info("Ready in {} ms; slowest beans: {}", event.getTimeTaken().toMillis(), slowest.stream()
+                .map(timelineEvent -> beanName(timelineEvent.getStartupStep()) + " " + timelineEvent.getDuration().toMillis() + " ms")
+                .collect(Collectors.joining(", ")));
+    }
+
+    private String beanName(StartupStep step) {
+        return StreamSupport.stream(step.getTags().spliterator(), false)
+                .filter(tag -> "beanName".equals(tag.getKey()))
+                .map(StartupStep.Tag::getValue)
+                .findFirst()
+                .orElse("?");
+    }
+}
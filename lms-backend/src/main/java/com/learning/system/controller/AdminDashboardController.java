@@ -1,8 +1,13 @@
 package com.learning.system.controller;
 
+import com.learning.system.dto.StudentDirectoryDTO;
 import com.learning.system.dto.StudentProfileDTO;
+import com.learning.system.service.CourseReportExportService;
+import com.learning.system.service.DashboardSnapshotService;
 import com.learning.system.service.StudentProfileService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,6 +16,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.learning.system.dto.StudentManagementStatsDTO;
 import com.learning.system.dto.StudentsByCourseDTO;
@@ -31,17 +37,52 @@ public class AdminDashboardController {
     @Autowired
     private StudentProfileService studentProfileService;
     
+    @Autowired
+    private CourseReportExportService courseReportExportService;
+    
+    @Autowired
+    private DashboardSnapshotService dashboardSnapshotService;
+    
     /**
      * Get student management statistics for the admin dashboard
      * Includes total student count, enrollment by course, and completion rate
      * 
+     * Served from a periodically refreshed snapshot; see asOf in the response
+     * 
      * @param activeOnly Whether to return statistics for active users (true) or inactive users (false)
+     * @param fresh Recompute the snapshot instead of serving the cached one
      * @return StudentManagementStatsDTO containing statistics for the specified user type
      */
     @GetMapping("/student-stats")
     public ResponseEntity<StudentManagementStatsDTO> getStudentManagementStats(
-            @RequestParam(defaultValue = "true") boolean activeOnly) {
-        return ResponseEntity.ok(adminDashboardService.getStudentManagementStats(activeOnly));
+            @RequestParam(defaultValue = "true") boolean activeOnly,
+            @RequestParam(defaultValue = "false") boolean fresh) {
+        return ResponseEntity.ok(dashboardSnapshotService.getStudentManagementStats(activeOnly, fresh));
+    }
+    
+    /**
+     * Search the student directory by name/email prefix, exact student ID, department,
+     * course enrollment and active flag
+     * 
+     * @param q Prefix matched against first name, last name and email
+     * @param studentId Exact student ID (e.g. ST250001)
+     * @param department Exact department name
+     * @param courseId Only students enrolled in this course
+     * @param active Only active (true) or inactive (false) users; both when omitted
+     * @param cursor The nextCursor returned by the previous page
+     * @param size The page size (max 100)
+     * @return A keyset-paginated page of matching students
+     */
+    @GetMapping("/students/search")
+    public ResponseEntity<StudentDirectoryDTO.PageResponse> searchStudents(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String studentId,
+            @RequestParam(required = false) String department,
+            @RequestParam(required = false) Long courseId,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(studentProfileService.searchStudents(q, studentId, department, courseId, active, cursor, size));
     }
     
     /**
@@ -50,14 +91,17 @@ public class AdminDashboardController {
      * @param courseId The course ID to get students for
      * @param page The page number (0-based)
      * @param size The page size
+     * @param fresh Recompute the snapshot instead of serving the cached one
      * @return Paginated list of students with their enrollment details and progress
      */
     @GetMapping("/students-by-course/{courseId}")
     public ResponseEntity<StudentsByCourseDTO> getStudentsByCourse(
             @PathVariable Long courseId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        return ResponseEntity.ok(adminDashboardService.getStudentsByCourse(courseId, page, size));
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean fresh) {
+        StudentsByCourseDTO allStudents = dashboardSnapshotService.getStudentsByCourse(courseId, fresh);
+        return ResponseEntity.ok(adminDashboardService.pageOf(allStudents, page, size));
     }
     
     /**
@@ -65,13 +109,38 @@ public class AdminDashboardController {
      * 
      * @param courseId The course ID to get students for
      * @param activeOnly Whether to return only active users (true) or all users (false)
+     * @param fresh Recompute the snapshot instead of serving the cached one
      * @return List of all students with their enrollment details and progress
      */
     @GetMapping("/students-by-course/{courseId}/all")
     public ResponseEntity<StudentsByCourseDTO> getAllStudentsByCourse(
             @PathVariable Long courseId,
-            @RequestParam(defaultValue = "true") boolean activeOnly) {
-        return ResponseEntity.ok(adminDashboardService.getStudentsByCourse(courseId, 0, Integer.MAX_VALUE));
+            @RequestParam(defaultValue = "true") boolean activeOnly,
+            @RequestParam(defaultValue = "false") boolean fresh) {
+        return ResponseEntity.ok(dashboardSnapshotService.getStudentsByCourse(courseId, fresh));
+    }
+
+    /**
+     * Stream all students of a course with overall and per-chapter progress
+     * 
+     * @param courseId The course ID to export
+     * @param format csv (default) or ndjson
+     * @return The report, written row by row as it is read from the database
+     */
+    @GetMapping("/students-by-course/{courseId}/export")
+    public ResponseEntity<StreamingResponseBody> exportStudentsByCourse(
+            @PathVariable Long courseId,
+            @RequestParam(defaultValue = "csv") String format) {
+        CourseReportExportService.Format exportFormat = CourseReportExportService.Format.valueOf(format.toUpperCase());
+        courseReportExportService.checkCourseExists(courseId);
+        
+        boolean ndjson = exportFormat == CourseReportExportService.Format.NDJSON;
+        String filename = "course-" + courseId + "-students." + (ndjson ? "ndjson" : "csv");
+        
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.parseMediaType("application/x-ndjson") : MediaType.parseMediaType("text/csv; charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(outputStream -> courseReportExportService.exportCourseProgress(courseId, exportFormat, outputStream));
     }
 
     /**
@@ -2,13 +2,17 @@ package com.learning.system.controller;
 
 import com.learning.system.dto.AuthenticationRequest;
 import com.learning.system.dto.AuthenticationResponse;
+import com.learning.system.dto.RefreshTokenRequest;
 import com.learning.system.dto.RegisterRequest;
 import com.learning.system.entity.User;
 import com.learning.system.service.AuthenticationService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
@@ -21,8 +25,25 @@ public class AuthController {
         return ResponseEntity.ok(authenticationService.register(request));
     }
 
+    /**
+     * Completes asynchronously, so a login waiting for password verification holds no servlet thread
+     */
     @PostMapping("/login")
-    public ResponseEntity<AuthenticationResponse> authenticate(@RequestBody AuthenticationRequest request) {
-        return ResponseEntity.ok(authenticationService.authenticate(request));
+    public CompletableFuture<ResponseEntity<AuthenticationResponse>> authenticate(@RequestBody AuthenticationRequest request,
+                                                                                  HttpServletRequest httpRequest) {
+        // The proxy's X-Forwarded-For is already applied here (server.forward-headers-strategy)
+        return authenticationService.authenticate(request, httpRequest.getRemoteAddr())
+                .thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthenticationResponse> refresh(@RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(authenticationService.refresh(request));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody RefreshTokenRequest request) {
+        authenticationService.logout(request);
+        return ResponseEntity.noContent().build();
     }
 } 
\ No newline at end of file
@@ -3,10 +3,15 @@ package com.learning.system.controller;
 import com.learning.system.dto.ChapterCreateDTO;
 import com.learning.system.dto.ChapterCreationResponse;
 import com.learning.system.entity.Chapter;
+import com.learning.system.security.DocumentAccess;
+import com.learning.system.security.DownloadUrlSigner;
 import com.learning.system.service.ChapterService;
+import com.learning.system.service.ContentVersionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -17,11 +22,21 @@ public class ChapterController {
     @Autowired
     private ChapterService chapterService;
 
+    @Autowired
+    private ContentVersionService contentVersionService;
+
+    @Autowired
+    private DownloadUrlSigner downloadUrlSigner;
+
+    @Autowired
+    private DocumentAccess documentAccess;
+
     @PostMapping
     public ResponseEntity<ChapterCreationResponse> createChapter(
             @PathVariable Long moduleId, 
             @RequestBody ChapterCreateDTO chapterDTO) {
         Chapter createdChapter = chapterService.createChapterWithDocument(chapterDTO, moduleId);
+        boolean signed = canDownload(createdChapter);
         
         // Map to DTO to avoid circular references
         ChapterCreationResponse response = ChapterCreationResponse.builder()
@@ -39,7 +54,7 @@ public class ChapterController {
                         createdChapter.getDocuments().stream()
                                 .map(doc -> ChapterCreationResponse.DocumentInfo.builder()
                                         .id(doc.getId())
-                                        .url(doc.getUrl())
+                                        .url(signed ? downloadUrlSigner.sign(doc.getUrl()) : doc.getUrl())
                                         .title(doc.getName())
                                         .type(doc.getType())
                                         .build())
@@ -51,7 +66,12 @@ public class ChapterController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ChapterCreationResponse> getChapterById(@PathVariable Long id) {
+    public ResponseEntity<ChapterCreationResponse> getChapterById(@PathVariable Long id, WebRequest webRequest) {
+        String etag = contentVersionService.chapterEtag(id);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        
         Chapter chapter = chapterService.getChapterById(id);
         
         // Map to DTO to avoid circular references
@@ -68,7 +88,9 @@ public class ChapterController {
                 .moduleTitle(chapter.getModule().getTitle())
                 .build();
                 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(response);
     }
 
     @PutMapping("/{id}")
@@ -76,6 +98,7 @@ public class ChapterController {
             @PathVariable Long id, 
             @RequestBody ChapterCreateDTO chapterDTO) {
         Chapter updatedChapter = chapterService.updateChapter(id, chapterDTO);
+        boolean signed = canDownload(updatedChapter);
         
         // Map to DTO to avoid circular references
         ChapterCreationResponse response = ChapterCreationResponse.builder()
@@ -93,7 +116,7 @@ public class ChapterController {
                     updatedChapter.getDocuments().stream()
                         .map(doc -> ChapterCreationResponse.DocumentInfo.builder()
                             .id(doc.getId())
-                            .url(doc.getUrl())
+                            .url(signed ? downloadUrlSigner.sign(doc.getUrl()) : doc.getUrl())
                             .title(doc.getName())
                             .type(doc.getType())
                             .build())
@@ -116,4 +139,11 @@ public class ChapterController {
 //    public ResponseEntity<List<Chapter>> getFreeChapters(@PathVariable Long moduleId) {
 //        return ResponseEntity.ok(chapterService.getFreeChaptersByCourse(moduleId));
 //    }
+
+    /**
+     * Documents get signed URLs only in free chapters or for callers entitled to the whole course
+     */
+    private boolean canDownload(Chapter chapter) {
+        return chapter.isFree() || documentAccess.isEntitled(chapter.getModule().getCourse().getId());
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.learning.system.controller;
+
+import com.learning.system.dto.UploadSessionCreateDTO;
+import com.learning.system.dto.UploadSessionDTO;
+import com.learning.system.entity.User;
+import com.learning.system.service.ChunkedUploadService;
+import com.learning.system.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+/**
+ * Resumable chunked uploads: create a session, PUT chunks at byte offsets, then complete it.
+ * After an interruption, GET the session and continue from receivedBytes.
+ */
+@RestController
+@RequestMapping("/api/files/uploads")
+public class ChunkedUploadController {
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
+    @Autowired
+    private UserService userService;
+
+    @PostMapping
+    public ResponseEntity<UploadSessionDTO> createUpload(@RequestBody UploadSessionCreateDTO request) {
+        User user = getCurrentUser();
+        return ResponseEntity.status(HttpStatus.CREATED).body(chunkedUploadService.createSession(user.getId(), request));
+    }
+
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<UploadSessionDTO> getUpload(@PathVariable String uploadId) {
+        User user = getCurrentUser();
+        return ResponseEntity.ok(chunkedUploadService.getSession(user.getId(), uploadId));
+    }
+
+    /**
+     * Upload the raw bytes of one chunk, starting at the given byte offset of the file
+     */
+    @PutMapping(value = "/{uploadId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<UploadSessionDTO> uploadChunk(
+            @PathVariable String uploadId,
+            @RequestParam long offset,
+            HttpServletRequest request) throws IOException {
+        User user = getCurrentUser();
+        return ResponseEntity.ok(chunkedUploadService.writeChunk(user.getId(), "user:" + user.getUsername(),
+                uploadId, offset, request.getContentLengthLong(), request.getInputStream()));
+    }
+
+    @PostMapping("/{uploadId}/complete")
+    public ResponseEntity<UploadSessionDTO> completeUpload(@PathVariable String uploadId) {
+        User user = getCurrentUser();
+        return ResponseEntity.ok(chunkedUploadService.completeSession(user.getId(), uploadId));
+    }
+
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<Void> abortUpload(@PathVariable String uploadId) {
+        User user = getCurrentUser();
+        chunkedUploadService.abortSession(user.getId(), uploadId);
+        return ResponseEntity.noContent().build();
+    }
+
+    private User getCurrentUser() {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        return userService.getUserByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+}
@@ -1,16 +1,21 @@
 package com.learning.system.controller;
 
+import com.learning.system.dto.CoursePreviewResponse;
 import com.learning.system.dto.CourseResponse;
 import com.learning.system.entity.Course;
 import com.learning.system.entity.User;
 import com.learning.system.mapper.CourseMapper;
+import com.learning.system.security.DocumentAccess;
+import com.learning.system.service.ContentVersionService;
 import com.learning.system.service.CourseService;
 import com.learning.system.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -27,6 +32,12 @@ public class CourseController {
     @Autowired
     private CourseMapper courseMapper;
 
+    @Autowired
+    private ContentVersionService contentVersionService;
+
+    @Autowired
+    private DocumentAccess documentAccess;
+
     @PostMapping
     public ResponseEntity<CourseResponse> createCourse(@RequestBody Course course) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -37,9 +48,20 @@ public class CourseController {
         return ResponseEntity.ok(courseMapper.toCourseResponse(createdCourse));
     }
 
+    /**
+     * Get the full course tree; answers If-None-Match with 304 without building the response
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<CourseResponse> getCourseById(@PathVariable Long id) {
-        return ResponseEntity.ok(courseService.getCourseById(id));
+    public ResponseEntity<CourseResponse> getCourseById(@PathVariable Long id, WebRequest webRequest) {
+        boolean entitled = documentAccess.isEntitled(id);
+        // Taken before the body is built, so a concurrent edit can only make the ETag older, never newer
+        String etag = contentVersionService.courseEtag(id, entitled);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(courseService.getCourseById(id, entitled));
     }
 
     @GetMapping
@@ -73,6 +95,37 @@ public class CourseController {
         return ResponseEntity.ok(courseResponses);
     }
 
+    /**
+     * Keyset-paginated course summaries without modules; fetch a course's tree from /{id}
+     *
+     * @param cursor The nextCursor returned by the previous page
+     * @param size The page size (max 100)
+     */
+    @GetMapping("/page")
+    public ResponseEntity<CoursePreviewResponse.PageResponse> getCoursePage(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(courseService.getCoursePage(cursor, size));
+    }
+
+    @GetMapping("/published/page")
+    public ResponseEntity<CoursePreviewResponse.PageResponse> getPublishedCoursePage(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(courseService.getPublishedCoursePage(cursor, size));
+    }
+
+    @GetMapping("/my-courses/page")
+    public ResponseEntity<CoursePreviewResponse.PageResponse> getMyCoursePage(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String username = authentication.getName();
+        User creator = userService.getUserByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        return ResponseEntity.ok(courseService.getCoursePageByCreator(creator.getId(), cursor, size));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<CourseResponse> updateCourse(@PathVariable Long id, @RequestBody Course course) {
         course.setId(id);
@@ -0,0 +1,52 @@
+package com.learning.system.controller;
+
+import com.learning.system.storage.HotFileCache;
+import com.learning.system.storage.StorageBackend;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Serves uploaded files from the configured storage backend, through the hot file cache.
+ * Range requests are handled by Spring's resource message converter.
+ */
+@RestController
+public class FileDownloadController {
+
+    private static final String PREFIX = "/uploads/";
+
+    private final HotFileCache hotFileCache;
+
+    public FileDownloadController(HotFileCache hotFileCache) {
+        this.hotFileCache = hotFileCache;
+    }
+
+    @GetMapping("/uploads/**")
+    public ResponseEntity<Resource> download(HttpServletRequest request) throws IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String key = UriUtils.decode(path.substring(PREFIX.length()), StandardCharsets.UTF_8);
+        try {
+            StorageBackend.checkKey(key);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return hotFileCache.load(key)
+                .map(resource -> ResponseEntity.ok()
+                        .contentType(MediaTypeFactory.getMediaType(key).orElse(MediaType.APPLICATION_OCTET_STREAM))
+                        // Keys are unique per upload, so a stored file never changes; private because links are signed
+                        .cacheControl(CacheControl.maxAge(Duration.ofDays(7)).cachePrivate())
+                        .body(resource))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -1,6 +1,7 @@
 package com.learning.system.controller;
 
 import com.learning.system.service.FileStorageService;
+import com.learning.system.service.UploadAdmissionService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -19,9 +20,16 @@ public class FileUploadController {
     }
 
     @PostMapping("/upload")
-    public ResponseEntity<Map<String, String>> uploadFile(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<Map<String, String>> uploadFile(
+            @RequestParam("file") MultipartFile file,
+            @RequestAttribute(name = UploadAdmissionService.ADMISSION_ATTRIBUTE, required = false)
+            UploadAdmissionService.Admission admission) {
         try {
             String fileUrl = fileStorageService.storeFile(file);
+            // Admission reserved the declared size against the quota; count what was actually stored
+            if (admission != null) {
+                fileStorageService.toKey(fileUrl).ifPresent(key -> admission.recordStored(key, file.getSize()));
+            }
             Map<String, String> response = new HashMap<>();
             response.put("url", fileUrl);
             response.put("message", "File uploaded successfully");
@@ -32,4 +40,4 @@ public class FileUploadController {
             return ResponseEntity.badRequest().body(errorResponse);
         }
     }
-}
\ No newline at end of file
+}
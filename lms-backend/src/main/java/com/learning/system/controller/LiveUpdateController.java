@@ -0,0 +1,51 @@
+package com.learning.system.controller;
+
+import com.learning.system.entity.User;
+import com.learning.system.service.LiveUpdateService;
+import com.learning.system.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Server-sent event streams replacing polling of pending requests and progress.
+ * Streams carry only changes; after connecting or reconnecting, clients load the current state once
+ * through the regular endpoints (or /api/student/progress/changes) and then apply pushed events.
+ */
+@RestController
+@RequestMapping("/api/live")
+public class LiveUpdateController {
+
+    @Autowired
+    private LiveUpdateService liveUpdateService;
+
+    @Autowired
+    private UserService userService;
+
+    /**
+     * Stream of student-request and course-request events for admins
+     */
+    @GetMapping(value = "/admin", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public SseEmitter subscribeAdmin() {
+        return liveUpdateService.subscribeAdmin();
+    }
+
+    /**
+     * Stream of the current user's progress and course-request events
+     */
+    @GetMapping(value = "/me", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User user = userService.getUserByUsername(authentication.getName())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        
+        return liveUpdateService.subscribeUser(user.getId());
+    }
+}
@@ -2,10 +2,13 @@ package com.learning.system.controller;
 
 import com.learning.system.dto.ModuleCreationResponse;
 import com.learning.system.entity.Module;
+import com.learning.system.service.ContentVersionService;
 import com.learning.system.service.ModuleService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -15,6 +18,9 @@ public class ModuleController {
     @Autowired
     private ModuleService moduleService;
 
+    @Autowired
+    private ContentVersionService contentVersionService;
+
     @PostMapping
     public ResponseEntity<ModuleCreationResponse> createModule(@PathVariable Long courseId, @RequestBody Module module) {
         Module createdModule = moduleService.createModule(module, courseId);
@@ -33,13 +39,25 @@ public class ModuleController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Module>> getModulesByCourse(@PathVariable Long courseId) {
-        return ResponseEntity.ok(moduleService.getModulesByCourse(courseId));
+    public ResponseEntity<List<Module>> getModulesByCourse(@PathVariable Long courseId, WebRequest webRequest) {
+        String etag = contentVersionService.courseEtag(courseId);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(moduleService.getModulesByCourse(courseId));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Module> getModuleById(@PathVariable Long id) {
-        return ResponseEntity.ok(moduleService.getModuleById(id));
+    public ResponseEntity<Module> getModuleById(@PathVariable Long id, WebRequest webRequest) {
+        String etag = contentVersionService.moduleEtag(id);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(moduleService.getModuleById(id));
     }
 
     @PutMapping("/{id}")
@@ -3,24 +3,26 @@ package com.learning.system.controller;
 import com.learning.system.dto.ProgressDTO;
 import com.learning.system.dto.StudentDetailDTO;
 import com.learning.system.dto.StudentOverallProgressDTO;
-import com.learning.system.dto.StudentProfileDTO;
 import com.learning.system.dto.StudentProfileUpdateRequest;
 import com.learning.system.entity.Course;
+import com.learning.system.entity.StudentProfile;
 import com.learning.system.entity.User;
 import com.learning.system.repository.CourseRepository;
+import com.learning.system.security.CurrentStudent;
+import com.learning.system.security.CurrentUser;
+import com.learning.system.service.AvatarService;
 import com.learning.system.service.CourseProgressService;
 import com.learning.system.service.StudentDetailService;
-import com.learning.system.service.StudentProfileService;
-import com.learning.system.service.UserService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -30,27 +32,20 @@ public class StudentDetailController {
     @Autowired
     private StudentDetailService studentDetailService;
     
-    @Autowired
-    private StudentProfileService studentProfileService;
-    
     @Autowired
     private CourseProgressService courseProgressService;
     
     @Autowired
-    private UserService userService;
+    private CourseRepository courseRepository;
     
     @Autowired
-    private CourseRepository courseRepository;
+    private AvatarService avatarService;
     
     /**
      * Get current logged-in student's details and progress
      */
     @GetMapping("/current")
-    public ResponseEntity<StudentDetailDTO> getCurrentStudentDetail() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User user = userService.getUserByUsername(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
+    public ResponseEntity<StudentDetailDTO> getCurrentStudentDetail(@CurrentUser User user) {
         StudentDetailDTO studentDetail = studentDetailService.getStudentDetailByUserId(user.getId());
         return ResponseEntity.ok(studentDetail);
     }
@@ -60,15 +55,35 @@ public class StudentDetailController {
      */
     @PutMapping("/current")
     public ResponseEntity<StudentDetailDTO> updateCurrentStudentProfile(
-            @RequestBody StudentProfileUpdateRequest updateRequest) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User user = userService.getUserByUsername(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
+            @RequestBody StudentProfileUpdateRequest updateRequest,
+            @CurrentUser User user) {
         StudentDetailDTO updatedProfile = studentDetailService.updateStudentProfile(user.getId(), updateRequest);
         return ResponseEntity.ok(updatedProfile);
     }
     
+    /**
+     * Upload a new profile picture for the current student; the resized avatar and thumbnail
+     * replace the old ones once processing finishes
+     */
+    @PostMapping(value = "/current/avatar", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Map<String, String>> uploadCurrentStudentAvatar(@RequestParam("file") MultipartFile file,
+                                                                          @CurrentStudent StudentProfile student) {
+        avatarService.submit(student.getId(), file);
+        return ResponseEntity.accepted().body(Map.of("status", "PROCESSING"));
+    }
+    
+    /**
+     * Upload a new profile picture for a student (admin only)
+     */
+    @PostMapping(value = "/{studentId}/avatar", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, String>> uploadStudentAvatar(
+            @PathVariable Long studentId,
+            @RequestParam("file") MultipartFile file) {
+        avatarService.submit(studentId, file);
+        return ResponseEntity.accepted().body(Map.of("status", "PROCESSING"));
+    }
+    
     /**
      * Get student details by student ID
      */
@@ -109,13 +124,9 @@ public class StudentDetailController {
      * Get current student's course detail progress
      */
     @GetMapping("/current/courses/{courseId}")
-    public ResponseEntity<ProgressDTO> getCurrentStudentCourseDetail(@PathVariable Long courseId) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User user = userService.getUserByUsername(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        StudentProfileDTO profileDTO = studentProfileService.getStudentProfileByUserId(user.getId());
-        ProgressDTO courseProgress = studentDetailService.getStudentCourseDetail(profileDTO.getId(), courseId);
+    public ResponseEntity<ProgressDTO> getCurrentStudentCourseDetail(@PathVariable Long courseId,
+                                                                     @CurrentStudent StudentProfile student) {
+        ProgressDTO courseProgress = studentDetailService.getStudentCourseDetail(student.getId(), courseId);
         return ResponseEntity.ok(courseProgress);
     }
 } 
\ No newline at end of file
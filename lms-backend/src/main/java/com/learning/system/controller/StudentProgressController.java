@@ -1,26 +1,32 @@
 package com.learning.system.controller;
 
 import com.learning.system.dto.ChapterProgressUpdateRequest;
+import com.learning.system.dto.ProgressChangesDTO;
 import com.learning.system.dto.ProgressDTO;
+import com.learning.system.dto.ProgressViews;
 import com.learning.system.dto.StudentOverallProgressDTO;
-import com.learning.system.dto.StudentProfileDTO;
 import com.learning.system.entity.Course;
+import com.learning.system.entity.StudentCourseEnrollment;
 import com.learning.system.entity.StudentProfile;
 import com.learning.system.entity.User;
-import com.learning.system.repository.CourseRepository;
 import com.learning.system.repository.StudentProfileRepository;
+import com.learning.system.security.CurrentStudent;
+import com.learning.system.security.CurrentUser;
+import com.learning.system.security.DocumentAccess;
+import com.learning.system.service.ContentVersionService;
 import com.learning.system.service.CourseProgressService;
-import com.learning.system.service.StudentProfileService;
-import com.learning.system.service.UserService;
+import com.learning.system.service.ProgressChangesService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/student/progress")
@@ -30,26 +36,22 @@ public class StudentProgressController {
     private CourseProgressService courseProgressService;
     
     @Autowired
-    private UserService userService;
+    private StudentProfileRepository studentProfileRepository;
     
     @Autowired
-    private StudentProfileService studentProfileService;
+    private ContentVersionService contentVersionService;
     
     @Autowired
-    private CourseRepository courseRepository;
-    
+    private ProgressChangesService progressChangesService;
+
     @Autowired
-    private StudentProfileRepository studentProfileRepository;
+    private DocumentAccess documentAccess;
     
     /**
      * Mark a chapter as completed
      */
     @PostMapping("/chapters/{chapterId}/complete")
-    public ResponseEntity<?> markChapterAsCompleted(@PathVariable Long chapterId) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User user = userService.getUserByUsername(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
+    public ResponseEntity<?> markChapterAsCompleted(@PathVariable Long chapterId, @CurrentUser User user) {
         courseProgressService.markChapterAsCompleted(chapterId, user);
         return ResponseEntity.ok().build();
     }
@@ -60,11 +62,8 @@ public class StudentProgressController {
     @PostMapping("/chapters/{chapterId}/progress")
     public ResponseEntity<?> updateChapterProgress(
             @PathVariable Long chapterId,
-            @RequestBody ChapterProgressUpdateRequest request) {
-        
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User user = userService.getUserByUsername(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+            @RequestBody ChapterProgressUpdateRequest request,
+            @CurrentUser User user) {
         
         courseProgressService.updateChapterProgress(
             chapterId, 
@@ -80,24 +79,15 @@ public class StudentProgressController {
     
     /**
      * Get overall progress across all enrolled courses and individual course progress
+     * 
+     * @param view full (default) or compact for ids, percentages and flags only
      */
     @GetMapping("/courses")
-    public ResponseEntity<StudentOverallProgressDTO> getAllCoursesProgress() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User user = userService.getUserByUsername(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
+    public ResponseEntity<MappingJacksonValue> getAllCoursesProgress(@RequestParam(defaultValue = "full") String view,
+                                                                     @CurrentStudent StudentProfile student,
+                                                                     @CurrentUser User user) {
         try {
-            // Get profile DTO which contains enrolled courses
-            StudentProfileDTO profileDTO = studentProfileService.getStudentProfileByUserId(user.getId());
-            
-            // Extract course IDs
-            List<Long> courseIds = profileDTO.getEnrolledCourses().stream()
-                    .map(StudentProfileDTO.EnrolledCourseDTO::getCourseId)
-                    .collect(Collectors.toList());
-                    
-            // Fetch actual course entities
-            List<Course> enrolledCourses = courseRepository.findAllById(courseIds);
+            List<Course> enrolledCourses = enrolledCourses(student);
             
             // Get progress for each course
             List<ProgressDTO> courseProgressList = courseProgressService.getAllCoursesProgress(enrolledCourses, user);
@@ -106,49 +96,64 @@ public class StudentProgressController {
             ProgressDTO overallProgress = courseProgressService.getOverallProgress(enrolledCourses, user);
             
             StudentOverallProgressDTO response = new StudentOverallProgressDTO(overallProgress, courseProgressList);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(withView(response, view));
         } catch (Exception e) {
             e.printStackTrace();
             throw new RuntimeException("Error fetching course progress: " + e.getMessage());
         }
     }
     
+    /**
+     * Get the chapter progress changes since a cursor, with summaries of the affected modules and courses
+     * 
+     * @param since Cursor returned by the previous call; omit for a full initial sync
+     * @param limit Maximum number of chapter changes per call
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ProgressChangesDTO> getProgressChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit,
+            @CurrentUser User user) {
+        return ResponseEntity.ok(progressChangesService.getChanges(user, since, limit));
+    }
+    
     /**
      * Get progress for a specific course
+     * 
+     * @param view full (default) or compact for ids, percentages and flags only
      */
     @GetMapping("/courses/{courseId}")
-    public ResponseEntity<ProgressDTO> getCourseProgress(@PathVariable Long courseId) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User user = userService.getUserByUsername(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public ResponseEntity<MappingJacksonValue> getCourseProgress(
+            @PathVariable Long courseId,
+            @RequestParam(defaultValue = "full") String view,
+            WebRequest webRequest,
+            @CurrentUser User user) {
+        boolean entitled = documentAccess.isEntitled(courseId);
+        String etag = contentVersionService.courseProgressEtag(courseId, user.getId(), entitled);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
         
-        ProgressDTO progress = courseProgressService.getCourseProgress(courseId, user);
-        return ResponseEntity.ok(progress);
+        ProgressDTO progress = courseProgressService.getCourseProgress(courseId, user, entitled);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(withView(progress, view));
     }
     
     /**
      * Get overall progress stats across all enrolled courses
+     * 
+     * @param view full (default) or compact for ids, percentages and flags only
      */
     @GetMapping("/overall")
-    public ResponseEntity<ProgressDTO> getOverallProgress() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User user = userService.getUserByUsername(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
+    public ResponseEntity<MappingJacksonValue> getOverallProgress(@RequestParam(defaultValue = "full") String view,
+                                                                  @CurrentStudent StudentProfile student,
+                                                                  @CurrentUser User user) {
         try {
-            // Get profile DTO which contains enrolled courses
-            StudentProfileDTO profileDTO = studentProfileService.getStudentProfileByUserId(user.getId());
-            
-            // Extract course IDs
-            List<Long> courseIds = profileDTO.getEnrolledCourses().stream()
-                    .map(StudentProfileDTO.EnrolledCourseDTO::getCourseId)
-                    .collect(Collectors.toList());
-                    
-            // Fetch actual course entities
-            List<Course> enrolledCourses = courseRepository.findAllById(courseIds);
+            List<Course> enrolledCourses = enrolledCourses(student);
             
             ProgressDTO overallProgress = courseProgressService.getOverallProgress(enrolledCourses, user);
-            return ResponseEntity.ok(overallProgress);
+            return ResponseEntity.ok(withView(overallProgress, view));
         } catch (Exception e) {
             e.printStackTrace();
             throw new RuntimeException("Error fetching overall progress: " + e.getMessage());
@@ -159,11 +164,7 @@ public class StudentProgressController {
      * Check if a specific chapter is completed
      */
     @GetMapping("/chapters/{chapterId}/completed")
-    public ResponseEntity<Boolean> isChapterCompleted(@PathVariable Long chapterId) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User user = userService.getUserByUsername(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
+    public ResponseEntity<Boolean> isChapterCompleted(@PathVariable Long chapterId, @CurrentUser User user) {
         boolean isCompleted = courseProgressService.isChapterCompleted(chapterId, user);
         return ResponseEntity.ok(isCompleted);
     }
@@ -172,11 +173,7 @@ public class StudentProgressController {
      * Get progress percentage for a specific chapter
      */
     @GetMapping("/chapters/{chapterId}/progress")
-    public ResponseEntity<Map<String, Object>> getChapterProgress(@PathVariable Long chapterId) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        User user = userService.getUserByUsername(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
+    public ResponseEntity<Map<String, Object>> getChapterProgress(@PathVariable Long chapterId, @CurrentUser User user) {
         int progressPercentage = courseProgressService.getChapterProgressPercentage(chapterId, user);
         boolean completed = courseProgressService.isChapterCompleted(chapterId, user);
         
@@ -185,4 +182,26 @@ public class StudentProgressController {
             "completed", completed
         ));
     }
+    
+    /**
+     * The courses of the student's enrollments; @CurrentStudent fetches them in the same query as the profile
+     */
+    private List<Course> enrolledCourses(StudentProfile student) {
+        Map<Long, Course> courses = new LinkedHashMap<>();
+        for (StudentCourseEnrollment enrollment : student.getCourseEnrollments()) {
+            courses.putIfAbsent(enrollment.getCourse().getId(), enrollment.getCourse());
+        }
+        return new ArrayList<>(courses.values());
+    }
+    
+    /**
+     * Serialize with the compact progress view when requested; the full view writes every field
+     */
+    private MappingJacksonValue withView(Object body, String view) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        if ("compact".equalsIgnoreCase(view)) {
+            value.setSerializationView(ProgressViews.Compact.class);
+        }
+        return value;
+    }
 } 
\ No newline at end of file
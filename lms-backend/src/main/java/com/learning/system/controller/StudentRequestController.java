@@ -1,15 +1,19 @@
 package com.learning.system.controller;
 
+import com.learning.system.dto.BulkApprovalJobDTO;
+import com.learning.system.dto.BulkApprovalRequestDTO;
 import com.learning.system.dto.CourseApprovalDTO;
 import com.learning.system.dto.StudentProfileDTO;
 import com.learning.system.dto.StudentRequestDTO;
 import com.learning.system.dto.StudentRequestResponseDTO;
 import com.learning.system.entity.StudentRequest;
 import com.learning.system.entity.User;
+import com.learning.system.service.StudentBulkApprovalService;
 import com.learning.system.service.StudentProfileService;
 import com.learning.system.service.StudentRequestService;
 import com.learning.system.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -32,6 +36,9 @@ public class StudentRequestController {
     
     @Autowired
     private StudentProfileService studentProfileService;
+    
+    @Autowired
+    private StudentBulkApprovalService bulkApprovalService;
 
     @PostMapping
     public ResponseEntity<StudentRequestResponseDTO> createStudentRequest(@RequestBody StudentRequestDTO requestDTO) {
@@ -109,4 +116,22 @@ public class StudentRequestController {
         
         return ResponseEntity.ok(studentRequestService.updateRequestStatus(id, StudentRequest.RequestStatus.REJECTED, admin));
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Start a background job approving the given requests, or every pending request when none are given
+     */
+    @PostMapping("/bulk-approve")
+    public ResponseEntity<BulkApprovalJobDTO> bulkApprove(@RequestBody(required = false) BulkApprovalRequestDTO requestDTO) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User admin = userService.getUserByUsername(authentication.getName())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        
+        List<Long> requestIds = requestDTO != null ? requestDTO.getRequestIds() : List.of();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(bulkApprovalService.submitJob(requestIds, admin));
+    }
+    
+    @GetMapping("/bulk-approve/{jobId}")
+    public ResponseEntity<BulkApprovalJobDTO> getBulkApprovalJob(@PathVariable Long jobId) {
+        return ResponseEntity.ok(bulkApprovalService.getJobStatus(jobId));
+    }
+}
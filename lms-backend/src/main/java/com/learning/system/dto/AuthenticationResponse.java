@@ -11,4 +11,8 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class AuthenticationResponse {
     private String token;
-} 
\ No newline at end of file
+    // Exchange at /api/auth/refresh for a new token pair before the access token expires
+    private String refreshToken;
+    // Access token lifetime in seconds
+    private long expiresIn;
+}
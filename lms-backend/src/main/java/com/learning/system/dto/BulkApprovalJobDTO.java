@@ -0,0 +1,50 @@
+package com.learning.system.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.learning.system.entity.BulkApprovalJob;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO reporting the progress of a bulk approval job
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkApprovalJobDTO {
+    private Long id;
+    private BulkApprovalJob.JobStatus status;
+    private int totalItems;
+    private long pendingItems;
+    private long approvedItems;
+    private long skippedItems;
+    private long failedItems;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime startedAt;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime finishedAt;
+    
+    @Builder.Default
+    private List<FailureDTO> failures = new ArrayList<>();
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FailureDTO {
+        private Long requestId;
+        private String message;
+    }
+}
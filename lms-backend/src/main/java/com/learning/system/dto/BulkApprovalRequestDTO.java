@@ -0,0 +1,22 @@
+package com.learning.system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for starting a bulk approval job.
+ * When requestIds is empty every currently pending request is approved.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkApprovalRequestDTO {
+    @Builder.Default
+    private List<Long> requestIds = new ArrayList<>();
+}
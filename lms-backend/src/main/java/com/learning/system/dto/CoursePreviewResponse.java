@@ -6,6 +6,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 
 @Data
 @Builder
@@ -20,6 +22,25 @@ public class CoursePreviewResponse {
     private int numberOfModules;
     private int totalChapters;
     private int freeChapters;
+    private int videoChapters;
     private boolean hasAssessment;
     private String thumbnailUrl;
+    private boolean published;
+
+    /**
+     * DTO for a keyset-paginated page of course summaries.
+     * Pass nextCursor back as the cursor parameter to fetch the following page.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PageResponse {
+        private int size;
+        private boolean hasMore;
+        private Long nextCursor;
+
+        @Builder.Default
+        private List<CoursePreviewResponse> content = new ArrayList<>();
+    }
 } 
\ No newline at end of file
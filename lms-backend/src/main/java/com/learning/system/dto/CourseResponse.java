@@ -21,6 +21,7 @@ public class CourseResponse {
     private int numberOfModules;
     private int totalChapters;
     private int freeChapters;
+    private int videoChapters;
     private String thumbnailUrl;
     private List<ModuleResponse> modules;
     private boolean published;
@@ -0,0 +1,84 @@
+package com.learning.system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for one page of progress changes returned by the delta-sync endpoint.
+ * Clients apply the changes to their local state and pass the cursor back as since on the next call.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProgressChangesDTO {
+    private String cursor;
+    
+    /**
+     * True when more changes are waiting; call again with the returned cursor right away
+     */
+    private boolean hasMore;
+    
+    @Builder.Default
+    private List<ChapterChangeDTO> chapters = new ArrayList<>();
+    
+    /**
+     * Summaries of the modules that contain a changed chapter
+     */
+    @Builder.Default
+    private List<ModuleSummaryDTO> modules = new ArrayList<>();
+    
+    /**
+     * Summaries of the courses that contain a changed chapter
+     */
+    @Builder.Default
+    private List<CourseSummaryDTO> courses = new ArrayList<>();
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ChapterChangeDTO {
+        private Long progressId;
+        private Long chapterId;
+        private Long moduleId;
+        private Long courseId;
+        private int progressPercentage;
+        private int timeSpentSeconds;
+        private boolean completed;
+        private String lastUpdated;
+        private Long version;
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ModuleSummaryDTO {
+        private Long moduleId;
+        private Long courseId;
+        private int progressPercentage;
+        private int totalChapters;
+        private int completedChapters;
+        private boolean completed;
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CourseSummaryDTO {
+        private Long courseId;
+        private int progressPercentage;
+        private int totalChapters;
+        private int completedChapters;
+        private int totalModules;
+        private int completedModules;
+        private boolean completed;
+    }
+}
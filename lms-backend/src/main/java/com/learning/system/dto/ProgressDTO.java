@@ -1,5 +1,6 @@
 package com.learning.system.dto;
 
+import com.fasterxml.jackson.annotation.JsonView;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -16,27 +17,38 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 public class ProgressDTO {
+    @JsonView(ProgressViews.Compact.class)
     private Long id;
     private String title;
     private String description;
     private String thumbnailUrl;
+    @JsonView(ProgressViews.Compact.class)
     private boolean completed;
+    @JsonView(ProgressViews.Compact.class)
     private int progressPercentage;
+    @JsonView(ProgressViews.Compact.class)
     private int totalItems;
+    @JsonView(ProgressViews.Compact.class)
     private int completedItems;
     
     // Additional tracking for courses
+    @JsonView(ProgressViews.Compact.class)
     private int totalModules;
+    @JsonView(ProgressViews.Compact.class)
     private int completedModules;
+    @JsonView(ProgressViews.Compact.class)
     private int totalChapters;
+    @JsonView(ProgressViews.Compact.class)
     private int completedChapters;
     
+    @JsonView(ProgressViews.Compact.class)
     private String studentCourseEnrollmentStatus;
     
     /**
      * List of child items with their progress details
      * Used for showing module details within a course or chapters within a module
      */
+    @JsonView(ProgressViews.Compact.class)
     @Builder.Default
     private List<ProgressItemDTO> items = new ArrayList<>();
     
@@ -45,21 +57,30 @@ public class ProgressDTO {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class ProgressItemDTO {
+        @JsonView(ProgressViews.Compact.class)
         private Long id;
         private String title;
         private String description;
+        @JsonView(ProgressViews.Compact.class)
         private int orderIndex;
+        @JsonView(ProgressViews.Compact.class)
         private boolean completed;
+        @JsonView(ProgressViews.Compact.class)
         private int progressPercentage;
+        @JsonView(ProgressViews.Compact.class)
         private int totalItems;
+        @JsonView(ProgressViews.Compact.class)
         private int completedItems;
+        @JsonView(ProgressViews.Compact.class)
         private int totalChapters;
+        @JsonView(ProgressViews.Compact.class)
         private int completedChapters;
         
         /**
          * For modules, this contains chapter completion details
          * For courses, this is null
          */
+        @JsonView(ProgressViews.Compact.class)
         @Builder.Default
         private List<ChapterProgressDTO> chapters = new ArrayList<>();
     }
@@ -69,16 +90,24 @@ public class ProgressDTO {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class ChapterProgressDTO {
+        @JsonView(ProgressViews.Compact.class)
         private Long id;
         private String title;
         private String description;
+        @JsonView(ProgressViews.Compact.class)
         private int orderIndex;
+        @JsonView(ProgressViews.Compact.class)
         private boolean completed;
+        @JsonView(ProgressViews.Compact.class)
         private boolean isFree;
+        @JsonView(ProgressViews.Compact.class)
         private boolean isVideoContent;
         private String youtubeLink;
+        @JsonView(ProgressViews.Compact.class)
         private int progressPercentage;
+        @JsonView(ProgressViews.Compact.class)
         private int timeSpentSeconds;
+        @JsonView(ProgressViews.Compact.class)
         private String lastUpdated;
         private String content;
         private List<DocumentInfo> documents;
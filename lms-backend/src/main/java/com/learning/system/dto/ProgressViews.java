@@ -0,0 +1,14 @@
+package com.learning.system.dto;
+
+/**
+ * Jackson views for progress payloads.
+ * Without a view every field is written; the compact view keeps only ids, percentages, counters and flags.
+ */
+public final class ProgressViews {
+
+    public interface Compact {
+    }
+
+    private ProgressViews() {
+    }
+}
@@ -34,6 +34,7 @@ public class StudentDetailDTO {
     // Bio information
     private String bio;
     private String profileImage;
+    private String profileImageThumbnail;
 
     // Overall progress information
     private int overallProgressPercentage;
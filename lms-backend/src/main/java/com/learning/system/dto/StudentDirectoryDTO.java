@@ -0,0 +1,49 @@
+package com.learning.system.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lightweight DTO for a single row of the admin student directory search
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentDirectoryDTO {
+    private Long id;
+    private Long userId;
+    private String studentId;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private String department;
+    private boolean active;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate enrollmentDate;
+
+    /**
+     * DTO for a keyset-paginated page of directory results.
+     * Pass nextCursor back as the cursor parameter to fetch the following page.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PageResponse {
+        private int size;
+        private boolean hasMore;
+        private Long nextCursor;
+
+        @Builder.Default
+        private List<StudentDirectoryDTO> content = new ArrayList<>();
+    }
+}
@@ -1,10 +1,12 @@
 package com.learning.system.dto;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -34,6 +36,17 @@ public class StudentManagementStatsDTO {
      */
     private double completionRate;
     
+    /**
+     * When the snapshot this data was taken from was computed
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime asOf;
+    
+    /**
+     * Version of that snapshot; increases with every recompute
+     */
+    private long snapshotVersion;
+    
     /**
      * DTO for course enrollment information
      */
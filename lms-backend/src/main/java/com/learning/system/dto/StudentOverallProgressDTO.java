@@ -1,5 +1,6 @@
 package com.learning.system.dto;
 
+import com.fasterxml.jackson.annotation.JsonView;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -17,8 +18,10 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 public class StudentOverallProgressDTO {
+    @JsonView(ProgressViews.Compact.class)
     private ProgressDTO overallProgress;
     
+    @JsonView(ProgressViews.Compact.class)
     @Builder.Default
     private List<ProgressDTO> courseProgress = new ArrayList<>();
 } 
\ No newline at end of file
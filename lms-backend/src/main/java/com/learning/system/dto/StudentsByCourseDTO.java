@@ -1,11 +1,13 @@
 package com.learning.system.dto;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -26,6 +28,11 @@ public class StudentsByCourseDTO {
     private int inactiveStudents;
     private double averageCompletionRate;
     
+    // When and from which dashboard snapshot version this data was computed
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime asOf;
+    private long snapshotVersion;
+    
     @Builder.Default
     private List<StudentEnrollmentDTO> students = new ArrayList<>();
     
@@ -0,0 +1,17 @@
+package com.learning.system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionCreateDTO {
+    private String fileName;
+    private String contentType;
+    private long totalSize;
+    private String sha256;  // Hex SHA-256 of the whole file, verified when the upload completes
+}
@@ -0,0 +1,23 @@
+package com.learning.system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * State of a resumable upload; a client resumes by sending the chunk starting at receivedBytes
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionDTO {
+    private String uploadId;
+    private String fileName;
+    private long totalSize;
+    private long receivedBytes;
+    private long maxChunkSize;
+    private String status;
+    private String url;
+}
@@ -0,0 +1,51 @@
+package com.learning.system.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A background job approving a batch of StudentRequests.
+ * The per-request state lives in BulkApprovalJobItem so an interrupted job can be resumed.
+ */
+@Entity
+@Table(name = "bulk_approval_jobs", indexes = {
+    @Index(name = "idx_bulk_approval_jobs_status", columnList = "status")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkApprovalJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private JobStatus status;
+
+    @Column(nullable = false)
+    private Integer totalItems;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "created_by")
+    private User createdBy;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    public enum JobStatus {
+        QUEUED,
+        RUNNING,
+        COMPLETED
+    }
+}
@@ -0,0 +1,47 @@
+package com.learning.system.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "bulk_approval_job_items", indexes = {
+    @Index(name = "idx_bulk_approval_items_job_status", columnList = "job_id, status")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkApprovalJobItem {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "job_id", nullable = false)
+    private BulkApprovalJob job;
+
+    @Column(name = "request_id", nullable = false)
+    private Long requestId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private ItemStatus status = ItemStatus.PENDING;
+
+    @Column(length = 1000)
+    private String errorMessage;
+
+    private LocalDateTime processedAt;
+
+    public enum ItemStatus {
+        PENDING,
+        APPROVED,
+        SKIPPED,
+        FAILED
+    }
+}
@@ -5,11 +5,17 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.OptimisticLock;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "chapters")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "chapters")
 @Data
 @Builder
 @NoArgsConstructor
@@ -54,13 +60,22 @@ public class Chapter {
     private Document document;
 
     @OneToMany(mappedBy = "chapter", cascade = CascadeType.ALL)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "chapter-documents")
     private List<Document> documents;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
     
+    // Per-student completion is not a content change
+    @OptimisticLock(excluded = true)
     @ManyToMany
     @JoinTable(
         name = "chapter_completions",
         joinColumns = @JoinColumn(name = "chapter_id"),
-        inverseJoinColumns = @JoinColumn(name = "user_id")
+        inverseJoinColumns = @JoinColumn(name = "user_id"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_chapter_completions_user_chapter", columnNames = {"user_id", "chapter_id"})
     )
     @Builder.Default
     private List<User> completedByUsers = new ArrayList<>();
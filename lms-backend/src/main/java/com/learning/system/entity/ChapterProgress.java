@@ -5,10 +5,14 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "chapter_progress")
+// Keyset index for the progress delta-sync endpoint
+@Table(name = "chapter_progress", indexes = {
+        @Index(name = "idx_chapter_progress_user_changes", columnList = "user_id, last_updated, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -43,7 +47,7 @@ public class ChapterProgress {
     /**
      * Last timestamp when progress was updated
      */
-    @Column(nullable = false)
+    @Column(name = "last_updated", nullable = false)
     @Builder.Default
     private LocalDateTime lastUpdated = LocalDateTime.now();
     
@@ -53,6 +57,11 @@ public class ChapterProgress {
     @Column(nullable = false)
     @Builder.Default
     private boolean completed = false;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
     
     public void updateProgress(int newProgressPercentage, int additionalTimeSpent) {
         // Update progress if it's higher than current progress
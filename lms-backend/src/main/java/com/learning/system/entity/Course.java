@@ -5,12 +5,20 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "courses")
+// Keyset index for the published course listing
+@Table(name = "courses", indexes = {
+        @Index(name = "idx_courses_published_id", columnList = "is_published, id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "courses")
 @Data
 @Builder
 @NoArgsConstructor
@@ -40,6 +48,12 @@ public class Course {
     @Column(nullable = false)
     private Integer freeChapters;
 
+    // numberOfModules, totalChapters, freeChapters and videoChapters are maintained by CourseCounterService
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer videoChapters = 0;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "instructor_id")
     private User instructor;
@@ -59,7 +73,13 @@ public class Course {
 //    @Column(nullable = false)
     private String thumbnailUrl;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "course", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "course-modules")
     @Builder.Default
     private List<Module> modules = new ArrayList<>();
 }
\ No newline at end of file
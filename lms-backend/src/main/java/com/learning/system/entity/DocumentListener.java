@@ -0,0 +1,22 @@
+package com.learning.system.entity;
+
+import com.learning.system.event.DocumentDeletedEvent;
+import jakarta.persistence.PostRemove;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes a DocumentDeletedEvent for every removed document, including those removed by cascade
+ */
+@Component
+public class DocumentListener {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostRemove
+    public void onRemove(Document document) {
+        eventPublisher.publishEvent(new DocumentDeletedEvent(document.getId(), document.getUrl()));
+    }
+}
@@ -0,0 +1,26 @@
+package com.learning.system.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A named hi/lo sequence. Each node reserves a block of values by advancing nextValue
+ * under a row lock and then hands the block out from memory.
+ */
+@Entity
+@Table(name = "id_sequences")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdSequence {
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+}
@@ -5,12 +5,18 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.OptimisticLock;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "modules")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "modules")
 @Data
 @Builder
 @NoArgsConstructor
@@ -31,6 +37,7 @@ public class Module {
     private Course course;
 
     @OneToMany(mappedBy = "module", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "module-chapters")
     @Builder.Default
     private List<Chapter> chapters = new ArrayList<>();
 
@@ -41,11 +48,19 @@ public class Module {
     @Builder.Default
     private boolean completed = false;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    // Per-student completion is not a content change
+    @OptimisticLock(excluded = true)
     @ManyToMany
     @JoinTable(
         name = "module_completions",
         joinColumns = @JoinColumn(name = "module_id"),
-        inverseJoinColumns = @JoinColumn(name = "user_id")
+        inverseJoinColumns = @JoinColumn(name = "user_id"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_module_completions_user_module", columnNames = {"user_id", "module_id"})
     )
     private List<User> completedByUsers = new ArrayList<>();
 } 
\ No newline at end of file
@@ -2,9 +2,13 @@ package com.learning.system.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "permissions")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "permissions")
 @Data
 public class Permission {
     @Id
@@ -0,0 +1,54 @@
+package com.learning.system.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A refresh token, stored as the SHA-256 of the value handed to the client.
+ *
+ * Each refresh replaces the token with a new one of the same family. A token that is presented
+ * again after it was replaced means it was stolen, and the whole family is revoked.
+ */
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+    @Index(name = "idx_refresh_tokens_hash", columnList = "token_hash", unique = true),
+    @Index(name = "idx_refresh_tokens_family", columnList = "family_id"),
+    @Index(name = "idx_refresh_tokens_user", columnList = "user_id"),
+    @Index(name = "idx_refresh_tokens_expires", columnList = "expires_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "token_hash", nullable = false, length = 64)
+    private String tokenHash;
+
+    // Shared by every token rotated from the same login
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Set when the token was exchanged for a new one
+    private LocalDateTime rotatedAt;
+
+    @Column(nullable = false)
+    private boolean revoked;
+}
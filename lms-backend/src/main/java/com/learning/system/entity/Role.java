@@ -2,10 +2,14 @@ package com.learning.system.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.Set;
 
 @Entity
 @Table(name = "roles")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "roles")
 @Data
 public class Role {
     @Id
@@ -16,6 +20,7 @@ public class Role {
     private String name;
 
     @ManyToMany(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "role-permissions")
     @JoinTable(
         name = "role_permissions",
         joinColumns = @JoinColumn(name = "role_id"),
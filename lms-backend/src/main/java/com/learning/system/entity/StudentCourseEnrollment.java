@@ -9,6 +9,9 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDate;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_enrollment_course_student", columnList = "course_id, student_profile_id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -11,6 +11,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_student_profile_student_id", columnList = "student_id"),
+    @Index(name = "idx_student_profile_department_id", columnList = "department, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -24,6 +28,7 @@ public class StudentProfile {
     @JoinColumn(name = "user_id")
     private User user;
     private String gender;
+    @Column(name = "student_id")
     private String studentId;
     private String knowledge;
     private String whatsAppNumber;
@@ -35,6 +40,8 @@ public class StudentProfile {
     private String emergencyContactRelation;
     private String emergencyContactPhone;
     private String profileImage;
+    // Small variant of profileImage for listings; null for images not produced by AvatarService
+    private String profileImageThumbnail;
     private String bio;
     
     @OneToMany(mappedBy = "student", cascade = CascadeType.ALL, orphanRemoval = true)
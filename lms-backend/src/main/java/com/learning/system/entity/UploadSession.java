@@ -0,0 +1,64 @@
+package com.learning.system.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A resumable chunked upload. The bytes live in a part file named after the session id
+ * until the upload is completed and moved into the upload directory.
+ */
+@Entity
+@Table(name = "upload_sessions", indexes = {
+    @Index(name = "idx_upload_sessions_status_updated", columnList = "status, updated_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSession {
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String fileName;
+
+    private String contentType;
+
+    @Column(nullable = false)
+    private long totalSize;
+
+    @Column(nullable = false)
+    private long receivedBytes;
+
+    // Hex SHA-256 of the whole file, declared by the client and checked on completion
+    @Column(length = 64)
+    private String sha256;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    @Column(length = 1000)
+    private String url;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public enum Status {
+        IN_PROGRESS,
+        COMPLETING,
+        COMPLETED
+    }
+}
@@ -0,0 +1,25 @@
+package com.learning.system.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bytes a user has stored through the file upload endpoint, counted against their storage quota
+ */
+@Entity
+@Table(name = "upload_usage")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadUsage {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private long usedBytes;
+}
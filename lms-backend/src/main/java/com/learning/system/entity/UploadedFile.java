@@ -0,0 +1,34 @@
+package com.learning.system.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A file stored through the upload endpoints, so its size can be given back to the uploader's quota
+ * when it is deleted
+ */
+@Entity
+@Table(name = "uploaded_files")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadedFile {
+    @Id
+    @Column(name = "storage_key", length = 500)
+    private String storageKey;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private long sizeBytes;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
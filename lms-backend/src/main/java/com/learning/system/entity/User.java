@@ -1,10 +1,12 @@
 package com.learning.system.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -14,7 +16,10 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    @Index(name = "idx_users_first_name", columnList = "first_name"),
+    @Index(name = "idx_users_last_name", columnList = "last_name")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -45,6 +50,15 @@ public class User implements UserDetails {
     @Column(nullable = false)
     private boolean active = true;
 
+    /**
+     * Tokens issued with a lower version are no longer accepted
+     */
+    @Column(name = "token_version", nullable = false)
+    @ColumnDefault("0")
+    @JsonIgnore
+    @Builder.Default
+    private int tokenVersion = 0;
+
     @ManyToMany(fetch = FetchType.EAGER)
     @JoinTable(
         name = "user_roles",
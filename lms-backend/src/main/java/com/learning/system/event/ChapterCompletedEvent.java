@@ -0,0 +1,15 @@
+package com.learning.system.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A student completed a chapter
+ */
+@Getter
+@AllArgsConstructor
+public class ChapterCompletedEvent {
+    private final Long userId;
+    private final Long chapterId;
+    private final Long moduleId;
+}
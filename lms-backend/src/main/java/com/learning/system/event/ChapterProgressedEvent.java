@@ -0,0 +1,21 @@
+package com.learning.system.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A student's progress record for a chapter was created or updated
+ */
+@Getter
+@AllArgsConstructor
+public class ChapterProgressedEvent {
+    private final Long userId;
+    private final Long chapterId;
+    private final Long progressId;
+    private final int progressPercentage;
+    private final boolean completed;
+    /**
+     * Whether this update completed the chapter or reopened it
+     */
+    private final boolean completionChanged;
+}
@@ -0,0 +1,16 @@
+package com.learning.system.event;
+
+import com.learning.system.entity.StudentCourseRequest;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A student's course request was created or changed status
+ */
+@Getter
+@AllArgsConstructor
+public class CourseRequestChangedEvent {
+    private final Long requestId;
+    private final Long studentUserId;
+    private final StudentCourseRequest.RequestStatus status;
+}
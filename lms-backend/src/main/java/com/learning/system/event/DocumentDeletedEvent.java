@@ -0,0 +1,14 @@
+package com.learning.system.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A chapter document was deleted, directly or along with its chapter
+ */
+@Getter
+@AllArgsConstructor
+public class DocumentDeletedEvent {
+    private final Long documentId;
+    private final String url;
+}
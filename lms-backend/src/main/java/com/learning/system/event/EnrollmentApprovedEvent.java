@@ -0,0 +1,17 @@
+package com.learning.system.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * An admin approved a student's course request
+ */
+@Getter
+@AllArgsConstructor
+public class EnrollmentApprovedEvent {
+    private final Long courseRequestId;
+    private final Long studentUserId;
+    private final List<Long> courseIds;
+}
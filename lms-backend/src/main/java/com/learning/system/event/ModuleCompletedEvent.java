@@ -0,0 +1,15 @@
+package com.learning.system.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A student completed every chapter of a module
+ */
+@Getter
+@AllArgsConstructor
+public class ModuleCompletedEvent {
+    private final Long userId;
+    private final Long moduleId;
+    private final Long courseId;
+}
@@ -0,0 +1,15 @@
+package com.learning.system.event;
+
+import com.learning.system.entity.StudentRequest;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A student registration request was created or changed status
+ */
+@Getter
+@AllArgsConstructor
+public class StudentRequestChangedEvent {
+    private final Long requestId;
+    private final StudentRequest.RequestStatus status;
+}
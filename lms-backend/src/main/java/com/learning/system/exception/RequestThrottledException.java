@@ -0,0 +1,21 @@
+package com.learning.system.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+/**
+ * A request turned away to protect the server; answered with a Retry-After header
+ */
+@Getter
+public class RequestThrottledException extends RuntimeException {
+    private final HttpStatus status;
+    private final Duration retryAfter;
+
+    public RequestThrottledException(HttpStatus status, String message, Duration retryAfter) {
+        super(message);
+        this.status = status;
+        this.retryAfter = retryAfter;
+    }
+}
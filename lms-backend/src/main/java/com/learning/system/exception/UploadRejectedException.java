@@ -0,0 +1,17 @@
+package com.learning.system.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * An upload turned away before its body was read
+ */
+@Getter
+public class UploadRejectedException extends RuntimeException {
+    private final HttpStatus status;
+
+    public UploadRejectedException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+}
@@ -3,6 +3,9 @@ package com.learning.system.mapper;
 import com.learning.system.dto.*;
 import com.learning.system.entity.*;
 import com.learning.system.entity.Module;
+import com.learning.system.security.DocumentAccess;
+import com.learning.system.security.DownloadUrlSigner;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.stream.Collectors;
@@ -10,7 +13,23 @@ import java.util.stream.Collectors;
 @Component
 public class CourseMapper {
 
+    @Autowired
+    private DownloadUrlSigner downloadUrlSigner;
+
+    @Autowired
+    private DocumentAccess documentAccess;
+
+    /**
+     * Full course tree, with document URLs signed as far as the current caller is entitled to them
+     */
     public CourseResponse toCourseResponse(Course course) {
+        return toCourseResponse(course, documentAccess.isEntitled(course.getId()));
+    }
+
+    /**
+     * Full course tree; documents of paid chapters are signed only for an entitled caller
+     */
+    public CourseResponse toCourseResponse(Course course, boolean entitled) {
         return CourseResponse.builder()
                 .id(course.getId())
                 .title(course.getTitle())
@@ -20,27 +39,48 @@ public class CourseMapper {
                 .numberOfModules(course.getNumberOfModules())
                 .totalChapters(course.getTotalChapters())
                 .freeChapters(course.getFreeChapters())
-                .thumbnailUrl(course.getThumbnailUrl())
+                .videoChapters(course.getVideoChapters())
+                .thumbnailUrl(downloadUrlSigner.sign(course.getThumbnailUrl()))
                 .published(course.isPublished())
                 .modules(course.getModules().stream()
-                        .map(this::toModuleResponse)
+                        .map(module -> toModuleResponse(module, entitled))
                         .collect(Collectors.toList()))
                 .build();
     }
 
-    private ModuleResponse toModuleResponse(Module module) {
+    /**
+     * Listing summary; reads only the course row, never its modules
+     */
+    public CoursePreviewResponse toCoursePreviewResponse(Course course) {
+        return CoursePreviewResponse.builder()
+                .id(course.getId())
+                .title(course.getTitle())
+                .description(course.getDescription())
+                .durationInWeeks(course.getDurationInWeeks() != null ? course.getDurationInWeeks() : 0)
+                .fee(course.getFee())
+                .numberOfModules(course.getNumberOfModules())
+                .totalChapters(course.getTotalChapters())
+                .freeChapters(course.getFreeChapters())
+                .videoChapters(course.getVideoChapters())
+                .thumbnailUrl(downloadUrlSigner.sign(course.getThumbnailUrl()))
+                .published(course.isPublished())
+                .build();
+    }
+
+    private ModuleResponse toModuleResponse(Module module, boolean entitled) {
         return ModuleResponse.builder()
                 .id(module.getId())
                 .title(module.getTitle())
                 .description(module.getDescription())
                 .orderIndex(module.getOrderIndex())
                 .chapters(module.getChapters().stream()
-                        .map(this::toChapterResponse)
+                        .map(chapter -> toChapterResponse(chapter, entitled))
                         .collect(Collectors.toList()))
                 .build();
     }
 
-    private ChapterResponse toChapterResponse(Chapter chapter) {
+    private ChapterResponse toChapterResponse(Chapter chapter, boolean entitled) {
+        boolean signed = entitled || chapter.isFree();
         return ChapterResponse.builder()
                 .id(chapter.getId())
                 .title(chapter.getTitle())
@@ -52,23 +92,27 @@ public class CourseMapper {
                 .youtubeLink(chapter.getYoutubeLink())
                 .documents(chapter.getDocuments() != null ? 
                     chapter.getDocuments().stream()
-                        .map(this::toDocumentResponse)
+                        .map(document -> toDocumentResponse(document, signed))
                         .collect(Collectors.toList()) 
                     : null)
                 .build();
     }
 
-    private DocumentResponse toDocumentResponse(Document document) {
+    /**
+     * Document with a signed URL, or the plain URL (which downloads refuse) when it must not be signed
+     */
+    private DocumentResponse toDocumentResponse(Document document, boolean signed) {
         return DocumentResponse.builder()
                 .id(document.getId())
                 .name(document.getName())
-                .url(document.getUrl())
+                .url(signed ? downloadUrlSigner.sign(document.getUrl()) : document.getUrl())
                 .size(document.getSize())
                 .type(document.getType())
                 .build();
     }
 
     public CourseDetailResponse toCourseDetailResponse(Course course) {
+        boolean entitled = documentAccess.isEntitled(course.getId());
         return CourseDetailResponse.builder()
                 .id(course.getId())
                 .title(course.getTitle())
@@ -76,15 +120,12 @@ public class CourseMapper {
                 .durationInWeeks(course.getDurationInWeeks())
                 .fee(course.getFee())
                 .modules(course.getModules().stream()
-                        .map(this::toModuleResponse)
+                        .map(module -> toModuleResponse(module, entitled))
                         .collect(Collectors.toList()))
                 .totalModules(course.getNumberOfModules())
                 .totalChapters(course.getTotalChapters())
                 .freeChapters(course.getFreeChapters())
-                .videoChapters((int) course.getModules().stream()
-                        .flatMap(module -> module.getChapters().stream())
-                        .filter(Chapter::isVideoContent)
-                        .count())
+                .videoChapters(course.getVideoChapters())
                 .build();
     }
 } 
\ No newline at end of file
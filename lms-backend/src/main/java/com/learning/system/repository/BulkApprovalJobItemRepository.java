@@ -0,0 +1,28 @@
+package com.learning.system.repository;
+
+import com.learning.system.entity.BulkApprovalJobItem;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BulkApprovalJobItemRepository extends JpaRepository<BulkApprovalJobItem, Long> {
+    List<BulkApprovalJobItem> findByJob_IdAndStatusOrderByIdAsc(Long jobId, BulkApprovalJobItem.ItemStatus status, Pageable pageable);
+    
+    List<BulkApprovalJobItem> findByJob_IdAndStatus(Long jobId, BulkApprovalJobItem.ItemStatus status);
+    
+    /**
+     * Count items of a job grouped by status, returned as [status, count] rows
+     */
+    @Query("SELECT i.status, COUNT(i) FROM BulkApprovalJobItem i WHERE i.job.id = :jobId GROUP BY i.status")
+    List<Object[]> countByStatus(@Param("jobId") Long jobId);
+    
+    @Modifying
+    @Query("DELETE FROM BulkApprovalJobItem i WHERE i.job.id = :jobId")
+    int deleteByJobId(@Param("jobId") Long jobId);
+}
@@ -0,0 +1,13 @@
+package com.learning.system.repository;
+
+import com.learning.system.entity.BulkApprovalJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BulkApprovalJobRepository extends JpaRepository<BulkApprovalJob, Long> {
+    List<BulkApprovalJob> findByStatusIn(Collection<BulkApprovalJob.JobStatus> statuses);
+}
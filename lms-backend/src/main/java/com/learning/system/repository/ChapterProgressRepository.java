@@ -3,10 +3,14 @@ package com.learning.system.repository;
 import com.learning.system.entity.Chapter;
 import com.learning.system.entity.ChapterProgress;
 import com.learning.system.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -46,8 +50,44 @@ public interface ChapterProgressRepository extends JpaRepository<ChapterProgress
     Long countCompletedChaptersInCourse(Long courseId, Long userId);
     
     /**
-     * Count total chapters in a course
+     * Fingerprint of a user's progress in a course: progress record versions, legacy completions
+     * and the enrollment status
      */
-    @Query("SELECT COUNT(c) FROM Chapter c WHERE c.module.course.id = :courseId")
-    Long countTotalChaptersInCourse(Long courseId);
+    @Query(value = "SELECT CONCAT_WS(':', " +
+            "(SELECT CONCAT_WS('.', COUNT(*), COALESCE(SUM(cp.version), 0), COALESCE(SUM(cp.id), 0)) " +
+            " FROM chapter_progress cp JOIN chapters ch ON ch.id = cp.chapter_id JOIN modules m ON m.id = ch.module_id " +
+            " WHERE m.course_id = :courseId AND cp.user_id = :userId), " +
+            "(SELECT COUNT(*) FROM chapter_completions cc JOIN chapters ch ON ch.id = cc.chapter_id " +
+            " JOIN modules m ON m.id = ch.module_id WHERE m.course_id = :courseId AND cc.user_id = :userId), " +
+            "(SELECT COALESCE(MAX(e.status), 'NOT_ENROLLED') FROM student_course_enrollment e " +
+            " JOIN student_profile sp ON sp.id = e.student_profile_id " +
+            " WHERE e.course_id = :courseId AND sp.user_id = :userId))", nativeQuery = true)
+    String findProgressVersion(@Param("courseId") Long courseId, @Param("userId") Long userId);
+    
+    /**
+     * Progress records of a user changed after the given (lastUpdated, id) position, oldest first
+     */
+    @Query("SELECT cp FROM ChapterProgress cp JOIN FETCH cp.chapter ch JOIN FETCH ch.module " +
+            "WHERE cp.user.id = :userId " +
+            "AND (cp.lastUpdated > :since OR (cp.lastUpdated = :since AND cp.id > :sinceId)) " +
+            "ORDER BY cp.lastUpdated, cp.id")
+    List<ChapterProgress> findChangedSince(@Param("userId") Long userId,
+                                           @Param("since") LocalDateTime since,
+                                           @Param("sinceId") Long sinceId,
+                                           Pageable pageable);
+    
+    /**
+     * Per module of the given courses: module id, course id, total chapters and chapters completed by the user.
+     * A chapter counts as completed by its progress record, or by the legacy completion list when it has none.
+     */
+    @Query(value = "SELECT m.id, m.course_id, COUNT(ch.id), " +
+            "COALESCE(SUM(CASE WHEN COALESCE(" +
+            "(SELECT cp.completed FROM chapter_progress cp " +
+            " WHERE cp.chapter_id = ch.id AND cp.user_id = :userId ORDER BY cp.id LIMIT 1), " +
+            "EXISTS (SELECT 1 FROM chapter_completions cc WHERE cc.chapter_id = ch.id AND cc.user_id = :userId)) " +
+            "THEN 1 ELSE 0 END), 0) " +
+            "FROM modules m LEFT JOIN chapters ch ON ch.module_id = m.id " +
+            "WHERE m.course_id IN (:courseIds) " +
+            "GROUP BY m.id, m.course_id", nativeQuery = true)
+    List<Object[]> countChaptersByModule(@Param("courseIds") Collection<Long> courseIds, @Param("userId") Long userId);
 } 
\ No newline at end of file
@@ -1,7 +1,13 @@
 package com.learning.system.repository;
 
 import com.learning.system.entity.Chapter;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,5 +15,27 @@ import java.util.List;
 @Repository
 public interface ChapterRepository extends JpaRepository<Chapter, Long> {
     List<Chapter> findByModule_Id(Long moduleId);
+    
+    /**
+     * Chapters of published courses with their document lists; used to warm the second-level cache
+     */
+    @Query("SELECT DISTINCT ch FROM Chapter ch LEFT JOIN FETCH ch.documents WHERE ch.module.course.published = true")
+    List<Chapter> findPublishedWithDocuments();
+    
+    /**
+     * Fingerprint of a chapter and its module; null when the chapter does not exist
+     */
+    @Query(value = "SELECT CONCAT_WS(':', ch.version, m.version) " +
+            "FROM chapters ch JOIN modules m ON m.id = ch.module_id WHERE ch.id = :chapterId", nativeQuery = true)
+    String findContentVersion(@Param("chapterId") Long chapterId);
 //    List<Chapter> findByModule_Course_IdAndFreeIsTrue(Long courseId);
+    
+    /**
+     * Add the user to the completion list of the chapter unless already there; returns 1 when added
+     */
+    @Modifying
+    // Names the written table, so Hibernate does not clear every second-level cache region
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "chapter_completions"))
+    @Query(value = "INSERT IGNORE INTO chapter_completions (chapter_id, user_id) VALUES (:chapterId, :userId)", nativeQuery = true)
+    int addCompletion(@Param("chapterId") Long chapterId, @Param("userId") Long userId);
 } 
\ No newline at end of file
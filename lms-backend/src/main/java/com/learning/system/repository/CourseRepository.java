@@ -1,13 +1,91 @@
 package com.learning.system.repository;
 
 import com.learning.system.entity.Course;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
 public interface CourseRepository extends JpaRepository<Course, Long> {
+    String MODULE_COUNT = "(SELECT COUNT(*) FROM modules m WHERE m.course_id = c.id)";
+    String CHAPTER_COUNT = "(SELECT COUNT(*) FROM chapters ch JOIN modules m ON m.id = ch.module_id WHERE m.course_id = c.id";
+    
     List<Course> findByCreatedBy_Id(Long userId);
+    
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "published-courses")
+    })
     List<Course> findByPublished(boolean published);
+    
+    @Query("SELECT c.id FROM Course c")
+    List<Long> findAllIds();
+    
+    /**
+     * Published courses with their module lists, in one query; used to warm the second-level cache
+     */
+    @Query("SELECT DISTINCT c FROM Course c LEFT JOIN FETCH c.modules WHERE c.published = true")
+    List<Course> findPublishedWithModules();
+    
+    /**
+     * Keyset-paginated course listings ordered by id, so every page is an index range scan
+     */
+    @Query("SELECT c FROM Course c WHERE c.id > :afterId ORDER BY c.id ASC")
+    List<Course> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT c FROM Course c WHERE c.published = :published AND c.id > :afterId ORDER BY c.id ASC")
+    List<Course> findPageByPublishedAfter(@Param("published") boolean published,
+                                          @Param("afterId") Long afterId,
+                                          Pageable pageable);
+    
+    @Query("SELECT c FROM Course c WHERE c.createdBy.id = :userId AND c.id > :afterId ORDER BY c.id ASC")
+    List<Course> findPageByCreatorAfter(@Param("userId") Long userId,
+                                        @Param("afterId") Long afterId,
+                                        Pageable pageable);
+    
+    /**
+     * Cheap fingerprint of a course tree: the course version plus count/sum aggregates of the
+     * versions and ids of its modules, chapters and documents. Null when the course does not exist.
+     */
+    @Query(value = "SELECT CONCAT_WS(':', c.version, " +
+            "(SELECT CONCAT_WS('.', COUNT(*), COALESCE(SUM(m.version), 0), COALESCE(SUM(m.id), 0)) " +
+            " FROM modules m WHERE m.course_id = c.id), " +
+            "(SELECT CONCAT_WS('.', COUNT(*), COALESCE(SUM(ch.version), 0), COALESCE(SUM(ch.id), 0)) " +
+            " FROM chapters ch JOIN modules m ON m.id = ch.module_id WHERE m.course_id = c.id), " +
+            "(SELECT CONCAT_WS('.', COUNT(*), COALESCE(SUM(d.id), 0)) " +
+            " FROM documents d JOIN chapters ch ON ch.id = d.chapter_id JOIN modules m ON m.id = ch.module_id " +
+            " WHERE m.course_id = c.id)) " +
+            "FROM courses c WHERE c.id = :courseId", nativeQuery = true)
+    String findContentVersion(@Param("courseId") Long courseId);
+    
+    /**
+     * Recompute the stored structure counters of a course from its modules and chapters
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "courses"))
+    @Query(value = "UPDATE courses c SET " +
+            "c.number_of_modules = " + MODULE_COUNT + ", " +
+            "c.total_chapters = " + CHAPTER_COUNT + "), " +
+            "c.free_chapters = " + CHAPTER_COUNT + " AND ch.is_free = TRUE), " +
+            "c.video_chapters = " + CHAPTER_COUNT + " AND ch.is_video_content = TRUE) " +
+            "WHERE c.id = :courseId", nativeQuery = true)
+    int recountStructure(@Param("courseId") Long courseId);
+    
+    /**
+     * Ids of courses whose stored structure counters no longer match their modules and chapters
+     */
+    @Query(value = "SELECT c.id FROM courses c WHERE " +
+            "c.number_of_modules <> " + MODULE_COUNT + " " +
+            "OR c.total_chapters <> " + CHAPTER_COUNT + ") " +
+            "OR c.free_chapters <> " + CHAPTER_COUNT + " AND ch.is_free = TRUE) " +
+            "OR c.video_chapters <> " + CHAPTER_COUNT + " AND ch.is_video_content = TRUE)", nativeQuery = true)
+    List<Long> findIdsWithStaleStructure();
 } 
\ No newline at end of file
@@ -9,4 +9,6 @@ import java.util.Optional;
 @Repository
 public interface DocumentRepository extends JpaRepository<Document, Long> {
     Optional<Document> findByUrl(String url);
+    
+    boolean existsByUrl(String url);
 } 
\ No newline at end of file
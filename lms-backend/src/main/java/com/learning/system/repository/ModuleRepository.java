@@ -1,7 +1,13 @@
 package com.learning.system.repository;
 
 import com.learning.system.entity.Module;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,4 +16,37 @@ import java.util.List;
 public interface ModuleRepository extends JpaRepository<Module, Long> {
     List<Module> findByCourse_Id(Long courseId);
     List<Module> findByCourse_IdOrderByOrderIndexAsc(Long courseId);
+    
+    /**
+     * Modules of published courses with their chapter lists; used to warm the second-level cache
+     */
+    @Query("SELECT DISTINCT m FROM Module m LEFT JOIN FETCH m.chapters WHERE m.course.published = true")
+    List<Module> findPublishedWithChapters();
+    
+    /**
+     * Fingerprint of a module and its chapters and documents; null when the module does not exist
+     */
+    @Query(value = "SELECT CONCAT_WS(':', m.version, " +
+            "(SELECT CONCAT_WS('.', COUNT(*), COALESCE(SUM(ch.version), 0), COALESCE(SUM(ch.id), 0)) " +
+            " FROM chapters ch WHERE ch.module_id = m.id), " +
+            "(SELECT CONCAT_WS('.', COUNT(*), COALESCE(SUM(d.id), 0)) " +
+            " FROM documents d JOIN chapters ch ON ch.id = d.chapter_id WHERE ch.module_id = m.id)) " +
+            "FROM modules m WHERE m.id = :moduleId", nativeQuery = true)
+    String findContentVersion(@Param("moduleId") Long moduleId);
+    
+    /**
+     * Entries of the user in the completion list of the module, counted without loading the list
+     */
+    @Query(value = "SELECT COUNT(*) FROM module_completions WHERE module_id = :moduleId AND user_id = :userId",
+            nativeQuery = true)
+    long countCompletions(@Param("moduleId") Long moduleId, @Param("userId") Long userId);
+    
+    /**
+     * Add the user to the completion list of the module unless already there; returns 1 when added
+     */
+    @Modifying
+    // Names the written table, so Hibernate does not clear every second-level cache region
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "module_completions"))
+    @Query(value = "INSERT IGNORE INTO module_completions (module_id, user_id) VALUES (:moduleId, :userId)", nativeQuery = true)
+    int addCompletion(@Param("moduleId") Long moduleId, @Param("userId") Long userId);
 } 
\ No newline at end of file
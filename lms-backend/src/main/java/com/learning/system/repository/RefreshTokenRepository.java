@@ -0,0 +1,46 @@
+package com.learning.system.repository;
+
+import com.learning.system.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+    
+    /**
+     * Mark a token as exchanged; only one caller can rotate a token
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE RefreshToken t SET t.rotatedAt = :now " +
+           "WHERE t.id = :id AND t.rotatedAt IS NULL AND t.revoked = false")
+    int markRotated(@Param("id") Long id, @Param("now") LocalDateTime now);
+    
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE RefreshToken t SET t.revoked = true WHERE t.familyId = :familyId AND t.revoked = false")
+    int revokeFamily(@Param("familyId") String familyId);
+    
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE RefreshToken t SET t.revoked = true WHERE t.userId = :userId AND t.revoked = false")
+    int revokeByUserId(@Param("userId") Long userId);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt < :cutoff")
+    int deleteExpiredBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -4,6 +4,8 @@ import com.learning.system.entity.Course;
 import com.learning.system.entity.StudentCourseEnrollment;
 import com.learning.system.entity.StudentProfile;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -15,4 +17,11 @@ public interface StudentCourseEnrollmentRepository extends JpaRepository<Student
     List<StudentCourseEnrollment> findByCourse(Course course);
     Optional<StudentCourseEnrollment> findByStudentAndCourse(StudentProfile student, Course course);
     boolean existsByStudentAndCourse(StudentProfile student, Course course);
+
+    /**
+     * Ids of the courses a user is enrolled in with any status other than the given one
+     */
+    @Query("SELECT e.course.id FROM StudentCourseEnrollment e WHERE e.student.user.id = :userId AND e.status <> :status")
+    List<Long> findCourseIdsByUserIdAndStatusNot(@Param("userId") Long userId,
+                                                @Param("status") StudentCourseEnrollment.EnrollmentStatus status);
 } 
\ No newline at end of file
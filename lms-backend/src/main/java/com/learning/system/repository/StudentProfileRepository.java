@@ -2,10 +2,13 @@ package com.learning.system.repository;
 
 import com.learning.system.entity.StudentProfile;
 import com.learning.system.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,10 +20,55 @@ public interface StudentProfileRepository extends JpaRepository<StudentProfile,
     @Query("SELECT sp FROM StudentProfile sp WHERE sp.user.id = :userId")
     List<StudentProfile> findByUserId(@Param("userId") Long userId);
     
+    /**
+     * The profiles of a user with the user, the enrollments and their courses in one query
+     */
+    @Query("SELECT DISTINCT sp FROM StudentProfile sp LEFT JOIN FETCH sp.user " +
+           "LEFT JOIN FETCH sp.courseEnrollments e LEFT JOIN FETCH e.course " +
+           "WHERE sp.user.id = :userId")
+    List<StudentProfile> findWithEnrollmentsByUserId(@Param("userId") Long userId);
+    
     Optional<StudentProfile> findByStudentId(String studentId);
     
     @Query("SELECT sp FROM StudentProfile sp WHERE sp.user.username = :username")
     List<StudentProfile> findByUserUsername(@Param("username") String username);
     
     boolean existsByStudentId(String studentId);
+    
+    @Query("SELECT COALESCE(MAX(sp.id), 0) FROM StudentProfile sp")
+    Long findMaxId();
+    
+    /**
+     * Point a profile at newly processed avatar images without touching its other columns
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE StudentProfile sp SET sp.profileImage = :image, sp.profileImageThumbnail = :thumbnail WHERE sp.id = :id")
+    int updateProfileImage(@Param("id") Long id, @Param("image") String image, @Param("thumbnail") String thumbnail);
+    
+    /**
+     * Keyset-paginated directory search ordered by profile id.
+     * The prefix must already be escaped with '!' and end with '%' so the LIKE can use the name/email indexes.
+     * Filters left null fold away, so the remaining ones can use their index: (student_id), (department, id)
+     * for the department in id order, an index merge over first name, last name and email for the OR of
+     * prefixes, and enrollment (course_id, student_profile_id) for the course.
+     */
+    @Query("SELECT sp FROM StudentProfile sp JOIN FETCH sp.user u " +
+           "WHERE sp.id > :afterId " +
+           "AND (:studentId IS NULL OR sp.studentId = :studentId) " +
+           "AND (:prefix IS NULL OR u.firstName LIKE :prefix ESCAPE '!' " +
+           "     OR u.lastName LIKE :prefix ESCAPE '!' " +
+           "     OR u.email LIKE :prefix ESCAPE '!') " +
+           "AND (:department IS NULL OR sp.department = :department) " +
+           "AND (:active IS NULL OR u.active = :active) " +
+           "AND (:courseId IS NULL OR EXISTS (SELECT e.id FROM StudentCourseEnrollment e " +
+           "     WHERE e.student = sp AND e.course.id = :courseId)) " +
+           "ORDER BY sp.id ASC")
+    List<StudentProfile> searchDirectory(@Param("afterId") Long afterId,
+                                         @Param("studentId") String studentId,
+                                         @Param("prefix") String prefix,
+                                         @Param("department") String department,
+                                         @Param("active") Boolean active,
+                                         @Param("courseId") Long courseId,
+                                         Pageable pageable);
 } 
\ No newline at end of file
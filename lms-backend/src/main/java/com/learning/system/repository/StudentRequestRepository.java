@@ -2,6 +2,8 @@ package com.learning.system.repository;
 
 import com.learning.system.entity.StudentRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,4 +12,7 @@ import java.util.List;
 public interface StudentRequestRepository extends JpaRepository<StudentRequest, Long> {
     List<StudentRequest> findByStatus(StudentRequest.RequestStatus status);
     List<StudentRequest> findByEmail(String email);
+    
+    @Query("SELECT r.id FROM StudentRequest r WHERE r.status = :status ORDER BY r.id")
+    List<Long> findIdsByStatus(@Param("status") StudentRequest.RequestStatus status);
 } 
\ No newline at end of file
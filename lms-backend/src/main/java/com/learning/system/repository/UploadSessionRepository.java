@@ -0,0 +1,51 @@
+package com.learning.system.repository;
+
+import com.learning.system.entity.UploadSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+    
+    /**
+     * Advance the received offset after a chunk was written. Fails (returns 0) when the chunk
+     * would leave a gap or the session is no longer in progress.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE UploadSession s SET " +
+           "s.receivedBytes = CASE WHEN s.receivedBytes < :end THEN :end ELSE s.receivedBytes END, " +
+           "s.updatedAt = :now " +
+           "WHERE s.id = :id AND s.status = com.learning.system.entity.UploadSession.Status.IN_PROGRESS " +
+           "AND s.receivedBytes >= :offset")
+    int recordChunk(@Param("id") String id,
+                    @Param("offset") long offset,
+                    @Param("end") long end,
+                    @Param("now") LocalDateTime now);
+    
+    /**
+     * Move a session from one status to another; only one caller can win a transition
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE UploadSession s SET s.status = :to, s.updatedAt = :now WHERE s.id = :id AND s.status = :from")
+    int transition(@Param("id") String id,
+                   @Param("from") UploadSession.Status from,
+                   @Param("to") UploadSession.Status to,
+                   @Param("now") LocalDateTime now);
+    
+    List<UploadSession> findByStatusNotAndUpdatedAtBefore(UploadSession.Status status, LocalDateTime cutoff);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM UploadSession s WHERE s.status = :status AND s.updatedAt < :cutoff")
+    int deleteByStatusAndUpdatedAtBefore(@Param("status") UploadSession.Status status,
+                                         @Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,48 @@
+package com.learning.system.repository;
+
+import com.learning.system.entity.UploadUsage;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface UploadUsageRepository extends JpaRepository<UploadUsage, Long> {
+    
+    @Query("SELECT u.usedBytes FROM UploadUsage u WHERE u.userId = :userId")
+    Optional<Long> findUsedBytes(@Param("userId") Long userId);
+    
+    /**
+     * Create a user's usage row on the first upload
+     */
+    @Transactional
+    @Modifying
+    // Names the written table, so Hibernate does not clear every second-level cache region
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "upload_usage"))
+    @Query(value = "INSERT IGNORE INTO upload_usage (user_id, used_bytes) VALUES (:userId, 0)", nativeQuery = true)
+    void createIfMissing(@Param("userId") Long userId);
+    
+    /**
+     * Add to a user's stored bytes only if the total stays within the quota; returns 0 when it would not
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "upload_usage"))
+    @Query(value = "UPDATE upload_usage SET used_bytes = used_bytes + :bytes " +
+            "WHERE user_id = :userId AND used_bytes + :bytes <= :quota", nativeQuery = true)
+    int reserveBytes(@Param("userId") Long userId, @Param("bytes") long bytes, @Param("quota") long quota);
+    
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "upload_usage"))
+    @Query(value = "UPDATE upload_usage SET used_bytes = GREATEST(used_bytes - :bytes, 0) WHERE user_id = :userId",
+            nativeQuery = true)
+    void releaseBytes(@Param("userId") Long userId, @Param("bytes") long bytes);
+}
@@ -0,0 +1,21 @@
+package com.learning.system.repository;
+
+import com.learning.system.entity.UploadedFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface UploadedFileRepository extends JpaRepository<UploadedFile, String> {
+    
+    /**
+     * Forget a stored file; returns 0 when another deletion got there first
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM UploadedFile f WHERE f.storageKey = :storageKey")
+    int deleteByStorageKey(@Param("storageKey") String storageKey);
+}
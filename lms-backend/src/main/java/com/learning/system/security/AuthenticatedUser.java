@@ -0,0 +1,26 @@
+package com.learning.system.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.security.Principal;
+
+/**
+ * Principal of a request authenticated with a JWT, built from the token's claims without loading the user
+ */
+@Getter
+@AllArgsConstructor
+public class AuthenticatedUser implements Principal {
+    private final Long id;
+    private final String username;
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    @Override
+    public String toString() {
+        return username;
+    }
+}
@@ -0,0 +1,15 @@
+package com.learning.system.security;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a controller parameter of type StudentProfile to the profile of the authenticated user,
+ * loaded on first use and reused for the rest of the request
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CurrentStudent {
+}
@@ -0,0 +1,17 @@
+package com.learning.system.security;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a controller parameter of type User to the authenticated user.
+ *
+ * The user is a lazy reference built from the id in the token: reading its id costs no query,
+ * any other property loads it once per request.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CurrentUser {
+}
@@ -0,0 +1,92 @@
+package com.learning.system.security;
+
+import com.learning.system.entity.StudentProfile;
+import com.learning.system.entity.User;
+import com.learning.system.repository.StudentProfileRepository;
+import com.learning.system.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.util.List;
+
+/**
+ * Resolves @CurrentUser and @CurrentStudent parameters from the principal set by JwtAuthenticationFilter,
+ * instead of every handler looking the user up by username again
+ */
+@Component
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private static final String STUDENT_ATTRIBUTE = CurrentUserArgumentResolver.class.getName() + ".student";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StudentProfileRepository studentProfileRepository;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        Class<?> type = parameter.getParameterType();
+        return (parameter.hasParameterAnnotation(CurrentUser.class) && type.isAssignableFrom(User.class))
+                || (parameter.hasParameterAnnotation(CurrentStudent.class) && type.isAssignableFrom(StudentProfile.class));
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        if (parameter.hasParameterAnnotation(CurrentStudent.class)) {
+            return currentStudent(webRequest);
+        }
+        return currentUser(webRequest);
+    }
+
+    private User currentUser(NativeWebRequest request) {
+        // The profile's user was loaded with it
+        StudentProfile student = (StudentProfile) request.getAttribute(STUDENT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (student != null) {
+            return student.getUser();
+        }
+        Object principal = principal();
+        if (principal instanceof User user) {
+            return user;
+        }
+        return userRepository.getReferenceById(((AuthenticatedUser) principal).getId());
+    }
+
+    private StudentProfile currentStudent(NativeWebRequest request) {
+        StudentProfile student = (StudentProfile) request.getAttribute(STUDENT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (student != null) {
+            return student;
+        }
+        Object principal = principal();
+        Long userId = principal instanceof User user ? user.getId() : ((AuthenticatedUser) principal).getId();
+        List<StudentProfile> profiles = studentProfileRepository.findWithEnrollmentsByUserId(userId);
+        if (profiles.isEmpty()) {
+            throw new RuntimeException("Student profile not found for user id: " + userId);
+        }
+        student = profiles.get(0);
+        request.setAttribute(STUDENT_ATTRIBUTE, student, RequestAttributes.SCOPE_REQUEST);
+        return student;
+    }
+
+    /**
+     * An AuthenticatedUser for tokens with claims, or the loaded User for legacy tokens
+     */
+    private Object principal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Object principal = authentication != null ? authentication.getPrincipal() : null;
+        if (!(principal instanceof AuthenticatedUser) && !(principal instanceof User)) {
+            throw new AuthenticationCredentialsNotFoundException("Not authenticated");
+        }
+        return principal;
+    }
+}
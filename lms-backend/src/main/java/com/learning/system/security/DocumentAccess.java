@@ -0,0 +1,74 @@
+package com.learning.system.security;
+
+import com.learning.system.entity.StudentCourseEnrollment;
+import com.learning.system.entity.User;
+import com.learning.system.repository.StudentCourseEnrollmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Decides whose responses get signed document URLs: everyone for free chapters, and staff and enrolled
+ * students for the rest. Other callers still see the documents, but with unsigned URLs that
+ * SignedDownloadFilter refuses.
+ */
+@Component
+public class DocumentAccess {
+
+    private static final String ENROLLED_ATTRIBUTE = DocumentAccess.class.getName() + ".enrolledCourses";
+
+    private static final Set<String> STAFF_ROLES = Set.of("ROLE_ADMIN", "ROLE_INSTRUCTOR");
+
+    @Autowired
+    private StudentCourseEnrollmentRepository enrollmentRepository;
+
+    /**
+     * Whether the current caller may download the documents of every chapter of a course
+     */
+    public boolean isEntitled(Long courseId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Long userId = userId(authentication);
+        if (userId == null) {
+            return false;
+        }
+        if (authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).anyMatch(STAFF_ROLES::contains)) {
+            return true;
+        }
+        return enrolledCourses(userId).contains(courseId);
+    }
+
+    private Set<Long> enrolledCourses(Long userId) {
+        // Listings check many courses for the same caller; look the enrollments up once per request
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        @SuppressWarnings("unchecked")
+        Set<Long> courses = request != null
+                ? (Set<Long>) request.getAttribute(ENROLLED_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+                : null;
+        if (courses == null) {
+            courses = new HashSet<>(enrollmentRepository.findCourseIdsByUserIdAndStatusNot(
+                    userId, StudentCourseEnrollment.EnrollmentStatus.DROPPED));
+            if (request != null) {
+                request.setAttribute(ENROLLED_ATTRIBUTE, courses, RequestAttributes.SCOPE_REQUEST);
+            }
+        }
+        return courses;
+    }
+
+    private static Long userId(Authentication authentication) {
+        Object principal = authentication != null ? authentication.getPrincipal() : null;
+        if (principal instanceof AuthenticatedUser user) {
+            return user.getId();
+        }
+        if (principal instanceof User user) {
+            return user.getId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,155 @@
+package com.learning.system.security;
+
+import com.learning.system.service.FileStorageService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Signs upload URLs with an HMAC of the file key and an expiry time, so downloads can be
+ * authorized without looking anything up.
+ *
+ * Expiry times are aligned to download.signature-window: every URL signed within one window
+ * is identical and stays valid for at least the configured TTL, which keeps responses containing
+ * signed URLs cacheable (see currentWindow). Keys under a public prefix are left unsigned.
+ */
+@Slf4j
+@Component
+public class DownloadUrlSigner {
+
+    public static final String EXPIRES_PARAM = "expires";
+    public static final String SIGNATURE_PARAM = "signature";
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Value("${download.url-ttl:PT2H}")
+    private Duration urlTtl;
+
+    @Value("${download.signature-window:PT10M}")
+    private Duration signatureWindow;
+
+    @Value("${download.public-prefixes:avatars/}")
+    private List<String> publicPrefixes;
+
+    private final SecretKeySpec secretKey;
+
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::newMac);
+
+    public DownloadUrlSigner(@Value("${download.signing-secret:}") String signingSecret,
+                             @Value("${download.signed-urls-required:true}") boolean signedUrlsRequired) {
+        byte[] secret;
+        if (StringUtils.hasText(signingSecret)) {
+            secret = signingSecret.getBytes(StandardCharsets.UTF_8);
+        } else if (signedUrlsRequired) {
+            // A random key would differ per instance and restart, so links would fail at random
+            throw new IllegalStateException(
+                    "download.signing-secret must be set while download.signed-urls-required is true");
+        } else {
+            // Downloads are not checked, so the signatures only need to be well-formed
+            log.warn("download.signing-secret is not set, using a random key");
+            secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+        }
+        this.secretKey = new SecretKeySpec(secret, ALGORITHM);
+    }
+
+    /**
+     * Add an expiry and signature to an upload URL; other URLs, null and public files are returned unchanged
+     */
+    public String sign(String url) {
+        if (url == null) {
+            return null;
+        }
+        return fileStorageService.toKey(url)
+                .filter(key -> !isPublic(key))
+                .map(key -> {
+                    long expires = (currentWindow() + 1) * signatureWindow.toSeconds() + urlTtl.toSeconds();
+                    return url + (url.contains("?") ? "&" : "?")
+                            + EXPIRES_PARAM + "=" + expires + "&" + SIGNATURE_PARAM + "=" + signature(key, expires);
+                })
+                .orElse(url);
+    }
+
+    /**
+     * Remove the expiry and signature from a URL, e.g. one a client sends back when saving a document
+     */
+    public String unsign(String url) {
+        int queryStart = url != null ? url.indexOf('?') : -1;
+        if (queryStart < 0) {
+            return url;
+        }
+        String query = Arrays.stream(url.substring(queryStart + 1).split("&"))
+                .filter(param -> !param.startsWith(EXPIRES_PARAM + "=") && !param.startsWith(SIGNATURE_PARAM + "="))
+                .collect(Collectors.joining("&"));
+        return url.substring(0, queryStart) + (query.isEmpty() ? "" : "?" + query);
+    }
+
+    /**
+     * Check a download of a file key against the expires and signature request parameters
+     */
+    public boolean verify(String key, String expires, String signature) {
+        if (!StringUtils.hasText(expires) || !StringUtils.hasText(signature)) {
+            return false;
+        }
+        long expiresAt;
+        try {
+            expiresAt = Long.parseLong(expires);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (expiresAt < System.currentTimeMillis() / 1000) {
+            return false;
+        }
+        return MessageDigest.isEqual(
+                signature(key, expiresAt).getBytes(StandardCharsets.US_ASCII),
+                signature.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Whether a file can be downloaded without a signature
+     */
+    public boolean isPublic(String key) {
+        return publicPrefixes.stream().anyMatch(prefix -> StringUtils.hasText(prefix) && key.startsWith(prefix));
+    }
+
+    /**
+     * Index of the current signature window; signed URLs change only when it does, so ETags of
+     * responses that contain them must include it
+     */
+    public long currentWindow() {
+        return System.currentTimeMillis() / 1000 / signatureWindow.toSeconds();
+    }
+
+    private String signature(String key, long expires) {
+        Mac mac = macs.get();
+        byte[] digest = mac.doFinal((key + "\n" + expires).getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(secretKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
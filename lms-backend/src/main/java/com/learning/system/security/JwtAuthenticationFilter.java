@@ -1,27 +1,41 @@
 package com.learning.system.security;
 
+import com.learning.system.entity.User;
 import com.learning.system.service.JwtService;
 import com.learning.system.service.CustomUserDetailsService;
+import com.learning.system.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
 
+/**
+ * Authenticates requests from the Bearer token alone: the user id, authorities and token version
+ * are claims, and revocation is checked against TokenRevocationService, so no query is needed.
+ */
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final CustomUserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     protected void doFilterInternal(
@@ -30,30 +44,73 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             FilterChain filterChain
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String username;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        jwt = authHeader.substring(7);
-        username = jwtService.extractUsername(jwt);
-
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-            
-            if (jwtService.isTokenValid(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                    userDetails,
-                    null,
-                    userDetails.getAuthorities()
-                );
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            UsernamePasswordAuthenticationToken authToken = authenticate(authHeader.substring(7));
+            if (authToken != null) {
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         }
         filterChain.doFilter(request, response);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Build the authentication for a token; null when it is invalid, expired or revoked
+     */
+    private UsernamePasswordAuthenticationToken authenticate(String jwt) {
+        Claims claims;
+        try {
+            claims = jwtService.extractAllClaims(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        String username = claims.getSubject();
+        if (username == null) {
+            return null;
+        }
+
+        Number userId = claims.get(JwtService.USER_ID_CLAIM, Number.class);
+        if (userId == null) {
+            return authenticateLegacy(username);
+        }
+        Number tokenVersion = claims.get(JwtService.TOKEN_VERSION_CLAIM, Number.class);
+        if (tokenVersionRevoked(userId.longValue(), tokenVersion)) {
+            return null;
+        }
+
+        List<?> roles = claims.get(JwtService.ROLES_CLAIM, List.class);
+        List<GrantedAuthority> authorities = roles == null ? List.of() : roles.stream()
+                .map(role -> new SimpleGrantedAuthority(String.valueOf(role)))
+                .collect(Collectors.toList());
+        return new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(userId.longValue(), username), null, authorities);
+    }
+
+    private boolean tokenVersionRevoked(long userId, Number tokenVersion) {
+        return tokenRevocationService.isRevoked(userId, tokenVersion != null ? tokenVersion.intValue() : 0);
+    }
+
+    /**
+     * Tokens issued before the claims were added carry only the subject; these still need the user row
+     * and disappear once they expire
+     */
+    private UsernamePasswordAuthenticationToken authenticateLegacy(String username) {
+        UserDetails userDetails;
+        try {
+            userDetails = userDetailsService.loadUserByUsername(username);
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+        // Any revocation since the claims were introduced covers these tokens too
+        if (userDetails instanceof User user && user.getTokenVersion() > 0) {
+            return null;
+        }
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
+}
@@ -0,0 +1,76 @@
+package com.learning.system.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learning.system.dto.ApiErrorResponse;
+import com.learning.system.storage.StorageBackend;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+/**
+ * Lets /uploads downloads through only with a valid, unexpired signature from DownloadUrlSigner.
+ * Verification is a single HMAC over the request path and parameters, without any database access.
+ */
+@Component
+public class SignedDownloadFilter extends OncePerRequestFilter {
+
+    private static final String UPLOADS_PATH = "/uploads/";
+
+    @Autowired
+    private DownloadUrlSigner downloadUrlSigner;
+
+    // Allows a rollout where clients still hold unsigned URLs
+    @Value("${download.signed-urls-required:true}")
+    private boolean signedUrlsRequired;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !signedUrlsRequired || !request.getRequestURI().startsWith(request.getContextPath() + UPLOADS_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length() + UPLOADS_PATH.length());
+        String key = UriUtils.decode(path, StandardCharsets.UTF_8);
+        try {
+            StorageBackend.checkKey(key);
+        } catch (IllegalArgumentException e) {
+            // Not a file; the download controller answers 404
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (downloadUrlSigner.isPublic(key) || downloadUrlSigner.verify(key,
+                request.getParameter(DownloadUrlSigner.EXPIRES_PARAM),
+                request.getParameter(DownloadUrlSigner.SIGNATURE_PARAM))) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        response.setStatus(HttpStatus.FORBIDDEN.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        ApiErrorResponse errorResponse = ApiErrorResponse.builder()
+                .status(HttpStatus.FORBIDDEN.value())
+                .error(HttpStatus.FORBIDDEN.getReasonPhrase())
+                .message("Download link is invalid or has expired")
+                .path(request.getRequestURI())
+                .timestamp(LocalDateTime.now())
+                .build();
+        response.getWriter().write(objectMapper.writeValueAsString(errorResponse));
+    }
+}
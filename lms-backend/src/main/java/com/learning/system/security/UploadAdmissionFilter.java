@@ -0,0 +1,100 @@
+package com.learning.system.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learning.system.dto.ApiErrorResponse;
+import com.learning.system.entity.User;
+import com.learning.system.exception.UploadRejectedException;
+import com.learning.system.repository.UserRepository;
+import com.learning.system.service.UploadAdmissionService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Admission control for multipart uploads, applied after authentication and before the body is parsed.
+ *
+ * Uploads to the file upload endpoint also reserve their size in the uploader's storage quota; the
+ * handler finds the admission in a request attribute and records what it actually stored.
+ * Rejected requests are answered immediately and the connection is closed instead of
+ * draining the body.
+ */
+@Component
+public class UploadAdmissionFilter extends OncePerRequestFilter {
+
+    private static final String QUOTA_PATH = "/api/files/upload";
+
+    @Autowired
+    private UploadAdmissionService uploadAdmissionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType == null || !contentType.toLowerCase().startsWith("multipart/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean authenticated = authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken);
+        String uploader = authenticated ? "user:" + authentication.getName() : "ip:" + request.getRemoteAddr();
+
+        Long quotaUserId = null;
+        if (authenticated && request.getRequestURI().equals(request.getContextPath() + QUOTA_PATH)) {
+            quotaUserId = userRepository.findByUsername(authentication.getName()).map(User::getId).orElse(null);
+        }
+
+        UploadAdmissionService.Admission admission;
+        try {
+            admission = uploadAdmissionService.admit(uploader, quotaUserId, request.getContentLengthLong());
+        } catch (UploadRejectedException e) {
+            reject(request, response, e);
+            return;
+        }
+
+        try (admission) {
+            request.setAttribute(UploadAdmissionService.ADMISSION_ATTRIBUTE, admission);
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response,
+                        UploadRejectedException rejection) throws IOException {
+        HttpStatus status = rejection.getStatus();
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        // Don't let the container read the rest of the body before responding
+        response.setHeader(HttpHeaders.CONNECTION, "close");
+        if (status == HttpStatus.TOO_MANY_REQUESTS) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        }
+
+        ApiErrorResponse errorResponse = ApiErrorResponse.builder()
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .message(rejection.getMessage())
+                .path(request.getRequestURI())
+                .timestamp(LocalDateTime.now())
+                .build();
+        response.getWriter().write(objectMapper.writeValueAsString(errorResponse));
+    }
+}
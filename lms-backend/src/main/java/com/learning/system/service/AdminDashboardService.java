@@ -47,6 +47,12 @@ public class AdminDashboardService {
     
     @Autowired
     private UserRepository userRepository;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
     
     /**
      * Get student management statistics for the admin dashboard
@@ -150,7 +156,8 @@ public class AdminDashboardService {
                     .studentId(student.getId())
                     .studentName(student.getUser().getFirstName() + " " +( (student.getUser().getLastName()!=null)?student.getUser().getLastName():""))
                     .email(student.getUser().getEmail())
-                    .profileImage(student.getProfileImage())
+                    .profileImage(student.getProfileImageThumbnail() != null
+                            ? student.getProfileImageThumbnail() : student.getProfileImage())
                     .enrollmentDate(enrollment.getEnrollmentDate())
                     .progressPercentage(progressPercentage)
                     .active(isActive)
@@ -164,8 +171,34 @@ public class AdminDashboardService {
         double averageCompletionRate = activeCount > 0 ? 
                 totalCompletionRate / activeCount : 0.0;
         
+        StudentsByCourseDTO allStudents = StudentsByCourseDTO.builder()
+                .courseId(course.getId())
+                .courseTitle(course.getTitle())
+                .courseDescription(course.getDescription())
+                .totalStudents(activeCount + inactiveCount)
+                .activeStudents(activeCount)
+                .inactiveStudents(inactiveCount)
+                .averageCompletionRate(averageCompletionRate)
+                .students(allStudentEnrollments)
+                .build();
+        
+        return pageOf(allStudents, page, size);
+    }
+    
+    /**
+     * Cut one page out of a StudentsByCourseDTO holding every enrolled student.
+     * The course statistics are copied unchanged.
+     * 
+     * @param allStudents DTO containing all students of the course
+     * @param page The page number (0-based), clamped to the last page
+     * @param size The page size
+     * @return A new StudentsByCourseDTO with only the students of the requested page
+     */
+    public StudentsByCourseDTO pageOf(StudentsByCourseDTO allStudents, int page, int size) {
+        List<StudentsByCourseDTO.StudentEnrollmentDTO> students = allStudents.getStudents();
+        
         // Manually paginate the results
-        int totalElements = allStudentEnrollments.size();
+        int totalElements = students.size();
         int totalPages = (int) Math.ceil((double) totalElements / size);
         
         // Ensure page is within bounds
@@ -180,20 +213,22 @@ public class AdminDashboardService {
         // Extract the page content
         List<StudentsByCourseDTO.StudentEnrollmentDTO> pageContent;
         if (start < totalElements) {
-            pageContent = allStudentEnrollments.subList(start, end);
+            pageContent = students.subList(start, end);
         } else {
             pageContent = new ArrayList<>();
         }
         
         // Build and return the DTO
         return StudentsByCourseDTO.builder()
-                .courseId(course.getId())
-                .courseTitle(course.getTitle())
-                .courseDescription(course.getDescription())
-                .totalStudents(activeCount + inactiveCount)
-                .activeStudents(activeCount)
-                .inactiveStudents(inactiveCount)
-                .averageCompletionRate(averageCompletionRate)
+                .courseId(allStudents.getCourseId())
+                .courseTitle(allStudents.getCourseTitle())
+                .courseDescription(allStudents.getCourseDescription())
+                .totalStudents(allStudents.getTotalStudents())
+                .activeStudents(allStudents.getActiveStudents())
+                .inactiveStudents(allStudents.getInactiveStudents())
+                .averageCompletionRate(allStudents.getAverageCompletionRate())
+                .asOf(allStudents.getAsOf())
+                .snapshotVersion(allStudents.getSnapshotVersion())
                 .students(pageContent)
                 .build();
     }
@@ -243,7 +278,8 @@ public class AdminDashboardService {
                     .studentId(student.getId())
                     .studentName(student.getUser().getFirstName() + " " +( (student.getUser().getLastName()!=null)?student.getUser().getLastName():""))
                     .email(student.getUser().getEmail())
-                    .profileImage(student.getProfileImage())
+                    .profileImage(student.getProfileImageThumbnail() != null
+                            ? student.getProfileImageThumbnail() : student.getProfileImage())
                     .enrollmentDate(enrollment.getEnrollmentDate())
                     .progressPercentage(progressPercentage)
                     .active(isActive)
@@ -432,9 +468,17 @@ public class AdminDashboardService {
         
         // Toggle the active status
         user.setActive(!user.isActive());
+        if (!user.isActive()) {
+            // Sign the user out everywhere
+            user.setTokenVersion(user.getTokenVersion() + 1);
+        }
         
         // Save the changes
         userRepository.save(user);
+        if (!user.isActive()) {
+            tokenRevocationService.revokeBefore(user.getId(), user.getTokenVersion());
+            refreshTokenService.revokeAll(user.getId());
+        }
         
         return user.isActive();
     }
@@ -2,19 +2,21 @@ package com.learning.system.service;
 
 import com.learning.system.dto.AuthenticationRequest;
 import com.learning.system.dto.AuthenticationResponse;
+import com.learning.system.dto.RefreshTokenRequest;
 import com.learning.system.dto.RegisterRequest;
 import com.learning.system.entity.Role;
 import com.learning.system.entity.User;
 import com.learning.system.repository.RoleRepository;
 import com.learning.system.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.CredentialsExpiredException;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
@@ -23,9 +25,18 @@ public class AuthenticationService {
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
-    private final AuthenticationManager authenticationManager;
+    private final PasswordVerificationService passwordVerificationService;
+    private final LoginRateLimiter loginRateLimiter;
+    private final RefreshTokenService refreshTokenService;
 
     public AuthenticationResponse register(RegisterRequest request) {
+        return issueTokens(createAccount(request));
+    }
+
+    /**
+     * Create an account without logging it in, e.g. for an admin approving a student request
+     */
+    public User createAccount(RegisterRequest request) {
         // For student registrations, ensure username and email are the same
         if (request.getRole().equals("ROLE_STUDENT") && !request.getUsername().equals(request.getEmail())) {
             request.setUsername(request.getEmail());
@@ -54,14 +65,17 @@ public class AuthenticationService {
                 .roles(Set.of(userRole))
                 .build();
 
-        userRepository.save(user);
-        var jwtToken = jwtService.generateToken(user);
-        return AuthenticationResponse.builder()
-                .token(jwtToken)
-                .build();
+        return userRepository.save(user);
     }
 
-    public AuthenticationResponse authenticate(AuthenticationRequest request) {
+    /**
+     * Log in with a username or email; the password is checked on the login executor
+     *
+     * @param clientAddress The address the login came from, for rate limiting
+     */
+    public CompletableFuture<AuthenticationResponse> authenticate(AuthenticationRequest request, String clientAddress) {
+        loginRateLimiter.acquireAddress(clientAddress);
+
         // Support login with email or username (since they are the same for students)
         String username = request.getUsername();
         
@@ -73,19 +87,46 @@ public class AuthenticationService {
                 username = userByEmail.get().getUsername();
             }
         }
+        // Limited after the email is resolved, so alternating email and username shares one bucket
+        loginRateLimiter.acquireUsername(username, clientAddress);
         
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        username,
-                        request.getPassword()
-                )
-        );
-        
-        var user = userRepository.findByUsername(username)
-                .orElseThrow();
-        var jwtToken = jwtService.generateToken(user);
+        return passwordVerificationService.verify(username, request.getPassword())
+                .thenApply(authentication -> issueTokens((User) authentication.getPrincipal()));
+    }
+
+    /**
+     * Exchange a refresh token for a new access token and refresh token
+     */
+    public AuthenticationResponse refresh(RefreshTokenRequest request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+        User user = userRepository.findById(rotation.getUserId())
+                .orElseThrow(() -> new CredentialsExpiredException("Invalid refresh token"));
+        if (!user.isActive()) {
+            // Also drops the token just issued by the rotation
+            refreshTokenService.revokeAll(user.getId());
+            throw new DisabledException("User account is disabled");
+        }
+        return AuthenticationResponse.builder()
+                .token(jwtService.generateToken(user))
+                .refreshToken(rotation.getRefreshToken())
+                .expiresIn(jwtService.getExpiration().toSeconds())
+                .build();
+    }
+
+    /**
+     * End the session of a refresh token; its access token stays valid until it expires
+     */
+    public void logout(RefreshTokenRequest request) {
+        if (request.getRefreshToken() != null) {
+            refreshTokenService.revoke(request.getRefreshToken());
+        }
+    }
+
+    private AuthenticationResponse issueTokens(User user) {
         return AuthenticationResponse.builder()
-                .token(jwtToken)
+                .token(jwtService.generateToken(user))
+                .refreshToken(refreshTokenService.issue(user.getId()))
+                .expiresIn(jwtService.getExpiration().toSeconds())
                 .build();
     }
     
@@ -0,0 +1,268 @@
+package com.learning.system.service;
+
+import com.learning.system.config.FileStorageConfig;
+import com.learning.system.entity.StudentProfile;
+import com.learning.system.exception.RequestThrottledException;
+import com.learning.system.repository.StudentProfileRepository;
+import com.learning.system.storage.HotFileCache;
+import com.learning.system.storage.StorageBackend;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.UUID;
+
+/**
+ * Turns uploaded profile pictures into fixed-size JPEG avatars.
+ *
+ * The request thread only checks the image header and spools the upload to disk; decoding,
+ * cropping, resizing and re-encoding run on the image processing executor. Large images are
+ * subsampled while decoding, so a phone photo never has to be held in memory at full resolution.
+ */
+@Slf4j
+@Service
+public class AvatarService {
+
+    private static final String AVATAR_DIR = "avatars";
+
+    @Autowired
+    private StudentProfileRepository studentProfileRepository;
+
+    @Autowired
+    private FileStorageConfig fileStorageConfig;
+
+    @Autowired
+    private StorageBackend storageBackend;
+
+    @Autowired
+    private HotFileCache hotFileCache;
+
+    @Autowired
+    @Qualifier("imageProcessingExecutor")
+    private TaskExecutor imageProcessingExecutor;
+
+    @Value("${avatar.size:256}")
+    private int avatarSize;
+
+    @Value("${avatar.thumbnail-size:64}")
+    private int thumbnailSize;
+
+    @Value("${avatar.max-pixels:50000000}")
+    private long maxPixels;
+
+    @Value("${avatar.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    /**
+     * Validate an uploaded image and queue it for processing
+     *
+     * @throws IllegalArgumentException when the upload is not a readable image or is too large
+     * @throws RequestThrottledException when the processing queue is full
+     */
+    public void submit(Long studentProfileId, MultipartFile file) {
+        if (!studentProfileRepository.existsById(studentProfileId)) {
+            throw new RuntimeException("Student profile not found with id: " + studentProfileId);
+        }
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("No image uploaded");
+        }
+
+        try {
+            checkHeader(file);
+
+            // Spooled to a private temp file, not the storage backend, which is publicly served
+            Path upload = Files.createTempFile("avatar-upload-", ".tmp");
+            try {
+                file.transferTo(upload);
+                imageProcessingExecutor.execute(() -> process(studentProfileId, upload));
+            } catch (TaskRejectedException e) {
+                Files.deleteIfExists(upload);
+                throw new RequestThrottledException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "Too many images are being processed, try again later", Duration.ofSeconds(30));
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(upload);
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store uploaded image", e);
+        }
+    }
+
+    /**
+     * Read only the image header: rejects unknown formats and decompression bombs before any pixels are decoded
+     */
+    private void checkHeader(MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream();
+             ImageInputStream imageInput = ImageIO.createImageInputStream(in)) {
+            ImageReader reader = firstReader(imageInput);
+            try {
+                reader.setInput(imageInput, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels <= 0 || pixels > maxPixels) {
+                    throw new IllegalArgumentException("Image dimensions are too large");
+                }
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private void process(Long studentProfileId, Path upload) {
+        try {
+            BufferedImage source = decode(upload);
+            BufferedImage square = cropToSquare(source);
+
+            String baseName = studentProfileId + "-" + UUID.randomUUID();
+            String imageUrl = write(resize(square, avatarSize), baseName + "-" + avatarSize + ".jpg");
+            String thumbnailUrl = write(resize(square, thumbnailSize), baseName + "-" + thumbnailSize + ".jpg");
+
+            StudentProfile previous = studentProfileRepository.findById(studentProfileId).orElse(null);
+            if (previous == null) {
+                deleteQuietly(imageUrl);
+                deleteQuietly(thumbnailUrl);
+                return;
+            }
+            studentProfileRepository.updateProfileImage(studentProfileId, imageUrl, thumbnailUrl);
+            deleteQuietly(previous.getProfileImage());
+            deleteQuietly(previous.getProfileImageThumbnail());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not process profile image of student profile {}", studentProfileId, e);
+        } finally {
+            try {
+                Files.deleteIfExists(upload);
+            } catch (IOException e) {
+                log.debug("Could not delete spooled upload {}", upload, e);
+            }
+        }
+    }
+
+    /**
+     * Decode with source subsampling so the decoded image is only a little larger than the avatar
+     */
+    private BufferedImage decode(Path upload) throws IOException {
+        try (ImageInputStream imageInput = ImageIO.createImageInputStream(upload.toFile())) {
+            ImageReader reader = firstReader(imageInput);
+            try {
+                reader.setInput(imageInput, true, true);
+                int shortSide = Math.min(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, shortSide / (avatarSize * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private ImageReader firstReader(ImageInputStream imageInput) {
+        if (imageInput == null) {
+            throw new IllegalArgumentException("Unsupported image format");
+        }
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInput);
+        if (!readers.hasNext()) {
+            throw new IllegalArgumentException("Unsupported image format");
+        }
+        return readers.next();
+    }
+
+    private BufferedImage cropToSquare(BufferedImage image) {
+        int side = Math.min(image.getWidth(), image.getHeight());
+        return image.getSubimage((image.getWidth() - side) / 2, (image.getHeight() - side) / 2, side, side);
+    }
+
+    /**
+     * Halve the image until it is close to the target, then scale the rest of the way;
+     * drawn onto an opaque RGB canvas so transparent PNGs encode as JPEG
+     */
+    private BufferedImage resize(BufferedImage image, int size) {
+        BufferedImage current = image;
+        int side = image.getWidth();
+        while (side / 2 >= size) {
+            side /= 2;
+            current = draw(current, side);
+        }
+        return draw(current, size);
+    }
+
+    private BufferedImage draw(BufferedImage image, int size) {
+        BufferedImage target = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, size, size);
+            graphics.drawImage(image, 0, 0, size, size, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private String write(BufferedImage image, String filename) throws IOException {
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(encoded)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        storageBackend.store(AVATAR_DIR + "/" + filename, new ByteArrayInputStream(encoded.toByteArray()), encoded.size());
+        return avatarUrlPrefix() + filename;
+    }
+
+    /**
+     * Remove a replaced avatar; URLs that were not produced here (e.g. legacy uploads) are left alone
+     */
+    private void deleteQuietly(String url) {
+        if (url == null || !url.startsWith(avatarUrlPrefix())) {
+            return;
+        }
+        String filename = url.substring(avatarUrlPrefix().length());
+        if (filename.contains("/") || filename.contains("\\")) {
+            return;
+        }
+        try {
+            storageBackend.delete(AVATAR_DIR + "/" + filename);
+            hotFileCache.invalidate(AVATAR_DIR + "/" + filename);
+        } catch (IOException | IllegalArgumentException e) {
+            log.debug("Could not delete replaced avatar {}", url, e);
+        }
+    }
+
+    private String avatarUrlPrefix() {
+        return fileStorageConfig.getAccessUrl() + "/" + AVATAR_DIR + "/";
+    }
+}
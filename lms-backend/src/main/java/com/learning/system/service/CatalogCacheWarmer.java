@@ -0,0 +1,70 @@
+package com.learning.system.service;
+
+import com.learning.system.repository.ChapterRepository;
+import com.learning.system.repository.CourseRepository;
+import com.learning.system.repository.ModuleRepository;
+import com.learning.system.repository.RoleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Fills the second-level cache at startup, so the first students after a deploy do not all miss.
+ *
+ * Roles with their permissions and the published catalog are loaded with a handful of fetch-join
+ * queries rather than one query per course, module and chapter.
+ */
+@Slf4j
+@Service
+public class CatalogCacheWarmer {
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ModuleRepository moduleRepository;
+
+    @Autowired
+    private ChapterRepository chapterRepository;
+
+    @Value("${cache.second-level.warm-up:true}")
+    private boolean enabled;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public CatalogCacheWarmer(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                int roles = roleRepository.findAll().size();
+                // Also fills the query cache used by the published course listing
+                int courses = courseRepository.findByPublished(true).size();
+                courseRepository.findPublishedWithModules();
+                int modules = moduleRepository.findPublishedWithChapters().size();
+                int chapters = chapterRepository.findPublishedWithDocuments().size();
+                log.info("Warmed the second-level cache with {} roles, {} courses, {} modules and {} chapters in {} ms",
+                        roles, courses, modules, chapters, System.currentTimeMillis() - start);
+            });
+        } catch (RuntimeException e) {
+            // Only a slower start; every entry is loaded on demand anyway
+            log.warn("Could not warm the second-level cache", e);
+        }
+    }
+}
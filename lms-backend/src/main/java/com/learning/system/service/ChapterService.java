@@ -10,6 +10,7 @@ import com.learning.system.repository.ChapterRepository;
 import com.learning.system.repository.CourseRepository;
 import com.learning.system.repository.DocumentRepository;
 import com.learning.system.repository.ModuleRepository;
+import com.learning.system.security.DownloadUrlSigner;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -31,11 +32,20 @@ public class ChapterService {
     @Autowired
     private DocumentRepository documentRepository;
 
+    @Autowired
+    private CourseCounterService courseCounterService;
+
+    @Autowired
+    private DownloadUrlSigner downloadUrlSigner;
+
+    @Transactional
     public Chapter createChapter(Chapter chapter, Long moduleId) {
         Module module = moduleRepository.findById(moduleId)
                 .orElseThrow(() -> new RuntimeException("Module not found"));
         chapter.setModule(module);
-        return chapterRepository.save(chapter);
+        Chapter savedChapter = chapterRepository.save(chapter);
+        courseCounterService.recount(module.getCourse().getId());
+        return savedChapter;
     }
 
 
@@ -72,7 +82,7 @@ public class ChapterService {
                 .map(docDTO -> {
                     Document doc = new Document();
                     doc.setName(docDTO.getName());
-                    doc.setUrl(docDTO.getUrl());
+                    doc.setUrl(downloadUrlSigner.unsign(docDTO.getUrl()));
                     doc.setType(docDTO.getType());
                     doc.setSize(docDTO.getSize());
                     doc.setChapter(existingChapter);
@@ -89,11 +99,21 @@ public class ChapterService {
             }
         }
         
-        return chapterRepository.save(existingChapter);
+        Chapter savedChapter = chapterRepository.save(existingChapter);
+        // The free and video flags may have changed
+        courseCounterService.recount(existingChapter.getModule().getCourse().getId());
+        return savedChapter;
     }
 
+    @Transactional
     public void deleteChapter(Long id) {
-        chapterRepository.deleteById(id);
+        Chapter chapter = chapterRepository.findById(id).orElse(null);
+        if (chapter == null) {
+            return;
+        }
+        Long courseId = chapter.getModule().getCourse().getId();
+        chapterRepository.delete(chapter);
+        courseCounterService.recount(courseId);
     }
 
     public Chapter getChapterById(Long id) {
@@ -129,7 +149,7 @@ public class ChapterService {
                 .map(docDTO -> {
                     Document doc = new Document();
                     doc.setName(docDTO.getName());
-                    doc.setUrl(docDTO.getUrl());
+                    doc.setUrl(downloadUrlSigner.unsign(docDTO.getUrl()));
                     doc.setType(docDTO.getType());
                     doc.setSize(docDTO.getSize());
                     doc.setChapter(chapter);
@@ -145,6 +165,8 @@ public class ChapterService {
             chapter.setYoutubeLink(chapterDTO.getYoutubeLink());
         }
         
-        return chapterRepository.save(chapter);
+        Chapter savedChapter = chapterRepository.save(chapter);
+        courseCounterService.recount(module.getCourse().getId());
+        return savedChapter;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,314 @@
+package com.learning.system.service;
+
+import com.learning.system.dto.UploadSessionCreateDTO;
+import com.learning.system.dto.UploadSessionDTO;
+import com.learning.system.entity.UploadSession;
+import com.learning.system.exception.ResourceNotFoundException;
+import com.learning.system.exception.UploadRejectedException;
+import com.learning.system.repository.UploadSessionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Resumable uploads for files too large for a single request.
+ *
+ * A client creates a session, PUTs chunks at byte offsets and completes the session. Each chunk is
+ * written at its offset into a part file with positional FileChannel writes and synced before the
+ * session's received offset advances, so after any failure the client resumes from receivedBytes.
+ * Completion checks the declared SHA-256 and moves the part file into the upload directory.
+ */
+@Slf4j
+@Service
+public class ChunkedUploadService {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private UploadSessionRepository uploadSessionRepository;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private UploadAdmissionService uploadAdmissionService;
+
+    @Value("${upload.chunked.max-size:20GB}")
+    private DataSize maxFileSize;
+
+    @Value("${upload.chunked.max-chunk-size:8MB}")
+    private DataSize maxChunkSize;
+
+    @Value("${upload.chunked.temp-dir:${java.io.tmpdir}/lms-chunked-uploads}")
+    private String tempDir;
+
+    @Value("${upload.chunked.session-ttl:PT24H}")
+    private Duration sessionTtl;
+
+    /**
+     * Start an upload; the whole declared size is reserved in the user's storage quota up front and
+     * released again if the upload is aborted or abandoned
+     */
+    public UploadSessionDTO createSession(Long userId, UploadSessionCreateDTO request) {
+        if (!StringUtils.hasText(request.getFileName())) {
+            throw new IllegalArgumentException("fileName is required");
+        }
+        if (request.getTotalSize() <= 0) {
+            throw new IllegalArgumentException("totalSize must be positive");
+        }
+        if (request.getTotalSize() > maxFileSize.toBytes()) {
+            throw new UploadRejectedException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Upload exceeds the maximum size of " + maxFileSize.toGigabytes() + "GB");
+        }
+        if (request.getSha256() == null || !request.getSha256().matches("[0-9a-fA-F]{64}")) {
+            throw new IllegalArgumentException("sha256 must be the hex SHA-256 of the file");
+        }
+        uploadAdmissionService.reserve(userId, request.getTotalSize());
+
+        LocalDateTime now = LocalDateTime.now();
+        UploadSession session = UploadSession.builder()
+                .id(UUID.randomUUID().toString())
+                .userId(userId)
+                .fileName(request.getFileName())
+                .contentType(request.getContentType())
+                .totalSize(request.getTotalSize())
+                .receivedBytes(0)
+                .sha256(request.getSha256().toLowerCase())
+                .status(UploadSession.Status.IN_PROGRESS)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        boolean started = false;
+        try {
+            Files.createDirectories(Paths.get(tempDir));
+            Files.createFile(partFile(session.getId()));
+            UploadSessionDTO created = toDTO(uploadSessionRepository.save(session));
+            started = true;
+            return created;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start upload", e);
+        } finally {
+            if (!started) {
+                uploadAdmissionService.release(userId, request.getTotalSize());
+            }
+        }
+    }
+
+    public UploadSessionDTO getSession(Long userId, String uploadId) {
+        return toDTO(findOwnedSession(userId, uploadId));
+    }
+
+    /**
+     * Write one chunk at the given offset. A chunk may overlap data already received (a retried chunk)
+     * but may not leave a gap; if the body ends early, the bytes that did arrive are kept.
+     *
+     * @param uploader Admission key of the uploading user; a chunk counts as one in-flight upload
+     */
+    public UploadSessionDTO writeChunk(Long userId, String uploader, String uploadId, long offset,
+                                       long contentLength, InputStream body) {
+        UploadSession session = findOwnedSession(userId, uploadId);
+        if (session.getStatus() != UploadSession.Status.IN_PROGRESS) {
+            throw new IllegalArgumentException("Upload is not in progress");
+        }
+        if (contentLength < 0) {
+            throw new UploadRejectedException(HttpStatus.LENGTH_REQUIRED, "Chunks must declare a Content-Length");
+        }
+        if (contentLength > maxChunkSize.toBytes()) {
+            throw new UploadRejectedException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Chunk exceeds the maximum size of " + maxChunkSize.toMegabytes() + "MB");
+        }
+        if (offset < 0 || offset > session.getReceivedBytes()) {
+            throw new IllegalArgumentException("Chunk must start at or before offset " + session.getReceivedBytes());
+        }
+        if (offset + contentLength > session.getTotalSize()) {
+            throw new IllegalArgumentException("Chunk extends past the declared size of " + session.getTotalSize());
+        }
+
+        long written = 0;
+        IOException interrupted = null;
+        try (UploadAdmissionService.Admission admission = uploadAdmissionService.admit(uploader, null, contentLength);
+             FileChannel channel = FileChannel.open(partFile(uploadId), StandardOpenOption.WRITE)) {
+            byte[] buffer = new byte[COPY_BUFFER_SIZE];
+            try {
+                while (written < contentLength) {
+                    int read = body.read(buffer, 0, (int) Math.min(buffer.length, contentLength - written));
+                    if (read < 0) {
+                        break;
+                    }
+                    ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                    while (chunk.hasRemaining()) {
+                        channel.write(chunk, offset + written + chunk.position());
+                    }
+                    written += read;
+                }
+            } catch (IOException e) {
+                // Usually the client went away; keep what arrived so it can resume from there
+                interrupted = e;
+            }
+            // Only count bytes that are on disk
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write chunk", e);
+        }
+
+        if (written > 0 && uploadSessionRepository.recordChunk(uploadId, offset, offset + written, LocalDateTime.now()) == 0) {
+            throw new IllegalArgumentException("Upload is not in progress");
+        }
+        if (interrupted != null || written < contentLength) {
+            throw new IllegalArgumentException("Chunk ended after " + written + " of " + contentLength + " bytes");
+        }
+        return getSession(userId, uploadId);
+    }
+
+    /**
+     * Verify the checksum of a fully received upload and publish it in the upload directory
+     */
+    public UploadSessionDTO completeSession(Long userId, String uploadId) {
+        UploadSession session = findOwnedSession(userId, uploadId);
+        if (session.getStatus() == UploadSession.Status.COMPLETED) {
+            return toDTO(session);
+        }
+        if (session.getReceivedBytes() != session.getTotalSize()) {
+            throw new IllegalArgumentException("Upload is incomplete: received " + session.getReceivedBytes()
+                    + " of " + session.getTotalSize() + " bytes");
+        }
+        if (uploadSessionRepository.transition(uploadId, UploadSession.Status.IN_PROGRESS,
+                UploadSession.Status.COMPLETING, LocalDateTime.now()) == 0) {
+            throw new IllegalArgumentException("Upload is already being completed");
+        }
+
+        boolean completed = false;
+        try {
+            Path part = partFile(uploadId);
+            if (!sha256(part).equals(session.getSha256())) {
+                throw new IllegalArgumentException("Checksum mismatch; resend the chunks and complete again");
+            }
+            String url = fileStorageService.storeFile(part, session.getFileName());
+
+            session.setUrl(url);
+            session.setStatus(UploadSession.Status.COMPLETED);
+            session.setUpdatedAt(LocalDateTime.now());
+            uploadSessionRepository.save(session);
+            completed = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not complete upload", e);
+        } finally {
+            if (!completed) {
+                uploadSessionRepository.transition(uploadId, UploadSession.Status.COMPLETING,
+                        UploadSession.Status.IN_PROGRESS, LocalDateTime.now());
+            }
+        }
+
+        // The size was reserved when the session was created
+        fileStorageService.toKey(session.getUrl())
+                .ifPresent(key -> uploadAdmissionService.recordStored(userId, key, session.getTotalSize()));
+        return toDTO(session);
+    }
+
+    /**
+     * Abandon an upload and delete its received bytes
+     */
+    public void abortSession(Long userId, String uploadId) {
+        UploadSession session = findOwnedSession(userId, uploadId);
+        if (session.getStatus() == UploadSession.Status.COMPLETED) {
+            throw new IllegalArgumentException("Upload is already completed");
+        }
+        discard(session);
+    }
+
+    /**
+     * Delete sessions that saw no chunk for the session TTL, and forget old completed ones
+     */
+    @Scheduled(initialDelayString = "${upload.chunked.cleanup-interval:PT1H}",
+            fixedDelayString = "${upload.chunked.cleanup-interval:PT1H}")
+    public void cleanupAbandonedSessions() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(sessionTtl);
+        List<UploadSession> abandoned = uploadSessionRepository.findByStatusNotAndUpdatedAtBefore(
+                UploadSession.Status.COMPLETED, cutoff);
+        for (UploadSession session : abandoned) {
+            discard(session);
+        }
+        int forgotten = uploadSessionRepository.deleteByStatusAndUpdatedAtBefore(UploadSession.Status.COMPLETED, cutoff);
+        if (!abandoned.isEmpty() || forgotten > 0) {
+            log.info("Removed {} abandoned and {} completed upload sessions", abandoned.size(), forgotten);
+        }
+    }
+
+    private void discard(UploadSession session) {
+        try {
+            Files.deleteIfExists(partFile(session.getId()));
+        } catch (IOException e) {
+            log.warn("Could not delete part file of upload {}", session.getId(), e);
+        }
+        uploadSessionRepository.deleteById(session.getId());
+        // Only unfinished sessions are discarded; give back the size they reserved
+        uploadAdmissionService.release(session.getUserId(), session.getTotalSize());
+    }
+
+    private UploadSession findOwnedSession(Long userId, String uploadId) {
+        UploadSession session = uploadSessionRepository.findById(uploadId)
+                .orElseThrow(() -> new ResourceNotFoundException("Upload not found with id: " + uploadId));
+        if (!session.getUserId().equals(userId)) {
+            throw new AccessDeniedException("Upload belongs to another user");
+        }
+        return session;
+    }
+
+    private Path partFile(String uploadId) {
+        // Session ids are server-generated UUIDs; anything else never reaches the file system
+        return Paths.get(tempDir, UUID.fromString(uploadId) + ".part");
+    }
+
+    private String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1024 * 1024);
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private UploadSessionDTO toDTO(UploadSession session) {
+        return UploadSessionDTO.builder()
+                .uploadId(session.getId())
+                .fileName(session.getFileName())
+                .totalSize(session.getTotalSize())
+                .receivedBytes(session.getReceivedBytes())
+                .maxChunkSize(maxChunkSize.toBytes())
+                .status(session.getStatus().name())
+                .url(session.getUrl())
+                .build();
+    }
+}
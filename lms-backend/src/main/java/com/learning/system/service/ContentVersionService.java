@@ -0,0 +1,89 @@
+package com.learning.system.service;
+
+import com.learning.system.repository.ChapterProgressRepository;
+import com.learning.system.repository.ChapterRepository;
+import com.learning.system.repository.CourseRepository;
+import com.learning.system.repository.ModuleRepository;
+import com.learning.system.security.DownloadUrlSigner;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Builds weak ETags for course content and progress from entity version columns.
+ * Each ETag costs one aggregate query, so a 304 can be answered without loading entities or building DTOs.
+ * ETags also change with the download URL signature window, so clients never revalidate into expired links.
+ * All methods return null when the target does not exist; callers then fall through to the normal 404 path.
+ */
+@Service
+public class ContentVersionService {
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ModuleRepository moduleRepository;
+
+    @Autowired
+    private ChapterRepository chapterRepository;
+
+    @Autowired
+    private ChapterProgressRepository chapterProgressRepository;
+
+    @Autowired
+    private DownloadUrlSigner downloadUrlSigner;
+
+    /**
+     * ETag of a course including all of its modules, chapters and documents
+     */
+    public String courseEtag(Long courseId) {
+        return toEtag("course", courseId, courseRepository.findContentVersion(courseId));
+    }
+
+    /**
+     * ETag of a course tree whose paid chapters' documents are signed only for entitled callers
+     */
+    public String courseEtag(Long courseId, boolean entitled) {
+        String contentVersion = courseRepository.findContentVersion(courseId);
+        return toEtag("course", courseId, contentVersion != null ? contentVersion + "|" + entitled : null);
+    }
+
+    /**
+     * ETag of a module including its chapters and documents
+     */
+    public String moduleEtag(Long moduleId) {
+        return toEtag("module", moduleId, moduleRepository.findContentVersion(moduleId));
+    }
+
+    /**
+     * ETag of a single chapter
+     */
+    public String chapterEtag(Long chapterId) {
+        return toEtag("chapter", chapterId, chapterRepository.findContentVersion(chapterId));
+    }
+
+    /**
+     * ETag of a user's progress in a course; changes with the progress, the course content or the
+     * caller's entitlement to the documents of paid chapters
+     */
+    public String courseProgressEtag(Long courseId, Long userId, boolean entitled) {
+        String contentVersion = courseRepository.findContentVersion(courseId);
+        if (contentVersion == null) {
+            return null;
+        }
+        String progressVersion = chapterProgressRepository.findProgressVersion(courseId, userId);
+        return toEtag("progress", courseId, contentVersion + "|" + userId + "|" + progressVersion + "|" + entitled);
+    }
+
+    private String toEtag(String type, Long id, String version) {
+        if (version == null) {
+            return null;
+        }
+        String signed = version + "|" + downloadUrlSigner.currentWindow();
+        String hash = DigestUtils.md5DigestAsHex(signed.getBytes(StandardCharsets.UTF_8));
+        // Weak, so that Tomcat still gzips the response (it skips compression for strong ETags)
+        return "W/\"" + type + "-" + id + "-" + hash + "\"";
+    }
+}
@@ -0,0 +1,49 @@
+package com.learning.system.service;
+
+import com.learning.system.repository.CourseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Keeps the module and chapter counters stored on each course in step with its content.
+ *
+ * Module and chapter writes recount their course in the same transaction; a periodic job
+ * repairs any course that still drifted, e.g. through direct database edits.
+ */
+@Slf4j
+@Service
+public class CourseCounterService {
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    /**
+     * Recount the modules, chapters, free chapters and video chapters of a course
+     */
+    @Transactional
+    public void recount(Long courseId) {
+        courseRepository.recountStructure(courseId);
+    }
+
+    /**
+     * Find courses whose counters drifted and recount them
+     */
+    @Scheduled(initialDelayString = "${course.counters.initial-delay:PT30S}",
+            fixedDelayString = "${course.counters.reconcile-interval:PT1H}")
+    @Transactional
+    public void reconcile() {
+        List<Long> staleCourseIds = courseRepository.findIdsWithStaleStructure();
+        if (staleCourseIds.isEmpty()) {
+            return;
+        }
+        for (Long courseId : staleCourseIds) {
+            courseRepository.recountStructure(courseId);
+        }
+        log.info("Recounted structure counters of {} courses: {}", staleCourseIds.size(), staleCourseIds);
+    }
+}
@@ -3,8 +3,13 @@ package com.learning.system.service;
 import com.learning.system.dto.ProgressDTO;
 import com.learning.system.entity.*;
 import com.learning.system.entity.Module;
+import com.learning.system.event.ChapterCompletedEvent;
+import com.learning.system.event.ChapterProgressedEvent;
 import com.learning.system.repository.*;
+import com.learning.system.security.DocumentAccess;
+import com.learning.system.security.DownloadUrlSigner;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -37,6 +42,18 @@ public class CourseProgressService {
 
     @Autowired
     private StudentProfileRepository studentProfileRepository;
+    
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private DownloadUrlSigner downloadUrlSigner;
+
+    @Autowired
+    private DocumentAccess documentAccess;
 
     @Transactional
     public void markModuleAsCompleted(Long moduleId, User user) {
@@ -55,95 +72,64 @@ public class CourseProgressService {
         return module.getCompletedByUsers().contains(user);
     }
     
+    /**
+     * Mark a chapter as completed. Only the progress record is written here; the legacy completion
+     * list and the module roll-up are handled after commit by ProgressRollupService.
+     */
     @Transactional
     public void markChapterAsCompleted(Long chapterId, User user) {
         Chapter chapter = chapterRepository.findById(chapterId)
                 .orElseThrow(() -> new RuntimeException("Chapter not found"));
         
-        // Find or create chapter progress record
-        List<ChapterProgress> progressList = chapterProgressRepository.findByChapterAndUser(chapter, user);
-        ChapterProgress progress;
-        
-        if (progressList.isEmpty()) {
-            // Create new progress record
-            progress = ChapterProgress.builder()
-                    .chapter(chapter)
-                    .user(user)
-                    .build();
-            progress = chapterProgressRepository.save(progress);
-        } else {
-            // Use existing record (first one if multiple)
-            progress = progressList.get(0);
-        }
+        ChapterProgress progress = findOrCreateProgress(chapter, user);
+        boolean wasCompleted = progress.isCompleted();
                 
         // Set to 100% progress and mark as completed
         progress.updateProgress(100, 0);
         chapterProgressRepository.save(progress);
         
-        // Also update the legacy completedByUsers list for backwards compatibility
-        if (!chapter.getCompletedByUsers().contains(user)) {
-            chapter.getCompletedByUsers().add(user);
-            chapterRepository.save(chapter);
-            
-            // Check if all chapters in the module are completed
-            Module module = chapter.getModule();
-            List<Chapter> moduleChapters = chapterRepository.findByModule_Id(module.getId());
-            
-            boolean allChaptersCompleted = moduleChapters.stream()
-                    .allMatch(ch -> ch.getCompletedByUsers().contains(user));
-            
-            // If all chapters completed, mark module as completed automatically
-            if (allChaptersCompleted && !module.getCompletedByUsers().contains(user)) {
-                markModuleAsCompleted(module.getId(), user);
-            }
-        }
+        publishProgress(progress, chapter, user, wasCompleted);
+        // Always published, so an explicit completion also repairs a missing legacy entry
+        eventPublisher.publishEvent(new ChapterCompletedEvent(user.getId(), chapterId, chapter.getModule().getId()));
     }
     
+    /**
+     * Record a progress heartbeat. Kept to the minimal row update; derived work runs after commit
+     * in response to the published events.
+     */
     @Transactional
     public void updateChapterProgress(Long chapterId, User user, int progressPercentage, int timeSpentSeconds) {
         Chapter chapter = chapterRepository.findById(chapterId)
                 .orElseThrow(() -> new RuntimeException("Chapter not found"));
         
-        // Find or create chapter progress record
-        List<ChapterProgress> progressList = chapterProgressRepository.findByChapterAndUser(chapter, user);
-        ChapterProgress progress;
-        
-        if (progressList.isEmpty()) {
-            // Create new progress record
-            progress = ChapterProgress.builder()
-                    .chapter(chapter)
-                    .user(user)
-                    .build();
-            progress = chapterProgressRepository.save(progress);
-        } else {
-            // Use existing record (first one if multiple)
-            progress = progressList.get(0);
-        }
+        ChapterProgress progress = findOrCreateProgress(chapter, user);
+        boolean wasCompleted = progress.isCompleted();
                 
         // Update progress
         progress.updateProgress(progressPercentage, timeSpentSeconds);
         chapterProgressRepository.save(progress);
         
-        // If chapter is completed (progress is 100%), also update the legacy completedByUsers list
-        if (progress.isCompleted() && !chapter.getCompletedByUsers().contains(user)) {
-            chapter.getCompletedByUsers().add(user);
-            chapterRepository.save(chapter);
-            
-            // Check if all chapters in the module are completed
-            Module module = chapter.getModule();
-            List<Chapter> moduleChapters = chapterRepository.findByModule_Id(module.getId());
-            
-            boolean allChaptersCompleted = moduleChapters.stream()
-                    .allMatch(ch -> {
-                        List<ChapterProgress> chProgressList = chapterProgressRepository.findByChapterAndUser(ch, user);
-                        return !chProgressList.isEmpty() && chProgressList.get(0).isCompleted();
-                    });
-            
-            // If all chapters completed, mark module as completed automatically
-            if (allChaptersCompleted && !module.getCompletedByUsers().contains(user)) {
-                markModuleAsCompleted(module.getId(), user);
-            }
+        publishProgress(progress, chapter, user, wasCompleted);
+        if (progress.isCompleted() && !wasCompleted) {
+            eventPublisher.publishEvent(new ChapterCompletedEvent(user.getId(), chapterId, chapter.getModule().getId()));
+        }
+    }
+    
+    private ChapterProgress findOrCreateProgress(Chapter chapter, User user) {
+        List<ChapterProgress> progressList = chapterProgressRepository.findByChapterAndUser(chapter, user);
+        if (!progressList.isEmpty()) {
+            // Use existing record (first one if multiple)
+            return progressList.get(0);
         }
+        return chapterProgressRepository.save(ChapterProgress.builder()
+                .chapter(chapter)
+                .user(user)
+                .build());
+    }
+    
+    private void publishProgress(ChapterProgress progress, Chapter chapter, User user, boolean wasCompleted) {
+        eventPublisher.publishEvent(new ChapterProgressedEvent(user.getId(), chapter.getId(), progress.getId(),
+                progress.getProgressPercentage(), progress.isCompleted(), progress.isCompleted() != wasCompleted));
     }
     
     public boolean isChapterCompleted(Long chapterId, User user) {
@@ -198,10 +184,25 @@ public class CourseProgressService {
             throw new RuntimeException("Module not found in course modules");
         }
         
+        if (currentModuleIndex == 0) {
+            return true;
+        }
+        
+        // Module completions are rolled up after commit, so a module whose chapters are all done
+        // counts as completed before its completion entry exists
+        Map<Long, Boolean> chaptersDone = new HashMap<>();
+        for (Object[] row : chapterProgressRepository.countChaptersByModule(
+                List.of(currentModule.getCourse().getId()), user.getId())) {
+            int total = ((Number) row[2]).intValue();
+            int completed = ((Number) row[3]).intValue();
+            chaptersDone.put(((Number) row[0]).longValue(), total > 0 && completed == total);
+        }
+        
         // Check if all previous modules are completed
         for (int i = 0; i < currentModuleIndex; i++) {
             Module previousModule = courseModules.get(i);
-            if (!previousModule.getCompletedByUsers().contains(user)) {
+            if (!chaptersDone.getOrDefault(previousModule.getId(), false)
+                    && moduleRepository.countCompletions(previousModule.getId(), user.getId()) == 0) {
                 return false;
             }
         }
@@ -210,9 +211,25 @@ public class CourseProgressService {
     }
     
     /**
-     * Get detailed progress for a specific course
+     * Get detailed progress for a specific course, with document URLs signed as far as the current
+     * caller is entitled to them
      */
     public ProgressDTO getCourseProgress(Long courseId, User user) {
+        return getCourseProgress(courseId, user, documentAccess.isEntitled(courseId));
+    }
+
+    /**
+     * Get detailed progress for a specific course.
+     * Identical concurrent calls (same course, user and entitlement, e.g. client retries) share one computation.
+     *
+     * @param entitled Whether documents of paid chapters get signed URLs (see DocumentAccess); otherwise their URL is null
+     */
+    public ProgressDTO getCourseProgress(Long courseId, User user, boolean entitled) {
+        return requestCoalescer.execute("progress.getCourseProgress", List.of(courseId, user.getId(), entitled),
+                () -> computeCourseProgress(courseId, user, entitled));
+    }
+    
+    private ProgressDTO computeCourseProgress(Long courseId, User user, boolean entitled) {
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new RuntimeException("Course not found"));
         
@@ -253,6 +270,7 @@ public class CourseProgressService {
                 }
                 
                 int chapterProgress = getChapterProgressPercentage(chapter.getId(), user);
+                boolean signed = entitled || chapter.isFree();
                 
                 chapterProgressList.add(ProgressDTO.ChapterProgressDTO.builder()
                         .id(chapter.getId())
@@ -270,7 +288,7 @@ public class CourseProgressService {
                                 .map(doc -> ProgressDTO.ChapterProgressDTO.DocumentInfo.builder()
                                     .id(doc.getId())
                                     .name(doc.getName())
-                                    .url(doc.getUrl())
+                                    .url(signed ? downloadUrlSigner.sign(doc.getUrl()) : null)
                                     .type(doc.getType())
                                     .size(doc.getSize())
                                     .build())
@@ -307,7 +325,7 @@ public class CourseProgressService {
                 .id(courseId)
                 .title(course.getTitle())
                 .description(course.getDescription())
-                .thumbnailUrl(course.getThumbnailUrl())
+                .thumbnailUrl(downloadUrlSigner.sign(course.getThumbnailUrl()))
                 .progressPercentage(progressPercentage)
                 .completedChapters(completedChapters)
                 .totalChapters(totalChapters)
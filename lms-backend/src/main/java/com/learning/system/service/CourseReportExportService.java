@@ -0,0 +1,349 @@
+package com.learning.system.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learning.system.exception.ResourceNotFoundException;
+import com.learning.system.repository.CourseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams the students-with-progress report of a course as CSV or NDJSON.
+ *
+ * Rows are read through a forward-only JDBC cursor and written out as they arrive, so memory
+ * use depends on the number of chapters in the course, not on the number of students.
+ */
+@Service
+public class CourseReportExportService {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Integer.MIN_VALUE makes MySQL Connector/J stream the result set row by row
+     * instead of buffering it in the driver
+     */
+    @Value("${report.export.fetch-size:-2147483648}")
+    private int fetchSize;
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private static final String CHAPTERS_SQL =
+            "SELECT c.id, c.title FROM chapters c " +
+            "JOIN modules m ON m.id = c.module_id " +
+            "WHERE m.course_id = ? " +
+            "ORDER BY m.order_index, m.id, c.order_index, c.id";
+
+    // Ordered by student so that all chapter rows of one enrollment arrive together
+    private static final String PROGRESS_SQL =
+            "SELECT e.id AS enrollment_id, sp.id AS profile_id, sp.student_id, " +
+            "u.first_name, u.last_name, u.email, u.active, " +
+            "e.enrollment_date, e.status AS enrollment_status, c.id AS chapter_id, " +
+            "(SELECT cp.progress_percentage FROM chapter_progress cp " +
+            " WHERE cp.chapter_id = c.id AND cp.user_id = u.id ORDER BY cp.id LIMIT 1) AS progress_percentage, " +
+            "(SELECT cp.completed FROM chapter_progress cp " +
+            " WHERE cp.chapter_id = c.id AND cp.user_id = u.id ORDER BY cp.id LIMIT 1) AS progress_completed, " +
+            "EXISTS (SELECT 1 FROM chapter_completions cc " +
+            " WHERE cc.chapter_id = c.id AND cc.user_id = u.id) AS legacy_completed " +
+            "FROM student_course_enrollment e " +
+            "JOIN student_profile sp ON sp.id = e.student_profile_id " +
+            "JOIN users u ON u.id = sp.user_id " +
+            "LEFT JOIN modules m ON m.course_id = e.course_id " +
+            "LEFT JOIN chapters c ON c.module_id = m.id " +
+            "WHERE e.course_id = ? " +
+            "ORDER BY e.student_profile_id, e.id";
+
+    /**
+     * Fail fast for unknown courses, before the response is committed
+     */
+    public void checkCourseExists(Long courseId) {
+        if (!courseRepository.existsById(courseId)) {
+            throw new ResourceNotFoundException("Course not found with id: " + courseId);
+        }
+    }
+
+    /**
+     * Write one line per enrolled student with overall and per-chapter progress
+     */
+    public void exportCourseProgress(Long courseId, Format format, OutputStream outputStream) throws IOException {
+        List<ChapterColumn> chapters = jdbcTemplate.query(CHAPTERS_SQL,
+                (rs, rowNum) -> new ChapterColumn(rs.getLong("id"), rs.getString("title")), courseId);
+        Map<Long, Integer> columnByChapterId = new HashMap<>();
+        for (int i = 0; i < chapters.size(); i++) {
+            columnByChapterId.put(chapters.get(i).id, i);
+        }
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        ReportWriter reportWriter = format == Format.NDJSON
+                ? new NdjsonReportWriter(writer, chapters)
+                : new CsvReportWriter(writer, chapters);
+        reportWriter.writeHeader();
+
+        EnrollmentRow current = new EnrollmentRow(chapters.size());
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        PROGRESS_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                statement.setLong(1, courseId);
+                return statement;
+            }, (RowCallbackHandler) rs -> {
+                long enrollmentId = rs.getLong("enrollment_id");
+                if (current.enrollmentId != null && current.enrollmentId != enrollmentId) {
+                    reportWriter.writeRow(current);
+                    current.reset();
+                }
+                if (current.enrollmentId == null) {
+                    current.read(enrollmentId, rs);
+                }
+                current.addChapter(rs, columnByChapterId);
+            });
+            if (current.enrollmentId != null) {
+                reportWriter.writeRow(current);
+            }
+        } catch (UncheckedIOException e) {
+            // Usually the client went away mid-download
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private static class ChapterColumn {
+        private final long id;
+        private final String title;
+
+        private ChapterColumn(long id, String title) {
+            this.id = id;
+            this.title = title;
+        }
+    }
+
+    /**
+     * The student currently being assembled from its chapter rows; reused for every student
+     */
+    private static class EnrollmentRow {
+        private Long enrollmentId;
+        private long profileId;
+        private String studentId;
+        private String firstName;
+        private String lastName;
+        private String email;
+        private boolean active;
+        private Date enrollmentDate;
+        private String enrollmentStatus;
+        private final int[] chapterProgress;
+        private int completedChapters;
+
+        private EnrollmentRow(int chapterCount) {
+            this.chapterProgress = new int[chapterCount];
+        }
+
+        private void read(long enrollmentId, ResultSet rs) throws SQLException {
+            this.enrollmentId = enrollmentId;
+            this.profileId = rs.getLong("profile_id");
+            this.studentId = rs.getString("student_id");
+            this.firstName = rs.getString("first_name");
+            this.lastName = rs.getString("last_name");
+            this.email = rs.getString("email");
+            this.active = rs.getBoolean("active");
+            this.enrollmentDate = rs.getDate("enrollment_date");
+            this.enrollmentStatus = rs.getString("enrollment_status");
+        }
+
+        private void addChapter(ResultSet rs, Map<Long, Integer> columnByChapterId) throws SQLException {
+            long chapterId = rs.getLong("chapter_id");
+            if (rs.wasNull()) {
+                return;
+            }
+            Integer column = columnByChapterId.get(chapterId);
+            if (column == null) {
+                // Chapter added after the header was read
+                return;
+            }
+
+            // Same rules as CourseProgressService: a progress record wins over the legacy completion list
+            int progress = rs.getInt("progress_percentage");
+            boolean completed;
+            if (rs.wasNull()) {
+                completed = rs.getBoolean("legacy_completed");
+                progress = completed ? 100 : 0;
+            } else {
+                completed = rs.getBoolean("progress_completed");
+            }
+
+            chapterProgress[column] = progress;
+            if (completed) {
+                completedChapters++;
+            }
+        }
+
+        private int progressPercentage() {
+            return chapterProgress.length == 0 ? 0 : (completedChapters * 100) / chapterProgress.length;
+        }
+
+        private void reset() {
+            enrollmentId = null;
+            completedChapters = 0;
+            Arrays.fill(chapterProgress, 0);
+        }
+    }
+
+    private abstract static class ReportWriter {
+        protected final Writer writer;
+        protected final List<ChapterColumn> chapters;
+
+        private ReportWriter(Writer writer, List<ChapterColumn> chapters) {
+            this.writer = writer;
+            this.chapters = chapters;
+        }
+
+        abstract void writeHeader();
+
+        abstract void writeRow(EnrollmentRow row);
+
+        protected void write(String value) {
+            try {
+                writer.write(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static class CsvReportWriter extends ReportWriter {
+
+        private CsvReportWriter(Writer writer, List<ChapterColumn> chapters) {
+            super(writer, chapters);
+        }
+
+        @Override
+        void writeHeader() {
+            List<String> header = new ArrayList<>(List.of("studentProfileId", "studentId", "firstName", "lastName",
+                    "email", "active", "enrollmentDate", "enrollmentStatus", "progressPercentage",
+                    "completedChapters", "totalChapters"));
+            for (ChapterColumn chapter : chapters) {
+                header.add(chapter.title + " (%)");
+            }
+            writeLine(header);
+        }
+
+        @Override
+        void writeRow(EnrollmentRow row) {
+            List<String> values = new ArrayList<>(11 + chapters.size());
+            values.add(String.valueOf(row.profileId));
+            values.add(row.studentId);
+            values.add(row.firstName);
+            values.add(row.lastName);
+            values.add(row.email);
+            values.add(String.valueOf(row.active));
+            values.add(row.enrollmentDate != null ? row.enrollmentDate.toString() : null);
+            values.add(row.enrollmentStatus);
+            values.add(String.valueOf(row.progressPercentage()));
+            values.add(String.valueOf(row.completedChapters));
+            values.add(String.valueOf(chapters.size()));
+            for (int progress : row.chapterProgress) {
+                values.add(String.valueOf(progress));
+            }
+            writeLine(values);
+        }
+
+        private void writeLine(List<String> values) {
+            StringBuilder line = new StringBuilder();
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                line.append(escape(values.get(i)));
+            }
+            line.append("\r\n");
+            write(line.toString());
+        }
+
+        private String escape(String value) {
+            if (value == null || value.isEmpty()) {
+                return "";
+            }
+            // Stop spreadsheet apps from evaluating user-supplied text as a formula
+            if ("=+-@".indexOf(value.charAt(0)) >= 0 && !value.matches("-?\\d+")) {
+                value = "'" + value;
+            }
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                return '"' + value.replace("\"", "\"\"") + '"';
+            }
+            return value;
+        }
+    }
+
+    private class NdjsonReportWriter extends ReportWriter {
+
+        private NdjsonReportWriter(Writer writer, List<ChapterColumn> chapters) {
+            super(writer, chapters);
+        }
+
+        @Override
+        void writeHeader() {
+            // NDJSON lines are self-describing
+        }
+
+        @Override
+        void writeRow(EnrollmentRow row) {
+            Map<String, Object> record = new LinkedHashMap<>();
+            record.put("studentProfileId", row.profileId);
+            record.put("studentId", row.studentId);
+            record.put("firstName", row.firstName);
+            record.put("lastName", row.lastName);
+            record.put("email", row.email);
+            record.put("active", row.active);
+            record.put("enrollmentDate", row.enrollmentDate != null ? row.enrollmentDate.toString() : null);
+            record.put("enrollmentStatus", row.enrollmentStatus);
+            record.put("progressPercentage", row.progressPercentage());
+            record.put("completedChapters", row.completedChapters);
+            record.put("totalChapters", chapters.size());
+
+            List<Map<String, Object>> chapterProgress = new ArrayList<>(chapters.size());
+            for (int i = 0; i < chapters.size(); i++) {
+                Map<String, Object> chapter = new LinkedHashMap<>();
+                chapter.put("chapterId", chapters.get(i).id);
+                chapter.put("progressPercentage", row.chapterProgress[i]);
+                chapterProgress.add(chapter);
+            }
+            record.put("chapters", chapterProgress);
+
+            try {
+                write(objectMapper.writeValueAsString(record));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            write("\n");
+        }
+    }
+}
@@ -1,15 +1,21 @@
 package com.learning.system.service;
 
+import com.learning.system.dto.CoursePreviewResponse;
 import com.learning.system.dto.CourseResponse;
 import com.learning.system.entity.Course;
 import com.learning.system.entity.User;
 import com.learning.system.mapper.CourseMapper;
 import com.learning.system.repository.CourseRepository;
+import com.learning.system.security.DownloadUrlSigner;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
 
 @Service
 public class CourseService {
@@ -18,17 +24,38 @@ public class CourseService {
     
     @Autowired
     private CourseMapper courseMapper;
+    
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    @Autowired
+    private DownloadUrlSigner downloadUrlSigner;
+    
+    private static final int MAX_PAGE_SIZE = 100;
 
     public Course createCourse(Course course, User creator) {
         course.setCreatedBy(creator);
         course.setPublished(false);
+        course.setThumbnailUrl(downloadUrlSigner.unsign(course.getThumbnailUrl()));
+        // Counters follow the content; a new course has none yet
+        course.setNumberOfModules(0);
+        course.setTotalChapters(0);
+        course.setFreeChapters(0);
+        course.setVideoChapters(0);
         return courseRepository.save(course);
     }
 
-    public CourseResponse getCourseById(Long id) {
-        Course course = courseRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Course not found"));
-        return courseMapper.toCourseResponse(course);
+    /**
+     * Get the full course tree; concurrent requests for the same course and entitlement share one computation
+     *
+     * @param entitled Whether documents of paid chapters get signed URLs (see DocumentAccess)
+     */
+    public CourseResponse getCourseById(Long id, boolean entitled) {
+        return requestCoalescer.execute("course.getById", List.of(id, entitled), () -> {
+            Course course = courseRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Course not found"));
+            return courseMapper.toCourseResponse(course, entitled);
+        });
     }
 
     public List<Course> getAllCourses() {
@@ -43,6 +70,52 @@ public class CourseService {
         return courseRepository.findByPublished(true);
     }
 
+    /**
+     * Keyset-paginated summaries of all courses
+     *
+     * @param cursor The nextCursor returned by the previous page
+     * @param size The page size (max 100)
+     */
+    public CoursePreviewResponse.PageResponse getCoursePage(Long cursor, int size) {
+        return getPage(cursor, size, courseRepository::findPageAfter);
+    }
+
+    /**
+     * Keyset-paginated summaries of published courses
+     */
+    public CoursePreviewResponse.PageResponse getPublishedCoursePage(Long cursor, int size) {
+        return getPage(cursor, size, (afterId, pageable) -> courseRepository.findPageByPublishedAfter(true, afterId, pageable));
+    }
+
+    /**
+     * Keyset-paginated summaries of the courses a user created
+     */
+    public CoursePreviewResponse.PageResponse getCoursePageByCreator(Long userId, Long cursor, int size) {
+        return getPage(cursor, size, (afterId, pageable) -> courseRepository.findPageByCreatorAfter(userId, afterId, pageable));
+    }
+
+    private CoursePreviewResponse.PageResponse getPage(Long cursor, int size,
+                                                       BiFunction<Long, Pageable, List<Course>> query) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        // Fetch one extra row to find out whether another page exists
+        List<Course> rows = query.apply(cursor != null ? cursor : 0L, PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        return CoursePreviewResponse.PageResponse.builder()
+                .size(pageSize)
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? rows.get(rows.size() - 1).getId() : null)
+                .content(rows.stream()
+                        .map(courseMapper::toCoursePreviewResponse)
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
     public Course updateCourse(Course course) {
         if (!courseRepository.existsById(course.getId())) {
             throw new RuntimeException("Course not found");
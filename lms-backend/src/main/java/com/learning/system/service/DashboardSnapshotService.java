@@ -0,0 +1,199 @@
+package com.learning.system.service;
+
+import com.learning.system.dto.StudentManagementStatsDTO;
+import com.learning.system.dto.StudentsByCourseDTO;
+import com.learning.system.repository.CourseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps precomputed admin dashboard statistics in memory.
+ *
+ * Snapshots are refreshed on a schedule and served as-is, stamped with asOf and a version.
+ * A caller asking for fresh data recomputes under a per-snapshot lock, so concurrent refreshes
+ * of the same snapshot run only once and the waiting callers reuse the result.
+ * Only snapshots read within the idle timeout are refreshed; idle ones and those of deleted
+ * courses are dropped and computed again on their next read.
+ */
+@Slf4j
+@Service
+public class DashboardSnapshotService {
+
+    @Autowired
+    private AdminDashboardService adminDashboardService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Value("${dashboard.snapshot.idle-timeout:PT30M}")
+    private Duration idleTimeout;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    private final Map<String, ReentrantLock> refreshLocks = new ConcurrentHashMap<>();
+
+    private final AtomicLong versionSequence = new AtomicLong();
+
+    private static final String STATS_KEY_PREFIX = "student-stats:";
+    private static final String COURSE_KEY_PREFIX = "students-by-course:";
+
+    public DashboardSnapshotService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Get student management statistics from the latest snapshot
+     *
+     * @param activeOnly Whether to return statistics for active users (true) or inactive users (false)
+     * @param fresh Recompute the snapshot before returning it
+     */
+    public StudentManagementStatsDTO getStudentManagementStats(boolean activeOnly, boolean fresh) {
+        return getSnapshot(STATS_KEY_PREFIX + activeOnly, fresh, statsComputation(activeOnly));
+    }
+
+    /**
+     * Get every student of a course from the latest snapshot
+     *
+     * @param courseId The course ID to get students for
+     * @param fresh Recompute the snapshot before returning it
+     */
+    public StudentsByCourseDTO getStudentsByCourse(Long courseId, boolean fresh) {
+        return getSnapshot(COURSE_KEY_PREFIX + courseId, fresh, courseComputation(courseId));
+    }
+
+    /**
+     * Recompute the recently read snapshots in the background and drop the others
+     */
+    @Scheduled(initialDelayString = "${dashboard.snapshot.initial-delay:PT10S}",
+            fixedDelayString = "${dashboard.snapshot.refresh-interval:PT5M}")
+    public void refreshAll() {
+        long idleSince = System.nanoTime() - idleTimeout.toNanos();
+        Set<Long> courseIds = new HashSet<>(courseRepository.findAllIds());
+
+        for (Map.Entry<String, Snapshot> entry : snapshots.entrySet()) {
+            String key = entry.getKey();
+            if (entry.getValue().lastReadAt - idleSince < 0) {
+                evict(key);
+            } else if (key.startsWith(COURSE_KEY_PREFIX)) {
+                Long courseId = Long.valueOf(key.substring(COURSE_KEY_PREFIX.length()));
+                if (courseIds.contains(courseId)) {
+                    refreshQuietly(key, courseComputation(courseId));
+                } else {
+                    evict(key);
+                }
+            } else {
+                refreshQuietly(key, statsComputation(Boolean.parseBoolean(key.substring(STATS_KEY_PREFIX.length()))));
+            }
+        }
+    }
+
+    /**
+     * A caller still waiting on the removed lock may compute once more alongside a new one; that only costs a query
+     */
+    private void evict(String key) {
+        snapshots.remove(key);
+        refreshLocks.remove(key);
+    }
+
+    private SnapshotComputation<StudentManagementStatsDTO> statsComputation(boolean activeOnly) {
+        return (version, asOf) -> {
+            StudentManagementStatsDTO stats = adminDashboardService.getStudentManagementStats(activeOnly);
+            stats.setAsOf(asOf);
+            stats.setSnapshotVersion(version);
+            return stats;
+        };
+    }
+
+    private SnapshotComputation<StudentsByCourseDTO> courseComputation(Long courseId) {
+        return (version, asOf) -> {
+            StudentsByCourseDTO students = adminDashboardService.getStudentsByCourse(courseId, 0, Integer.MAX_VALUE);
+            students.setAsOf(asOf);
+            students.setSnapshotVersion(version);
+            return students;
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T getSnapshot(String key, boolean fresh, SnapshotComputation<T> computation) {
+        Snapshot current = snapshots.get(key);
+        if (current != null && !fresh) {
+            current.lastReadAt = System.nanoTime();
+            return (T) current.value;
+        }
+        return refresh(key, current, computation, true);
+    }
+
+    private <T> void refreshQuietly(String key, SnapshotComputation<T> computation) {
+        try {
+            refresh(key, snapshots.get(key), computation, false);
+        } catch (RuntimeException e) {
+            // Keep serving the previous snapshot
+            log.warn("Failed to refresh dashboard snapshot {}", key, e);
+        }
+    }
+
+    /**
+     * Recompute a snapshot unless another thread replaced the one we saw while we waited for the lock
+     *
+     * @param read Whether a caller is reading the snapshot, as opposed to the background refresh
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T refresh(String key, Snapshot seen, SnapshotComputation<T> computation, boolean read) {
+        ReentrantLock lock = refreshLocks.computeIfAbsent(key, k -> new ReentrantLock());
+        lock.lock();
+        try {
+            Snapshot latest = snapshots.get(key);
+            if (latest != null && latest != seen) {
+                if (read) {
+                    latest.lastReadAt = System.nanoTime();
+                }
+                return (T) latest.value;
+            }
+
+            long version = versionSequence.incrementAndGet();
+            LocalDateTime asOf = LocalDateTime.now();
+            T value = readOnlyTransaction.execute(status -> computation.compute(version, asOf));
+            long lastReadAt = read || seen == null ? System.nanoTime() : seen.lastReadAt;
+            snapshots.put(key, new Snapshot(value, lastReadAt));
+            return value;
+        } finally {
+            lock.unlock();
+            // Nothing was stored, e.g. the course does not exist; don't keep a lock for it
+            if (!snapshots.containsKey(key)) {
+                refreshLocks.remove(key, lock);
+            }
+        }
+    }
+
+    private static final class Snapshot {
+        private final Object value;
+        private volatile long lastReadAt;
+
+        private Snapshot(Object value, long lastReadAt) {
+            this.value = value;
+            this.lastReadAt = lastReadAt;
+        }
+    }
+
+    @FunctionalInterface
+    private interface SnapshotComputation<T> {
+        T compute(long version, LocalDateTime asOf);
+    }
+}
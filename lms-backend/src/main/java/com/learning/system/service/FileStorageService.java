@@ -1,49 +1,120 @@
 package com.learning.system.service;
 
 import com.learning.system.config.FileStorageConfig;
+import com.learning.system.event.DocumentDeletedEvent;
+import com.learning.system.repository.DocumentRepository;
+import com.learning.system.storage.HotFileCache;
+import com.learning.system.storage.StorageBackend;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.util.UriUtils;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InputStream;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.Optional;
 import java.util.UUID;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 
+@Slf4j
 @Service
 public class FileStorageService {
 
     private final FileStorageConfig fileStorageConfig;
 
-    public FileStorageService(FileStorageConfig fileStorageConfig) {
+    private final StorageBackend storageBackend;
+
+    private final HotFileCache hotFileCache;
+
+    private final DocumentRepository documentRepository;
+
+    private final UploadAdmissionService uploadAdmissionService;
+
+    public FileStorageService(FileStorageConfig fileStorageConfig, StorageBackend storageBackend,
+                              HotFileCache hotFileCache, DocumentRepository documentRepository,
+                              UploadAdmissionService uploadAdmissionService) {
         this.fileStorageConfig = fileStorageConfig;
+        this.storageBackend = storageBackend;
+        this.hotFileCache = hotFileCache;
+        this.documentRepository = documentRepository;
+        this.uploadAdmissionService = uploadAdmissionService;
     }
 
     public String storeFile(MultipartFile file) throws IOException {
-        // Get original filename and replace spaces with hyphens
-        String originalFilename = file.getOriginalFilename();
-        String sanitizedFilename = originalFilename != null ?
-                originalFilename.replace(" ", "-") :
+        String fileName = uniqueFileName(file.getOriginalFilename());
+        try (InputStream content = file.getInputStream()) {
+            storageBackend.store(fileName, content, file.getSize());
+        }
+        return toUrl(fileName);
+    }
+
+    /**
+     * Hand a fully received file (e.g. a completed chunked upload) to the storage backend
+     */
+    public String storeFile(Path source, String originalFilename) throws IOException {
+        String fileName = uniqueFileName(originalFilename);
+        storageBackend.store(fileName, source);
+        return toUrl(fileName);
+    }
+
+    private String uniqueFileName(String originalFilename) {
+        // Keep only the last path segment and replace spaces with hyphens
+        String baseName = originalFilename != null ? StringUtils.getFilename(originalFilename.replace("\\", "/")) : null;
+        String sanitizedFilename = StringUtils.hasText(baseName) ?
+                baseName.replace(" ", "-") :
                 UUID.randomUUID().toString();
 
         // Generate unique filename
-        String fileName = UUID.randomUUID().toString() + "_" + sanitizedFilename;
-
-        // URL encode the filename
-        String encodedFileName = URLEncoder.encode(fileName, StandardCharsets.UTF_8.toString())
-                .replace("+", "%20");
+        return UUID.randomUUID().toString() + "_" + sanitizedFilename;
+    }
 
-        Path uploadPath = Paths.get(fileStorageConfig.getUploadDir());
+    /**
+     * Delete a deleted document's file once the deletion is committed, unless another document still
+     * links to it, and give its bytes back to the uploader's quota
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentDeleted(DocumentDeletedEvent event) {
+        toKey(event.getUrl()).ifPresent(key -> {
+            if (documentRepository.existsByUrl(event.getUrl())) {
+                return;
+            }
+            try {
+                storageBackend.delete(key);
+            } catch (IOException e) {
+                log.warn("Could not delete file {} of deleted document {}", key, event.getDocumentId(), e);
+            }
+            // After the delete, so a concurrent read cannot cache the file again
+            hotFileCache.invalidate(key);
+            uploadAdmissionService.recordDeleted(key);
+        });
+    }
 
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
+    /**
+     * The storage key of a file URL returned by storeFile; empty for URLs not served from the upload location
+     */
+    public Optional<String> toKey(String url) {
+        String prefix = fileStorageConfig.getAccessUrl() + "/";
+        if (url == null || !url.startsWith(prefix)) {
+            return Optional.empty();
         }
+        String path = url.substring(prefix.length());
+        int queryStart = path.indexOf('?');
+        String key = UriUtils.decode(queryStart >= 0 ? path.substring(0, queryStart) : path, StandardCharsets.UTF_8);
+        try {
+            return Optional.of(StorageBackend.checkKey(key));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
 
-        Path filePath = uploadPath.resolve(fileName);
-        Files.copy(file.getInputStream(), filePath);
-
+    private String toUrl(String fileName) throws IOException {
+        // URL encode the filename
+        String encodedFileName = URLEncoder.encode(fileName, StandardCharsets.UTF_8.toString())
+                .replace("+", "%20");
         return fileStorageConfig.getAccessUrl() + "/" + encodedFileName;
     }
-}
\ No newline at end of file
+}
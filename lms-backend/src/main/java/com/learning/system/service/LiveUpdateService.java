@@ -0,0 +1,240 @@
+package com.learning.system.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learning.system.dto.StudentRequestResponseDTO;
+import com.learning.system.entity.Course;
+import com.learning.system.entity.StudentCourseRequest;
+import com.learning.system.event.ChapterProgressedEvent;
+import com.learning.system.event.CourseRequestChangedEvent;
+import com.learning.system.event.ModuleCompletedEvent;
+import com.learning.system.event.StudentRequestChangedEvent;
+import com.learning.system.repository.StudentCourseRequestRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Pushes request-status and progress changes to subscribed clients over server-sent events.
+ *
+ * Subscriptions are async servlet requests, so an idle connection holds a socket but no thread.
+ * Changes are picked up after their transaction commits, loaded once and serialized once,
+ * then written to every interested emitter from the live update executor.
+ */
+@Slf4j
+@Service
+public class LiveUpdateService {
+
+    @Autowired
+    private StudentRequestService studentRequestService;
+
+    @Autowired
+    private StudentCourseRequestRepository courseRequestRepository;
+
+    @Autowired
+    private ProgressChangesService progressChangesService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("liveUpdateExecutor")
+    private TaskExecutor liveUpdateExecutor;
+
+    @Value("${live-updates.emitter-timeout:PT30M}")
+    private Duration emitterTimeout;
+
+    @Value("${live-updates.reconnect-delay:PT5S}")
+    private Duration reconnectDelay;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Set<SseEmitter> adminEmitters = ConcurrentHashMap.newKeySet();
+
+    private final Map<Long, Set<SseEmitter>> userEmitters = new ConcurrentHashMap<>();
+
+    public LiveUpdateService(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        Gauge.builder("live_updates.subscribers", this, LiveUpdateService::getSubscriberCount)
+                .description("Open server-sent event streams")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open a stream of student-request and course-request changes for an admin
+     */
+    public SseEmitter subscribeAdmin() {
+        SseEmitter emitter = new SseEmitter(emitterTimeout.toMillis());
+        register(emitter, () -> adminEmitters.remove(emitter));
+        adminEmitters.add(emitter);
+        return emitter;
+    }
+
+    /**
+     * Open a stream of the user's own progress and course-request changes
+     */
+    public SseEmitter subscribeUser(Long userId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeout.toMillis());
+        Runnable unsubscribe = () -> userEmitters.computeIfPresent(userId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+        register(emitter, unsubscribe);
+        userEmitters.compute(userId, (id, emitters) -> {
+            Set<SseEmitter> set = emitters != null ? emitters : ConcurrentHashMap.newKeySet();
+            set.add(emitter);
+            return set;
+        });
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentRequestChanged(StudentRequestChangedEvent event) {
+        if (adminEmitters.isEmpty()) {
+            return;
+        }
+        liveUpdateExecutor.execute(() -> {
+            StudentRequestResponseDTO request = readOnlyTransaction.execute(
+                    status -> studentRequestService.getRequestById(event.getRequestId()));
+            broadcast(adminEmitters, "student-request", request);
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseRequestChanged(CourseRequestChangedEvent event) {
+        Set<SseEmitter> studentEmitters = userEmitters.get(event.getStudentUserId());
+        if (adminEmitters.isEmpty() && studentEmitters == null) {
+            return;
+        }
+        liveUpdateExecutor.execute(() -> {
+            Map<String, Object> request = readOnlyTransaction.execute(
+                    status -> courseRequestRepository.findById(event.getRequestId()).map(this::toSummary).orElse(null));
+            if (request == null) {
+                return;
+            }
+            List<SseEmitter> targets = new ArrayList<>(adminEmitters);
+            if (studentEmitters != null) {
+                targets.addAll(studentEmitters);
+            }
+            broadcast(targets, "course-request", request);
+        });
+    }
+
+    /**
+     * Push the changed chapter row. Module and course totals only move when a chapter is completed or
+     * reopened, so the summaries are only computed then.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChapterProgressed(ChapterProgressedEvent event) {
+        Set<SseEmitter> emitters = userEmitters.get(event.getUserId());
+        if (emitters == null) {
+            return;
+        }
+        liveUpdateExecutor.execute(() -> broadcast(emitters, "progress",
+                progressChangesService.describeChanges(event.getUserId(), List.of(event.getProgressId()),
+                        event.isCompletionChanged())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onModuleCompleted(ModuleCompletedEvent event) {
+        Set<SseEmitter> emitters = userEmitters.get(event.getUserId());
+        if (emitters == null) {
+            return;
+        }
+        Map<String, Object> module = new LinkedHashMap<>();
+        module.put("moduleId", event.getModuleId());
+        module.put("courseId", event.getCourseId());
+        liveUpdateExecutor.execute(() -> broadcast(emitters, "module-completed", module));
+    }
+
+    /**
+     * Comment lines keep idle connections open through proxies and reveal clients that went away
+     */
+    @Scheduled(fixedDelayString = "${live-updates.heartbeat-interval:PT25S}")
+    public void sendHeartbeats() {
+        List<SseEmitter> all = new ArrayList<>(adminEmitters);
+        userEmitters.values().forEach(all::addAll);
+        if (all.isEmpty()) {
+            return;
+        }
+        liveUpdateExecutor.execute(() -> {
+            for (SseEmitter emitter : all) {
+                send(emitter, SseEmitter.event().comment("heartbeat"));
+            }
+        });
+    }
+
+    /**
+     * Number of open streams, published as the live_updates.subscribers gauge
+     */
+    public int getSubscriberCount() {
+        return adminEmitters.size() + userEmitters.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void register(SseEmitter emitter, Runnable unsubscribe) {
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+        // Tell the client how soon to reconnect; it should then catch up through the regular endpoints
+        send(emitter, SseEmitter.event().name("connected").data("{}", MediaType.APPLICATION_JSON)
+                .reconnectTime(reconnectDelay.toMillis()));
+    }
+
+    private void broadcast(Collection<SseEmitter> emitters, String name, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize {} live update", name, e);
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            send(emitter, SseEmitter.event().name(name).data(json, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    private void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // The client went away or the stream already ended; the container's error callback unsubscribes it
+            log.debug("Dropping live update for a closed stream: {}", e.getMessage());
+        }
+    }
+
+    private Map<String, Object> toSummary(StudentCourseRequest request) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("id", request.getId());
+        summary.put("studentId", request.getStudent().getId());
+        summary.put("studentName", request.getStudent().getFirstName() + " " + request.getStudent().getLastName());
+        summary.put("courseIds", request.getCourses().stream().map(Course::getId).collect(Collectors.toList()));
+        summary.put("reason", request.getReason());
+        summary.put("status", request.getStatus());
+        summary.put("requestDate", request.getRequestDate());
+        summary.put("processedDate", request.getProcessedDate());
+        return summary;
+    }
+}
@@ -0,0 +1,133 @@
+package com.learning.system.service;
+
+import com.learning.system.exception.RequestThrottledException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * In-memory token buckets limiting login attempts per username and client address and, optionally,
+ * per client address.
+ *
+ * The per-username limit is what stops password guessing. Its buckets are keyed on the username together
+ * with the address, so someone hammering a student's username from elsewhere does not lock the student out.
+ * Many users can share one address (a campus or office NAT), so the per-address limit is off unless a
+ * capacity is configured.
+ *
+ * Buckets live in striped, size-bounded LRU maps: a key only contends with the keys of its own
+ * stripe, and a flood of made-up usernames evicts idle buckets instead of growing the heap.
+ * An attempt is rejected before any password is hashed, so rejected logins cost almost nothing.
+ */
+@Service
+public class LoginRateLimiter {
+
+    private static final int STRIPES = 64;
+
+    private final Limit perAddress;
+
+    private final Limit perUsername;
+
+    private final MeterRegistry meterRegistry;
+
+    public LoginRateLimiter(@Value("${login.rate-limit.per-address.capacity:0}") int addressCapacity,
+                            @Value("${login.rate-limit.per-address.refill-per-minute:0}") int addressRefill,
+                            @Value("${login.rate-limit.per-username.capacity:10}") int usernameCapacity,
+                            @Value("${login.rate-limit.per-username.refill-per-minute:10}") int usernameRefill,
+                            @Value("${login.rate-limit.max-keys:100000}") int maxKeys,
+                            MeterRegistry meterRegistry) {
+        this.perAddress = addressCapacity > 0 ? new Limit("address", addressCapacity, addressRefill, maxKeys) : null;
+        this.perUsername = new Limit("username", usernameCapacity, usernameRefill, maxKeys);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Take one attempt from the bucket of a client address; a no-op unless a per-address capacity is set
+     *
+     * @param clientAddress The address resolved through the trusted proxy (server.forward-headers-strategy)
+     * @throws RequestThrottledException with 429 when the bucket is empty
+     */
+    public void acquireAddress(String clientAddress) {
+        if (perAddress != null && clientAddress != null) {
+            perAddress.acquire(clientAddress, System.nanoTime());
+        }
+    }
+
+    /**
+     * Take one attempt from the bucket of a username at a client address
+     *
+     * @param username      The username the login resolved to, so that logging in by email draws from the same bucket
+     * @param clientAddress The address resolved through the trusted proxy (server.forward-headers-strategy)
+     * @throws RequestThrottledException with 429 when the bucket is empty
+     */
+    public void acquireUsername(String username, String clientAddress) {
+        if (username != null) {
+            perUsername.acquire(username.trim().toLowerCase(Locale.ROOT) + "|" + clientAddress, System.nanoTime());
+        }
+    }
+
+    private class Limit {
+        private final String name;
+        private final double capacity;
+        private final double tokensPerNano;
+        private final Map<String, Bucket>[] stripes;
+
+        @SuppressWarnings("unchecked")
+        Limit(String name, int capacity, int refillPerMinute, int maxKeys) {
+            this.name = name;
+            this.capacity = capacity;
+            this.tokensPerNano = refillPerMinute / (double) Duration.ofMinutes(1).toNanos();
+            int keysPerStripe = Math.max(1, maxKeys / STRIPES);
+            this.stripes = new Map[STRIPES];
+            for (int i = 0; i < STRIPES; i++) {
+                stripes[i] = new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                        return size() > keysPerStripe;
+                    }
+                };
+            }
+        }
+
+        void acquire(String key, long now) {
+            Map<String, Bucket> stripe = stripes[Math.floorMod(key.hashCode(), STRIPES)];
+            long waitNanos;
+            synchronized (stripe) {
+                waitNanos = stripe.computeIfAbsent(key, k -> new Bucket(capacity, now)).take(now);
+            }
+            if (waitNanos > 0) {
+                meterRegistry.counter("login.throttled", "reason", "rate_limit_" + name).increment();
+                throw new RequestThrottledException(HttpStatus.TOO_MANY_REQUESTS,
+                        "Too many login attempts, try again later", Duration.ofNanos(waitNanos));
+            }
+        }
+
+        private class Bucket {
+            private double tokens;
+            private long updatedAt;
+
+            Bucket(double tokens, long now) {
+                this.tokens = tokens;
+                this.updatedAt = now;
+            }
+
+            /**
+             * Take a token, or return how long until one is available
+             */
+            long take(long now) {
+                tokens = Math.min(capacity, tokens + (now - updatedAt) * tokensPerNano);
+                updatedAt = now;
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    return 0;
+                }
+                return (long) Math.ceil((1 - tokens) / tokensPerNano);
+            }
+        }
+    }
+}
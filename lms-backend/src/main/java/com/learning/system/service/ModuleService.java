@@ -6,6 +6,7 @@ import com.learning.system.repository.CourseRepository;
 import com.learning.system.repository.ModuleRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -17,11 +18,17 @@ public class ModuleService {
     @Autowired
     private CourseRepository courseRepository;
 
+    @Autowired
+    private CourseCounterService courseCounterService;
+
+    @Transactional
     public Module createModule(Module module, Long courseId) {
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new RuntimeException("Course not found"));
         module.setCourse(course);
-        return moduleRepository.save(module);
+        Module savedModule = moduleRepository.save(module);
+        courseCounterService.recount(courseId);
+        return savedModule;
     }
 
     public List<Module> getModulesByCourse(Long courseId) {
@@ -29,14 +36,25 @@ public class ModuleService {
     }
 
     public Module updateModule(Module module) {
-        if (!moduleRepository.existsById(module.getId())) {
-            throw new RuntimeException("Module not found");
-        }
-        return moduleRepository.save(module);
+        Module existingModule = moduleRepository.findById(module.getId())
+                .orElseThrow(() -> new RuntimeException("Module not found"));
+        
+        // Copy the editable fields onto the managed entity so its version and chapters are kept
+        existingModule.setTitle(module.getTitle());
+        existingModule.setDescription(module.getDescription());
+        existingModule.setOrderIndex(module.getOrderIndex());
+        return moduleRepository.save(existingModule);
     }
 
+    @Transactional
     public void deleteModule(Long id) {
-        moduleRepository.deleteById(id);
+        Module module = moduleRepository.findById(id).orElse(null);
+        if (module == null) {
+            return;
+        }
+        Long courseId = module.getCourse().getId();
+        moduleRepository.delete(module);
+        courseCounterService.recount(courseId);
     }
 
     public Module getModuleById(Long id) {
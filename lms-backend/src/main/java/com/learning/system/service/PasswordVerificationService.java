@@ -0,0 +1,96 @@
+package com.learning.system.service;
+
+import com.learning.system.exception.RequestThrottledException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks login passwords on the bounded login executor instead of the request thread.
+ *
+ * BCrypt is deliberately slow and CPU-bound; a burst of logins therefore queues here rather than
+ * occupying every servlet thread and starving the rest of the API. When the queue is full, or a
+ * login waited longer than the client is likely to, it is answered with 503 without hashing.
+ */
+@Service
+public class PasswordVerificationService {
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Value("${login.max-queue-wait:PT5S}")
+    private Duration maxQueueWait;
+
+    private final ThreadPoolTaskExecutor loginExecutor;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Timer queueWait;
+
+    public PasswordVerificationService(@Qualifier("loginExecutor") ThreadPoolTaskExecutor loginExecutor,
+                                       MeterRegistry meterRegistry) {
+        this.loginExecutor = loginExecutor;
+        this.meterRegistry = meterRegistry;
+        this.queueWait = Timer.builder("login.queue.wait")
+                .description("Time logins wait for a password verification thread")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("login.queue.size", loginExecutor, executor -> executor.getThreadPoolExecutor().getQueue().size())
+                .description("Logins waiting for a password verification thread")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Verify a username and password
+     *
+     * @return The authenticated user, or a future failed with an AuthenticationException
+     * @throws RequestThrottledException with 503 when the login executor is saturated
+     */
+    public CompletableFuture<Authentication> verify(String username, String password) {
+        long submittedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> authenticate(username, password, submittedAt), loginExecutor);
+        } catch (RejectedExecutionException e) {
+            throw overloaded("queue_full");
+        }
+    }
+
+    private Authentication authenticate(String username, String password, long submittedAt) {
+        long waited = System.nanoTime() - submittedAt;
+        queueWait.record(waited, TimeUnit.NANOSECONDS);
+        if (waited > maxQueueWait.toNanos()) {
+            throw overloaded("queue_timeout");
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            Authentication authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(username, password));
+            outcome = "success";
+            return authentication;
+        } finally {
+            sample.stop(meterRegistry.timer("login.verification", "outcome", outcome));
+        }
+    }
+
+    private RequestThrottledException overloaded(String reason) {
+        meterRegistry.counter("login.throttled", "reason", reason).increment();
+        return new RequestThrottledException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Too many logins in progress, try again shortly", Duration.ofSeconds(1));
+    }
+}
@@ -0,0 +1,299 @@
+package com.learning.system.service;
+
+import com.learning.system.dto.ProgressChangesDTO;
+import com.learning.system.entity.ChapterProgress;
+import com.learning.system.entity.User;
+import com.learning.system.repository.ChapterProgressRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Incremental progress sync for student dashboards.
+ *
+ * Changes are read in (lastUpdated, id) order through the user/last_updated/id index, so a poll costs
+ * O(changes) instead of O(course size). The cursor is an opaque encoding of the last position returned
+ * and of the records the client received within the grace period before it.
+ */
+@Service
+public class ProgressChangesService {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final int MAX_LIMIT = 1000;
+    // Cursors travel in query strings, so they remember at most this many received records
+    private static final int MAX_RECEIVED = 100;
+
+    @Autowired
+    private ChapterProgressRepository chapterProgressRepository;
+
+    /**
+     * lastUpdated is stamped before commit, so a slow transaction can commit a timestamp older than rows
+     * already handed out. Each poll therefore also reads this window before the cursor position and
+     * returns the records in it that the client has not received yet, going by id and version.
+     */
+    @Value("${progress.changes.grace-period:PT5S}")
+    private Duration gracePeriod;
+
+    /**
+     * Get the progress changes of a user after the given cursor
+     *
+     * @param user The student
+     * @param since Cursor from the previous call, or null for a full initial sync
+     * @param limit Maximum number of chapter changes to return
+     */
+    @Transactional(readOnly = true)
+    public ProgressChangesDTO getChanges(User user, String since, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        Cursor cursor = since == null || since.isBlank()
+                ? new Cursor(BEGINNING, 0L, 0, List.of())
+                : Cursor.decode(since, gracePeriod);
+
+        // Re-read the grace window, skipping what the client already has; one extra row tells whether
+        // another page follows
+        List<ChapterProgress> changed = chapterProgressRepository.findChangedSince(
+                        user.getId(), cursor.windowStart(), cursor.windowStartId(),
+                        PageRequest.of(0, pageSize + 1 + cursor.received.size())).stream()
+                .filter(progress -> !cursor.hasReceived(progress))
+                .collect(Collectors.toList());
+        boolean hasMore = changed.size() > pageSize;
+        if (hasMore) {
+            changed = changed.subList(0, pageSize);
+        }
+
+        Cursor next = changed.isEmpty() ? cursor : cursor.advance(changed, gracePeriod);
+
+        ProgressChangesDTO result = toChanges(user.getId(), changed, true);
+        result.setCursor(next.encode());
+        result.setHasMore(hasMore);
+        return result;
+    }
+
+    /**
+     * Describe specific progress records of a user, in the same shape as a page of changes but without a cursor.
+     * Module and course summaries cost an aggregate over the courses involved, so they are optional.
+     */
+    @Transactional(readOnly = true)
+    public ProgressChangesDTO describeChanges(Long userId, Collection<Long> progressIds, boolean withSummaries) {
+        List<ChapterProgress> progress = chapterProgressRepository.findAllById(progressIds).stream()
+                .filter(cp -> cp.getUser().getId().equals(userId))
+                .collect(Collectors.toList());
+        return toChanges(userId, progress, withSummaries);
+    }
+
+    private ProgressChangesDTO toChanges(Long userId, List<ChapterProgress> changed, boolean withSummaries) {
+        List<ProgressChangesDTO.ChapterChangeDTO> chapterChanges = new ArrayList<>(changed.size());
+        Set<Long> changedModuleIds = new LinkedHashSet<>();
+        Set<Long> changedCourseIds = new LinkedHashSet<>();
+        for (ChapterProgress progress : changed) {
+            Long moduleId = progress.getChapter().getModule().getId();
+            Long courseId = progress.getChapter().getModule().getCourse().getId();
+            changedModuleIds.add(moduleId);
+            changedCourseIds.add(courseId);
+
+            chapterChanges.add(ProgressChangesDTO.ChapterChangeDTO.builder()
+                    .progressId(progress.getId())
+                    .chapterId(progress.getChapter().getId())
+                    .moduleId(moduleId)
+                    .courseId(courseId)
+                    .progressPercentage(progress.getProgressPercentage())
+                    .timeSpentSeconds(progress.getTimeSpentSeconds())
+                    .completed(progress.isCompleted())
+                    .lastUpdated(progress.getLastUpdated().format(DATE_FORMATTER))
+                    .version(progress.getVersion())
+                    .build());
+        }
+
+        ProgressChangesDTO result = ProgressChangesDTO.builder()
+                .chapters(chapterChanges)
+                .build();
+        if (withSummaries && !changedCourseIds.isEmpty()) {
+            addSummaries(result, userId, changedCourseIds, changedModuleIds);
+        }
+        return result;
+    }
+
+    /**
+     * Module and course totals with the same rules as CourseProgressService.getCourseProgress
+     */
+    private void addSummaries(ProgressChangesDTO result, Long userId, Set<Long> courseIds, Set<Long> moduleIds) {
+        Map<Long, ProgressChangesDTO.CourseSummaryDTO> courses = new LinkedHashMap<>();
+        for (Long courseId : courseIds) {
+            courses.put(courseId, ProgressChangesDTO.CourseSummaryDTO.builder().courseId(courseId).build());
+        }
+
+        for (Object[] row : chapterProgressRepository.countChaptersByModule(courseIds, userId)) {
+            Long moduleId = ((Number) row[0]).longValue();
+            Long courseId = ((Number) row[1]).longValue();
+            int total = ((Number) row[2]).intValue();
+            int completed = ((Number) row[3]).intValue();
+            boolean moduleCompleted = total > 0 && completed == total;
+
+            ProgressChangesDTO.CourseSummaryDTO course = courses.get(courseId);
+            course.setTotalModules(course.getTotalModules() + 1);
+            course.setTotalChapters(course.getTotalChapters() + total);
+            course.setCompletedChapters(course.getCompletedChapters() + completed);
+            if (moduleCompleted) {
+                course.setCompletedModules(course.getCompletedModules() + 1);
+            }
+
+            if (moduleIds.contains(moduleId)) {
+                result.getModules().add(ProgressChangesDTO.ModuleSummaryDTO.builder()
+                        .moduleId(moduleId)
+                        .courseId(courseId)
+                        .progressPercentage(total == 0 ? 0 : (completed * 100) / total)
+                        .totalChapters(total)
+                        .completedChapters(completed)
+                        .completed(moduleCompleted)
+                        .build());
+            }
+        }
+
+        for (ProgressChangesDTO.CourseSummaryDTO course : courses.values()) {
+            int total = course.getTotalChapters();
+            course.setProgressPercentage(total == 0 ? 0 : (course.getCompletedChapters() * 100) / total);
+            course.setCompleted(total > 0 && course.getCompletedChapters() == total);
+            result.getCourses().add(course);
+        }
+    }
+
+    /**
+     * The position of the last record returned, how far before it the next poll looks for late records,
+     * and the records received within that window as id.version.age entries, age being milliseconds
+     * before the position
+     */
+    private static class Cursor {
+        private final LocalDateTime lastUpdated;
+        private final Long id;
+        private final long windowMillis;
+        private final List<Received> received;
+
+        private Cursor(LocalDateTime lastUpdated, Long id, long windowMillis, List<Received> received) {
+            this.lastUpdated = lastUpdated;
+            this.id = id;
+            this.windowMillis = windowMillis;
+            this.received = received;
+        }
+
+        /**
+         * A negative window means the received records did not fit, and reading resumes right after the position
+         */
+        private LocalDateTime windowStart() {
+            return windowMillis < 0 ? lastUpdated : lastUpdated.minus(Duration.ofMillis(windowMillis));
+        }
+
+        private Long windowStartId() {
+            return windowMillis < 0 ? id : 0L;
+        }
+
+        private boolean hasReceived(ChapterProgress progress) {
+            for (Received entry : received) {
+                if (entry.id.equals(progress.getId()) && entry.version == versionOf(progress)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Move past the given records, which are in (lastUpdated, id) order, and remember those inside the
+         * grace period. Late records can sort before the current position, which then stays put. When more
+         * records than fit in a cursor fall inside the grace period, the window shrinks to the newest ones
+         * and only grows back as the position moves forward.
+         */
+        private Cursor advance(List<ChapterProgress> returned, Duration gracePeriod) {
+            ChapterProgress last = returned.get(returned.size() - 1);
+            boolean movesForward = last.getLastUpdated().isAfter(lastUpdated)
+                    || last.getLastUpdated().isEqual(lastUpdated) && last.getId() > id;
+            LocalDateTime position = movesForward ? last.getLastUpdated() : lastUpdated;
+            Long positionId = movesForward ? last.getId() : id;
+            long shift = Duration.between(lastUpdated, position).toMillis();
+
+            List<Received> inWindow = new ArrayList<>();
+            for (Received entry : received) {
+                inWindow.add(new Received(entry.id, entry.version, entry.ageMillis + shift));
+            }
+            for (ChapterProgress progress : returned) {
+                inWindow.removeIf(entry -> entry.id.equals(progress.getId()));
+                inWindow.add(new Received(progress.getId(), versionOf(progress),
+                        Duration.between(progress.getLastUpdated(), position).toMillis()));
+            }
+
+            // The start of the window never moves back, so records it already dropped stay out of it
+            long window = Math.min(gracePeriod.toMillis(), windowMillis < 0 ? shift - 1 : windowMillis + shift);
+            inWindow.sort(Comparator.comparingLong(entry -> entry.ageMillis));
+            if (inWindow.size() > MAX_RECEIVED) {
+                window = Math.min(window, inWindow.get(MAX_RECEIVED).ageMillis - 1);
+            }
+            long limit = window;
+            inWindow.removeIf(entry -> entry.ageMillis > limit);
+            return new Cursor(position, positionId, Math.max(window, -1), inWindow);
+        }
+
+        private String encode() {
+            String raw = lastUpdated + "|" + id + "|" + windowMillis + "|" + received.stream()
+                    .map(entry -> entry.id + "." + entry.version + "." + entry.ageMillis)
+                    .collect(Collectors.joining(","));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static Cursor decode(String value, Duration gracePeriod) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\|", -1);
+                LocalDateTime lastUpdated = LocalDateTime.parse(parts[0]);
+                Long id = Long.parseLong(parts[1]);
+                if (parts.length == 2) {
+                    // Cursor from before the received list; its position was already moved back by the grace period
+                    return new Cursor(lastUpdated, id, 0, List.of());
+                }
+                List<Received> received = new ArrayList<>();
+                if (!parts[3].isEmpty()) {
+                    for (String entry : parts[3].split(",")) {
+                        String[] fields = entry.split("\\.");
+                        received.add(new Received(Long.parseLong(fields[0]), Long.parseLong(fields[1]),
+                                Long.parseLong(fields[2])));
+                    }
+                }
+                long windowMillis = Math.min(Long.parseLong(parts[2]), gracePeriod.toMillis());
+                return new Cursor(lastUpdated, id, windowMillis, received);
+            } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid sync cursor: " + value);
+            }
+        }
+
+        private static long versionOf(ChapterProgress progress) {
+            return progress.getVersion() != null ? progress.getVersion() : 0L;
+        }
+    }
+
+    private static class Received {
+        private final Long id;
+        private final long version;
+        private final long ageMillis;
+
+        private Received(Long id, long version, long ageMillis) {
+            this.id = id;
+            this.version = version;
+            this.ageMillis = ageMillis;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.learning.system.service;
+
+import com.learning.system.entity.Module;
+import com.learning.system.event.ChapterCompletedEvent;
+import com.learning.system.event.ModuleCompletedEvent;
+import com.learning.system.repository.ChapterProgressRepository;
+import com.learning.system.repository.ChapterRepository;
+import com.learning.system.repository.ModuleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Derived progress state, updated after the progress write has committed.
+ *
+ * Runs on the domain event executor, so a failure here never rolls back the student's progress update.
+ * Roll-ups for the same student can still overlap; the unique completion entries make them idempotent.
+ */
+@Service
+public class ProgressRollupService {
+
+    @Autowired
+    private ChapterRepository chapterRepository;
+
+    @Autowired
+    private ModuleRepository moduleRepository;
+
+    @Autowired
+    private ChapterProgressRepository chapterProgressRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Keep the legacy completion list in step and complete the module once all of its chapters are done
+     */
+    @Async("domainEventExecutor")
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onChapterCompleted(ChapterCompletedEvent event) {
+        Long userId = event.getUserId();
+        chapterRepository.addCompletion(event.getChapterId(), userId);
+
+        Module module = moduleRepository.findById(event.getModuleId()).orElse(null);
+        if (module == null || moduleRepository.countCompletions(module.getId(), userId) > 0) {
+            return;
+        }
+
+        Long courseId = module.getCourse().getId();
+        for (Object[] row : chapterProgressRepository.countChaptersByModule(List.of(courseId), userId)) {
+            if (((Number) row[0]).longValue() != module.getId()) {
+                continue;
+            }
+            int total = ((Number) row[2]).intValue();
+            int completed = ((Number) row[3]).intValue();
+            // Only the roll-up that adds the entry announces the completion
+            if (total > 0 && completed == total && moduleRepository.addCompletion(module.getId(), userId) > 0) {
+                eventPublisher.publishEvent(new ModuleCompletedEvent(userId, module.getId(), courseId));
+            }
+        }
+    }
+}
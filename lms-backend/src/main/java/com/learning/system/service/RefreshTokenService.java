@@ -0,0 +1,144 @@
+package com.learning.system.service;
+
+import com.learning.system.entity.RefreshToken;
+import com.learning.system.repository.RefreshTokenRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.CredentialsExpiredException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues and rotates refresh tokens. Only the SHA-256 of a token is stored, so the table
+ * cannot be used to sign in.
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${jwt.refresh-expiration:P14D}")
+    private Duration refreshExpiration;
+
+    /**
+     * Start a new token family for a login
+     *
+     * @return The token value for the client
+     */
+    public String issue(Long userId) {
+        return issue(userId, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchange a refresh token for a new one of the same family
+     *
+     * @return The user id and the new token value
+     * @throws CredentialsExpiredException when the token is unknown, expired or revoked; presenting an
+     *                                     already rotated token also revokes its family
+     */
+    // The family revocation on reuse must be committed although the caller gets an error
+    @Transactional(noRollbackFor = CredentialsExpiredException.class)
+    public Rotation rotate(String token) {
+        RefreshToken current = find(token);
+        LocalDateTime now = LocalDateTime.now();
+        if (current.isRevoked()) {
+            throw new CredentialsExpiredException("Refresh token was revoked");
+        }
+        if (current.getExpiresAt().isBefore(now)) {
+            throw new CredentialsExpiredException("Refresh token has expired");
+        }
+        if (current.getRotatedAt() != null || refreshTokenRepository.markRotated(current.getId(), now) == 0) {
+            reuseDetected(current);
+            throw new CredentialsExpiredException("Refresh token was already used");
+        }
+        return new Rotation(current.getUserId(), issue(current.getUserId(), current.getFamilyId()));
+    }
+
+    /**
+     * Revoke the family of a token, e.g. on logout; unknown tokens are ignored
+     */
+    public void revoke(String token) {
+        refreshTokenRepository.findByTokenHash(hash(token))
+                .ifPresent(refreshToken -> refreshTokenRepository.revokeFamily(refreshToken.getFamilyId()));
+    }
+
+    /**
+     * Revoke every refresh token of a user, e.g. after deactivation
+     */
+    public void revokeAll(Long userId) {
+        refreshTokenRepository.revokeByUserId(userId);
+    }
+
+    /**
+     * Drop tokens that have expired; rotated tokens are kept until then to detect their reuse
+     */
+    @Scheduled(fixedDelayString = "${jwt.refresh-cleanup-interval:PT6H}")
+    public void deleteExpired() {
+        int deleted = refreshTokenRepository.deleteExpiredBefore(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Deleted {} expired refresh tokens", deleted);
+        }
+    }
+
+    private String issue(Long userId, String familyId) {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        LocalDateTime now = LocalDateTime.now();
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(token))
+                .familyId(familyId)
+                .userId(userId)
+                .createdAt(now)
+                .expiresAt(now.plus(refreshExpiration))
+                .build());
+        return token;
+    }
+
+    private RefreshToken find(String token) {
+        if (token == null || token.isBlank()) {
+            throw new CredentialsExpiredException("Refresh token is required");
+        }
+        return refreshTokenRepository.findByTokenHash(hash(token))
+                .orElseThrow(() -> new CredentialsExpiredException("Invalid refresh token"));
+    }
+
+    private void reuseDetected(RefreshToken token) {
+        log.warn("Refresh token reuse for user {}, revoking token family {}", token.getUserId(), token.getFamilyId());
+        refreshTokenRepository.revokeFamily(token.getFamilyId());
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Rotation {
+        private final Long userId;
+        private final String refreshToken;
+    }
+}
@@ -0,0 +1,83 @@
+package com.learning.system.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight execution of expensive reads.
+ *
+ * The first caller for an (operation, key) pair computes the result on its own thread; callers
+ * arriving while that computation is in flight wait for it and get the same result instead of
+ * recomputing. Nothing is cached once the computation finishes, and the shared result must be
+ * treated as read-only by every caller.
+ *
+ * Calls are counted per operation in the coalescer.calls metric, tagged with
+ * result=executed or result=coalesced, and leader execution time is recorded in coalescer.execution.
+ */
+@Component
+public class RequestCoalescer {
+
+    private final Map<List<Object>, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestCoalescer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Run loader for the given operation and key, or join an identical call that is already running
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, Object key, Supplier<T> loader) {
+        List<Object> flightKey = List.of(operation, key);
+        CompletableFuture<Object> ours = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, ours);
+
+        if (existing != null) {
+            callCounter(operation, "coalesced").increment();
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                throw unwrap(e.getCause());
+            }
+        }
+
+        callCounter(operation, "executed").increment();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            T result = loader.get();
+            ours.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            ours.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, ours);
+            sample.stop(meterRegistry.timer("coalescer.execution", "operation", operation));
+        }
+    }
+
+    private Counter callCounter(String operation, String result) {
+        return meterRegistry.counter("coalescer.calls", "operation", operation, "result", result);
+    }
+
+    private RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new RuntimeException(cause);
+    }
+}
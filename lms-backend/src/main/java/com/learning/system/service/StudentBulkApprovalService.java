@@ -0,0 +1,330 @@
+package com.learning.system.service;
+
+import com.learning.system.dto.BulkApprovalJobDTO;
+import com.learning.system.entity.BulkApprovalJob;
+import com.learning.system.entity.BulkApprovalJobItem;
+import com.learning.system.entity.Role;
+import com.learning.system.entity.StudentRequest;
+import com.learning.system.entity.User;
+import com.learning.system.exception.RequestThrottledException;
+import com.learning.system.exception.ResourceNotFoundException;
+import com.learning.system.repository.BulkApprovalJobItemRepository;
+import com.learning.system.repository.BulkApprovalJobRepository;
+import com.learning.system.repository.RoleRepository;
+import com.learning.system.repository.StudentRequestRepository;
+import com.learning.system.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+/**
+ * Approves large batches of StudentRequests as a background job.
+ *
+ * Each chunk of requests is approved in a single transaction together with the status of its job
+ * items, so a job interrupted by a crash resumes on startup without approving anything twice.
+ * BCrypt hashing runs on a bounded pool before the transaction opens, and emails are queued only
+ * after the chunk commits. An email queued when the process dies is not re-sent.
+ */
+@Slf4j
+@Service
+public class StudentBulkApprovalService {
+
+    @Autowired
+    private BulkApprovalJobRepository jobRepository;
+
+    @Autowired
+    private BulkApprovalJobItemRepository itemRepository;
+
+    @Autowired
+    private StudentRequestRepository studentRequestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private StudentProfileService studentProfileService;
+
+    @Autowired
+    @Qualifier("bulkApprovalExecutor")
+    private Executor bulkApprovalExecutor;
+
+    @Autowired
+    @Qualifier("passwordHashingExecutor")
+    private Executor passwordHashingExecutor;
+
+    @Autowired
+    @Qualifier("mailExecutor")
+    private Executor mailExecutor;
+
+    @Value("${bulk-approval.chunk-size:50}")
+    private int chunkSize;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private static final String STUDENT_ROLE = "ROLE_STUDENT";
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    public StudentBulkApprovalService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Create a bulk approval job and start it in the background.
+     * An empty list of request ids approves every request that is currently pending.
+     *
+     * @throws RequestThrottledException with 503 when the job queue is full; no job is created
+     */
+    public BulkApprovalJobDTO submitJob(List<Long> requestIds, User admin) {
+        Long jobId = transactionTemplate.execute(status -> {
+            Set<Long> ids = requestIds == null || requestIds.isEmpty()
+                    ? new LinkedHashSet<>(studentRequestRepository.findIdsByStatus(StudentRequest.RequestStatus.PENDING))
+                    : new LinkedHashSet<>(requestIds);
+
+            BulkApprovalJob job = jobRepository.save(BulkApprovalJob.builder()
+                    .status(BulkApprovalJob.JobStatus.QUEUED)
+                    .totalItems(ids.size())
+                    .createdBy(admin)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+
+            List<BulkApprovalJobItem> items = ids.stream()
+                    .map(id -> BulkApprovalJobItem.builder().job(job).requestId(id).build())
+                    .collect(Collectors.toList());
+            itemRepository.saveAll(items);
+            return job.getId();
+        });
+
+        try {
+            launch(jobId);
+        } catch (TaskRejectedException e) {
+            // Nothing has been approved yet, so drop the job instead of leaving it queued without a runner
+            transactionTemplate.executeWithoutResult(status -> {
+                itemRepository.deleteByJobId(jobId);
+                jobRepository.deleteById(jobId);
+            });
+            throw new RequestThrottledException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Too many bulk approval jobs are queued, try again later", Duration.ofMinutes(1));
+        }
+        return getJobStatus(jobId);
+    }
+
+    /**
+     * Get the progress of a bulk approval job, including the failed requests
+     */
+    @Transactional(readOnly = true)
+    public BulkApprovalJobDTO getJobStatus(Long jobId) {
+        BulkApprovalJob job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Bulk approval job not found with id: " + jobId));
+
+        Map<BulkApprovalJobItem.ItemStatus, Long> counts = new HashMap<>();
+        for (Object[] row : itemRepository.countByStatus(jobId)) {
+            counts.put((BulkApprovalJobItem.ItemStatus) row[0], (Long) row[1]);
+        }
+
+        List<BulkApprovalJobDTO.FailureDTO> failures = itemRepository
+                .findByJob_IdAndStatus(jobId, BulkApprovalJobItem.ItemStatus.FAILED).stream()
+                .map(item -> BulkApprovalJobDTO.FailureDTO.builder()
+                        .requestId(item.getRequestId())
+                        .message(item.getErrorMessage())
+                        .build())
+                .collect(Collectors.toList());
+
+        return BulkApprovalJobDTO.builder()
+                .id(job.getId())
+                .status(job.getStatus())
+                .totalItems(job.getTotalItems())
+                .pendingItems(counts.getOrDefault(BulkApprovalJobItem.ItemStatus.PENDING, 0L))
+                .approvedItems(counts.getOrDefault(BulkApprovalJobItem.ItemStatus.APPROVED, 0L))
+                .skippedItems(counts.getOrDefault(BulkApprovalJobItem.ItemStatus.SKIPPED, 0L))
+                .failedItems(counts.getOrDefault(BulkApprovalJobItem.ItemStatus.FAILED, 0L))
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .failures(failures)
+                .build();
+    }
+
+    /**
+     * Pick up jobs that were queued or running when the application last stopped
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedJobs() {
+        List<BulkApprovalJob> unfinished = jobRepository.findByStatusIn(
+                List.of(BulkApprovalJob.JobStatus.QUEUED, BulkApprovalJob.JobStatus.RUNNING));
+        for (BulkApprovalJob job : unfinished) {
+            log.info("Resuming bulk approval job {}", job.getId());
+            try {
+                launch(job.getId());
+            } catch (TaskRejectedException e) {
+                log.warn("Bulk approval queue is full; job {} stays queued until the next startup", job.getId());
+            }
+        }
+    }
+
+    private void launch(Long jobId) {
+        bulkApprovalExecutor.execute(() -> {
+            try {
+                runJob(jobId);
+            } catch (RuntimeException e) {
+                // Leave the job RUNNING so it is resumed on the next startup
+                log.error("Bulk approval job {} stopped unexpectedly", jobId, e);
+            }
+        });
+    }
+
+    private void runJob(Long jobId) {
+        Long adminId = transactionTemplate.execute(status -> {
+            BulkApprovalJob job = jobRepository.findById(jobId).orElseThrow();
+            job.setStatus(BulkApprovalJob.JobStatus.RUNNING);
+            if (job.getStartedAt() == null) {
+                job.setStartedAt(LocalDateTime.now());
+            }
+            return job.getCreatedBy() != null ? job.getCreatedBy().getId() : null;
+        });
+
+        List<BulkApprovalJobItem> chunk;
+        while (!(chunk = itemRepository.findByJob_IdAndStatusOrderByIdAsc(
+                jobId, BulkApprovalJobItem.ItemStatus.PENDING, PageRequest.of(0, chunkSize))).isEmpty()) {
+            processChunk(chunk, adminId);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            BulkApprovalJob job = jobRepository.findById(jobId).orElseThrow();
+            job.setStatus(BulkApprovalJob.JobStatus.COMPLETED);
+            job.setFinishedAt(LocalDateTime.now());
+        });
+        log.info("Bulk approval job {} completed", jobId);
+    }
+
+    private void processChunk(List<BulkApprovalJobItem> chunk, Long adminId) {
+        Map<Long, String> passwordHashes = hashPasswordsForNewUsers(chunk);
+        List<Runnable> notifications = new ArrayList<>();
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Role studentRole = findStudentRole();
+                for (BulkApprovalJobItem item : chunk) {
+                    approveItem(item, adminId, studentRole, passwordHashes, notifications);
+                }
+            });
+        } catch (RuntimeException e) {
+            // One bad request rolls back the whole chunk, so retry the items one by one
+            notifications.clear();
+            for (BulkApprovalJobItem item : chunk) {
+                item.setStatus(BulkApprovalJobItem.ItemStatus.PENDING);
+                item.setErrorMessage(null);
+                item.setProcessedAt(null);
+                processSingleItem(item, adminId, passwordHashes, notifications);
+            }
+        }
+
+        notifications.forEach(this::queueEmail);
+    }
+
+    private void processSingleItem(BulkApprovalJobItem item, Long adminId, Map<Long, String> passwordHashes,
+                                   List<Runnable> notifications) {
+        List<Runnable> itemNotifications = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    approveItem(item, adminId, findStudentRole(), passwordHashes, itemNotifications));
+            notifications.addAll(itemNotifications);
+        } catch (RuntimeException e) {
+            transactionTemplate.executeWithoutResult(status -> {
+                item.setStatus(BulkApprovalJobItem.ItemStatus.FAILED);
+                item.setErrorMessage(truncate(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName()));
+                item.setProcessedAt(LocalDateTime.now());
+                itemRepository.save(item);
+            });
+        }
+    }
+
+    private void approveItem(BulkApprovalJobItem item, Long adminId, Role studentRole,
+                             Map<Long, String> passwordHashes, List<Runnable> notifications) {
+        StudentRequest request = studentRequestRepository.findById(item.getRequestId()).orElse(null);
+
+        if (request == null) {
+            item.setStatus(BulkApprovalJobItem.ItemStatus.FAILED);
+            item.setErrorMessage("Student request not found with id: " + item.getRequestId());
+        } else if (request.getStatus() != StudentRequest.RequestStatus.PENDING) {
+            item.setStatus(BulkApprovalJobItem.ItemStatus.SKIPPED);
+            item.setErrorMessage("Request is already " + request.getStatus());
+        } else {
+            User admin = adminId != null ? userRepository.getReferenceById(adminId) : null;
+            notifications.add(studentProfileService.approvePreparedRequest(
+                    request, admin, studentRole, passwordHashes.get(request.getId())));
+            item.setStatus(BulkApprovalJobItem.ItemStatus.APPROVED);
+        }
+
+        item.setProcessedAt(LocalDateTime.now());
+        itemRepository.save(item);
+    }
+
+    /**
+     * Hash the default password for every request in the chunk that will create a new account.
+     * BCrypt is deliberately slow, so this runs in parallel and outside of any transaction.
+     */
+    private Map<Long, String> hashPasswordsForNewUsers(List<BulkApprovalJobItem> chunk) {
+        List<Long> requestIds = chunk.stream().map(BulkApprovalJobItem::getRequestId).collect(Collectors.toList());
+        List<StudentRequest> requests = studentRequestRepository.findAllById(requestIds);
+
+        Set<String> emails = requests.stream().map(StudentRequest::getEmail).collect(Collectors.toSet());
+        Set<String> existingEmails = emails.isEmpty() ? Set.of() : new HashSet<>(userRepository.findExistingEmails(emails));
+
+        Map<Long, CompletableFuture<String>> futures = new HashMap<>();
+        for (StudentRequest request : requests) {
+            if (request.getStatus() == StudentRequest.RequestStatus.PENDING && !existingEmails.contains(request.getEmail())) {
+                futures.put(request.getId(), CompletableFuture.supplyAsync(
+                        studentProfileService::encodeDefaultPassword, passwordHashingExecutor));
+            }
+        }
+
+        Map<Long, String> hashes = new HashMap<>();
+        futures.forEach((requestId, future) -> hashes.put(requestId, future.join()));
+        return hashes;
+    }
+
+    private void queueEmail(Runnable notification) {
+        mailExecutor.execute(() -> {
+            try {
+                notification.run();
+            } catch (RuntimeException e) {
+                log.warn("Failed to send bulk approval email", e);
+            }
+        });
+    }
+
+    private Role findStudentRole() {
+        return roleRepository.findByName(STUDENT_ROLE)
+                .orElseThrow(() -> new RuntimeException("Invalid role specified"));
+    }
+
+    private String truncate(String message) {
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
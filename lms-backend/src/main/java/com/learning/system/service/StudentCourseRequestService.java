@@ -4,13 +4,19 @@ import com.learning.system.dto.StudentCourseRequestDTO;
 import com.learning.system.entity.Course;
 import com.learning.system.entity.StudentCourseRequest;
 import com.learning.system.entity.User;
+import com.learning.system.event.CourseRequestChangedEvent;
+import com.learning.system.event.EnrollmentApprovedEvent;
 import com.learning.system.exception.DuplicateResourceException;
 import com.learning.system.exception.ResourceNotFoundException;
 import com.learning.system.repository.CourseRepository;
 import com.learning.system.repository.StudentCourseRequestRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -29,6 +35,9 @@ public class StudentCourseRequestService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Transactional
     public StudentCourseRequest createRequest(StudentCourseRequestDTO requestDTO, User student) {
         // Validate courses
@@ -68,6 +77,8 @@ public class StudentCourseRequestService {
                 .build();
         
         StudentCourseRequest savedRequest = requestRepository.save(request);
+        eventPublisher.publishEvent(new CourseRequestChangedEvent(
+                savedRequest.getId(), student.getId(), savedRequest.getStatus()));
         
         // Send notification email to admin
         String coursesInfo = getCoursesInfoText(courses);
@@ -114,15 +125,32 @@ public class StudentCourseRequestService {
         request.setProcessedDate(LocalDateTime.now());
         request.setProcessedBy(admin);
         
-        // Send approval email to student
+        StudentCourseRequest savedRequest = requestRepository.save(request);
+        eventPublisher.publishEvent(new CourseRequestChangedEvent(
+                savedRequest.getId(), savedRequest.getStudent().getId(), savedRequest.getStatus()));
+        eventPublisher.publishEvent(new EnrollmentApprovedEvent(savedRequest.getId(), savedRequest.getStudent().getId(),
+                savedRequest.getCourses().stream().map(Course::getId).collect(Collectors.toList())));
+        return savedRequest;
+    }
+    
+    /**
+     * Send the approval email once the approval has committed, so a mail failure no longer rolls it back
+     */
+    @Async("mailExecutor")
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onEnrollmentApproved(EnrollmentApprovedEvent event) {
+        StudentCourseRequest request = requestRepository.findById(event.getCourseRequestId()).orElse(null);
+        if (request == null) {
+            return;
+        }
+        
         String coursesInfo = getCoursesInfoText(request.getCourses());
         emailService.sendCourseRequestApprovalEmail(
             request.getStudent().getEmail(),
             request.getStudent().getFirstName() + " " + request.getStudent().getLastName(),
             coursesInfo
         );
-        
-        return requestRepository.save(request);
     }
     
     @Transactional
@@ -142,6 +170,9 @@ public class StudentCourseRequestService {
             coursesInfo
         );
         
-        return requestRepository.save(request);
+        StudentCourseRequest savedRequest = requestRepository.save(request);
+        eventPublisher.publishEvent(new CourseRequestChangedEvent(
+                savedRequest.getId(), savedRequest.getStudent().getId(), savedRequest.getStatus()));
+        return savedRequest;
     }
 } 
\ No newline at end of file
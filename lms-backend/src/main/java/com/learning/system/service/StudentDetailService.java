@@ -27,6 +27,7 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -141,6 +142,10 @@ public class StudentDetailService {
         // Handle profile image if provided
 //        if (StringUtils.hasText(updateRequest.getProfileImageBase64())) {
 //            String profileImageUrl = saveProfileImage(studentProfile.getStudentId(), updateRequest.getProfileImageBase64());
+            // The thumbnail belongs to the processed avatar; drop it when another image is set
+            if (!Objects.equals(studentProfile.getProfileImage(), updateRequest.getProfileImageBase64())) {
+                studentProfile.setProfileImageThumbnail(null);
+            }
             studentProfile.setProfileImage(updateRequest.getProfileImageBase64());
 //        }
         
@@ -375,6 +380,7 @@ public class StudentDetailService {
                 .department(studentProfile.getDepartment())
                 .enrollmentDate(studentProfile.getEnrollmentDate())
                 .profileImage(studentProfile.getProfileImage())
+                .profileImageThumbnail(studentProfile.getProfileImageThumbnail())
                 // Add personal information
                 .contactNumber(user.getContactNumber())
                 .address(studentProfile.getAddress())
@@ -0,0 +1,113 @@
+package com.learning.system.service;
+
+import com.learning.system.entity.IdSequence;
+import com.learning.system.repository.IdSequenceRepository;
+import com.learning.system.repository.StudentProfileRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Allocates student ids (STyyNNNN) from a database-backed hi/lo sequence.
+ *
+ * Each node reserves a block of numbers with one locked update of the id_sequences row and
+ * then hands them out from memory with an atomic counter, so ids are unique across nodes
+ * without a query per id. Numbers reserved by a node that shuts down are simply skipped.
+ */
+@Service
+public class StudentIdAllocator {
+
+    @Autowired
+    private IdSequenceRepository idSequenceRepository;
+
+    @Autowired
+    private StudentProfileRepository studentProfileRepository;
+
+    @Value("${student-id.block-size:50}")
+    private int blockSize;
+
+    private final TransactionTemplate requiresNewTransaction;
+
+    private final Object refillLock = new Object();
+
+    private volatile Block currentBlock = new Block(0, 0);
+
+    private static final String SEQUENCE_NAME = "student_id";
+    private static final String STUDENT_ID_PREFIX = "ST";
+    private static final int MAX_RESERVE_ATTEMPTS = 3;
+
+    public StudentIdAllocator(PlatformTransactionManager transactionManager) {
+        this.requiresNewTransaction = new TransactionTemplate(transactionManager);
+        this.requiresNewTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Get the next student id, e.g. ST250042
+     */
+    public String nextStudentId() {
+        int year = LocalDate.now().getYear() % 100;
+        return String.format("%s%02d%04d", STUDENT_ID_PREFIX, year, nextValue());
+    }
+
+    private long nextValue() {
+        while (true) {
+            Block block = currentBlock;
+            long value = block.next.getAndIncrement();
+            if (value < block.end) {
+                return value;
+            }
+            synchronized (refillLock) {
+                // Another thread may have refilled while we were waiting
+                if (currentBlock == block) {
+                    currentBlock = reserveBlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Reserve the next block in its own transaction so the row lock is released immediately,
+     * independent of the (possibly long) approval transaction that asked for an id
+     */
+    private Block reserveBlock() {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return requiresNewTransaction.execute(status -> {
+                    IdSequence sequence = idSequenceRepository.findByNameForUpdate(SEQUENCE_NAME)
+                            .orElseGet(() -> IdSequence.builder()
+                                    .name(SEQUENCE_NAME)
+                                    // Start after every id the old count-based generator could have issued
+                                    .nextValue(studentProfileRepository.findMaxId() + 1)
+                                    .build());
+                    long start = sequence.getNextValue();
+                    sequence.setNextValue(start + blockSize);
+                    idSequenceRepository.saveAndFlush(sequence);
+                    return new Block(start, start + blockSize);
+                });
+            } catch (DataIntegrityViolationException | ConcurrencyFailureException e) {
+                // Another node created the sequence row at the same time; retry against its row
+                if (attempt >= MAX_RESERVE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
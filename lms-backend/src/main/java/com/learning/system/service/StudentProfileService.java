@@ -2,17 +2,26 @@ package com.learning.system.service;
 
 import com.learning.system.dto.CourseApprovalDTO;
 import com.learning.system.dto.RegisterRequest;
+import com.learning.system.dto.StudentDirectoryDTO;
 import com.learning.system.dto.StudentProfileDTO;
 import com.learning.system.entity.*;
+import com.learning.system.event.StudentRequestChangedEvent;
 import com.learning.system.exception.ResourceNotFoundException;
 import com.learning.system.repository.CourseRepository;
 import com.learning.system.repository.RoleRepository;
 import com.learning.system.repository.StudentCourseEnrollmentRepository;
 import com.learning.system.repository.StudentProfileRepository;
 import com.learning.system.repository.StudentRequestRepository;
+import com.learning.system.repository.UserRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -45,99 +54,116 @@ public class StudentProfileService {
     @Autowired
     private EmailService emailService;
     
-    private static final String STUDENT_ID_PREFIX = "ST";
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    
+    @Autowired
+    private StudentIdAllocator studentIdAllocator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     private static final String STUDENT_ROLE = "ROLE_STUDENT";
     private static final String DEFAULT_PASSWORD = "Password123";
+    private static final int MAX_DIRECTORY_PAGE_SIZE = 100;
 
     @Transactional
     public StudentProfileDTO approveStudentRequest(Long requestId, User admin) {
         StudentRequest request = studentRequestRepository.findById(requestId)
                 .orElseThrow(() -> new RuntimeException("Student request not found with id: " + requestId));
         
-        // Check if there's already a profile for this email
-        Optional<User> existingUser = authenticationService.findUserByEmail(request.getEmail());
+        Approval approval = approve(request, admin, findStudentRole(), null);
+        approval.getNotification().run();
+        return approval.getProfile();
+    }
+    
+    /**
+     * Approve a pending request as part of a bulk approval job.
+     * The password hash is computed up front by the caller and no email is sent here; the returned
+     * task sends the notification and must only be run after the surrounding transaction commits.
+     */
+    @Transactional
+    public Runnable approvePreparedRequest(StudentRequest request, User admin, Role studentRole, String encodedPassword) {
+        return approve(request, admin, studentRole, encodedPassword).getNotification();
+    }
+    
+    /**
+     * Enroll the requester in the requested courses, creating their account and profile as needed,
+     * and mark the request approved. The returned notification has not been sent yet.
+     *
+     * @param encodedPassword Hash of the default password for a new account, or null to hash it here
+     */
+    private Approval approve(StudentRequest request, User admin, Role studentRole, String encodedPassword) {
+        String email = request.getEmail();
+        String fullName = request.getFullName();
+        Optional<User> existingUser = authenticationService.findUserByEmail(email);
         StudentProfileDTO profileDTO;
-        boolean isNewUser = false;
-        String username = request.getEmail();
-        String password = DEFAULT_PASSWORD;
+        Runnable notification;
         
         if (existingUser.isPresent()) {
             User user = existingUser.get();
-            // Check if there's a profile for this user
             List<StudentProfile> existingProfiles = studentProfileRepository.findByUser(user);
             if (!existingProfiles.isEmpty()) {
+                // Add the requested courses to the existing profile
                 StudentProfile profile = existingProfiles.get(0);
-                
-                // Add all the requested courses to existing profile
-                if (request.getCourses() != null && !request.getCourses().isEmpty()) {
+                if (request.getCourses() != null) {
                     for (Course course : request.getCourses()) {
                         if (!isEnrolledInCourse(profile, course)) {
                             profile.addCourseEnrollment(course, LocalDate.now());
                         }
                     }
-                    studentProfileRepository.save(profile);
                 }
-                
-                profileDTO = mapToDTO(profile);
-                
-                // Send enrollment confirmation email for existing user
-                String coursesInfo = getCoursesInfoText(request.getCourses());
-                emailService.sendEnrollmentConfirmationEmail(
-                    request.getEmail(), 
-                    request.getFullName(),
-                    coursesInfo
-                );
+                profileDTO = mapToDTO(studentProfileRepository.save(profile));
             } else {
-                // User exists but no profile, create profile
                 profileDTO = createProfileForUser(user, request);
-                
-                // Send enrollment confirmation email
-                String coursesInfo = getCoursesInfoText(request.getCourses());
-                emailService.sendEnrollmentConfirmationEmail(
-                    request.getEmail(), 
-                    request.getFullName(),
-                    coursesInfo
-                );
             }
+            
+            String coursesInfo = getCoursesInfoText(request.getCourses());
+            notification = () -> emailService.sendEnrollmentConfirmationEmail(email, fullName, coursesInfo);
         } else {
-            // Create a new user account - use email as username
-            RegisterRequest registerRequest = RegisterRequest.builder()
-                    .username(username)  // Use email as username
-                    .password(password) // Default password, should be changed by student
-                    .email(request.getEmail())
-                    .firstName(request.getFullName().split(" ")[0])
-//                    .lastName(request.getFullName().split(" ")[1])
+            // New student account; the email doubles as the username
+            if (userRepository.existsByUsername(email)) {
+                throw new RuntimeException("Username already exists");
+            }
+            User user = User.builder()
+                    .username(email)
+                    .password(encodedPassword != null ? encodedPassword : encodeDefaultPassword())
+                    .email(email)
+                    .firstName(fullName.split(" ")[0])
                     .contactNumber(request.getPhoneNumber())
                     .active(true)
-                    .role(STUDENT_ROLE)
+                    .roles(Set.of(studentRole))
                     .build();
-            
-            var authResponse = authenticationService.register(registerRequest);
-            var user = authenticationService.getUserFromToken(authResponse.getToken());
-            
+            userRepository.save(user);
             profileDTO = createProfileForUser(user, request);
-            isNewUser = true;
             
-            // Get formatted course information for email
+            // Default password, should be changed by the student
             String coursesHtml = getCoursesInfoHtml(request.getCourses());
-            
-            // Send HTML approval email for new user
-            emailService.sendApprovalNotificationHtml(
-                request.getEmail(),
-                request.getFullName(),
-                coursesHtml,
-                username,
-                password
-            );
+            notification = () -> emailService.sendApprovalNotificationHtml(email, fullName, coursesHtml, email, DEFAULT_PASSWORD);
         }
         
-        // Update request status
         request.setStatus(StudentRequest.RequestStatus.APPROVED);
         request.setProcessedDate(LocalDate.now().atStartOfDay());
         request.setProcessedBy(admin);
         studentRequestRepository.save(request);
+        eventPublisher.publishEvent(new StudentRequestChangedEvent(request.getId(), request.getStatus()));
         
-        return profileDTO;
+        return new Approval(profileDTO, notification);
+    }
+    
+    private Role findStudentRole() {
+        return roleRepository.findByName(STUDENT_ROLE)
+                .orElseThrow(() -> new RuntimeException("Invalid role specified"));
+    }
+    
+    /**
+     * Hash the default password given to newly approved students
+     */
+    public String encodeDefaultPassword() {
+        return passwordEncoder.encode(DEFAULT_PASSWORD);
     }
     
     @Transactional
@@ -188,6 +214,7 @@ public class StudentProfileService {
                 request.setProcessedDate(LocalDate.now().atStartOfDay());
                 request.setProcessedBy(admin);
                 studentRequestRepository.save(request);
+                eventPublisher.publishEvent(new StudentRequestChangedEvent(request.getId(), request.getStatus()));
                 
                 profileDTO = mapToDTO(profile);
                 
@@ -207,6 +234,7 @@ public class StudentProfileService {
                 request.setProcessedDate(LocalDate.now().atStartOfDay());
                 request.setProcessedBy(admin);
                 studentRequestRepository.save(request);
+                eventPublisher.publishEvent(new StudentRequestChangedEvent(request.getId(), request.getStatus()));
                 
                 // Send enrollment confirmation email
                 String coursesInfo = getCoursesInfoText(approvedCourses);
@@ -228,8 +256,7 @@ public class StudentProfileService {
                     .role(STUDENT_ROLE)
                     .build();
             
-            var authResponse = authenticationService.register(registerRequest);
-            var user = authenticationService.getUserFromToken(authResponse.getToken());
+            var user = authenticationService.createAccount(registerRequest);
             
             // Create profile with approved courses and return the DTO
             profileDTO = createProfileForUser(user, modifiedRequest);
@@ -240,6 +267,7 @@ public class StudentProfileService {
             request.setProcessedDate(LocalDate.now().atStartOfDay());
             request.setProcessedBy(admin);
             studentRequestRepository.save(request);
+            eventPublisher.publishEvent(new StudentRequestChangedEvent(request.getId(), request.getStatus()));
             
             // Get formatted course information for email
             String coursesHtml = getCoursesInfoHtml(approvedCourses);
@@ -260,7 +288,7 @@ public class StudentProfileService {
     @Transactional
     protected StudentProfileDTO createProfileForUser(User user, StudentRequest request) {
         // Generate student ID
-        String studentId = generateStudentId();
+        String studentId = studentIdAllocator.nextStudentId();
         
         // Create a student profile
         StudentProfile studentProfile = StudentProfile.builder()
@@ -373,6 +401,64 @@ public class StudentProfileService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Search the student directory for the admin UI.
+     * Names and email are prefix matched, studentId is matched exactly, and results are
+     * keyset paginated by profile id so deep pages cost the same as the first one.
+     */
+    @Transactional(readOnly = true)
+    public StudentDirectoryDTO.PageResponse searchStudents(String query, String studentId, String department,
+                                                           Long courseId, Boolean active, Long cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_DIRECTORY_PAGE_SIZE));
+        
+        // Fetch one extra row to find out whether another page exists
+        List<StudentProfile> rows = studentProfileRepository.searchDirectory(
+                cursor != null ? cursor : 0L,
+                StringUtils.hasText(studentId) ? studentId.trim() : null,
+                StringUtils.hasText(query) ? escapeLikePrefix(query.trim()) : null,
+                StringUtils.hasText(department) ? department.trim() : null,
+                active,
+                courseId,
+                PageRequest.of(0, pageSize + 1));
+        
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+        
+        List<StudentDirectoryDTO> content = rows.stream()
+                .map(this::mapToDirectoryDTO)
+                .collect(Collectors.toList());
+        
+        return StudentDirectoryDTO.PageResponse.builder()
+                .size(pageSize)
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? rows.get(rows.size() - 1).getId() : null)
+                .content(content)
+                .build();
+    }
+    
+    private String escapeLikePrefix(String value) {
+        return value.replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_") + "%";
+    }
+    
+    private StudentDirectoryDTO mapToDirectoryDTO(StudentProfile studentProfile) {
+        User user = studentProfile.getUser();
+        return StudentDirectoryDTO.builder()
+                .id(studentProfile.getId())
+                .userId(user.getId())
+                .studentId(studentProfile.getStudentId())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .email(user.getEmail())
+                .department(studentProfile.getDepartment())
+                .active(user.isActive())
+                .enrollmentDate(studentProfile.getEnrollmentDate())
+                .build();
+    }
+    
     public StudentProfileDTO getStudentProfileById(Long id) {
         StudentProfile studentProfile = studentProfileRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Student profile not found with id: " + id));
@@ -397,17 +483,6 @@ public class StudentProfileService {
         return mapToDTO(studentProfile);
     }
     
-    private String generateStudentId() {
-        // Get the current year
-        int year = LocalDate.now().getYear() % 100; // Last two digits of the year
-        
-        // Count existing profiles to determine the next sequential number
-        long count = studentProfileRepository.count() + 1;
-        
-        // Format: STyyXXXX (e.g., ST220001)
-        return String.format("%s%02d%04d", STUDENT_ID_PREFIX, year, count);
-    }
-    
     private StudentProfileDTO mapToDTO(StudentProfile studentProfile) {
         if (studentProfile == null) {
             return null;
@@ -486,4 +561,14 @@ public class StudentProfileService {
         
         return mapToDTO(savedProfile);
     }
-} 
\ No newline at end of file
+    
+    /**
+     * An approved request: the student's profile and the email that tells them about it
+     */
+    @Getter
+    @RequiredArgsConstructor
+    private static class Approval {
+        private final StudentProfileDTO profile;
+        private final Runnable notification;
+    }
+}
@@ -6,6 +6,7 @@ import com.learning.system.entity.Course;
 import com.learning.system.entity.StudentProfile;
 import com.learning.system.entity.StudentRequest;
 import com.learning.system.entity.User;
+import com.learning.system.event.StudentRequestChangedEvent;
 import com.learning.system.exception.DuplicateResourceException;
 import com.learning.system.exception.ResourceNotFoundException;
 import com.learning.system.repository.CourseRepository;
@@ -14,6 +15,7 @@ import com.learning.system.repository.StudentRequestRepository;
 import com.learning.system.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -41,6 +43,9 @@ public class StudentRequestService {
     @Autowired
     private StudentProfileRepository studentProfileRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Value("${spring.mail.username}")
     private String adminEmail;
 
@@ -121,6 +126,7 @@ public class StudentRequestService {
                 .build();
         
         StudentRequest savedRequest = studentRequestRepository.save(studentRequest);
+        eventPublisher.publishEvent(new StudentRequestChangedEvent(savedRequest.getId(), savedRequest.getStatus()));
         
         // Format course information for emails
         String coursesInfo = getCoursesInfoText(courses);
@@ -212,6 +218,7 @@ public class StudentRequestService {
         request.setProcessedBy(admin);
         
         studentRequestRepository.save(request);
+        eventPublisher.publishEvent(new StudentRequestChangedEvent(request.getId(), status));
         
         return mapToResponseDTO(request);
     }
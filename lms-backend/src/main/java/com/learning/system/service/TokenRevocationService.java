@@ -0,0 +1,68 @@
+package com.learning.system.service;
+
+import com.learning.system.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of revoked JWTs: for each user whose tokens were ever revoked, the lowest token version
+ * still accepted. Only users with a raised User.tokenVersion are kept, so the map stays small.
+ *
+ * Revocations made on this instance apply immediately; the map is reloaded from the users table on a
+ * schedule to pick up revocations made elsewhere. Versions only grow, so entries are merged by maximum.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private final Map<Long, Integer> minTokenVersions = new ConcurrentHashMap<>();
+
+    // Deleted users have no row left to reload from; blocked here until their last tokens expire
+    private final Map<Long, Instant> deletedUsers = new ConcurrentHashMap<>();
+
+    /**
+     * Whether a token with this version was revoked for the user
+     */
+    public boolean isRevoked(Long userId, int tokenVersion) {
+        return tokenVersion < minTokenVersions.getOrDefault(userId, 0) || deletedUsers.containsKey(userId);
+    }
+
+    /**
+     * Reject the user's tokens older than minTokenVersion; the new version must already be saved
+     */
+    public void revokeBefore(Long userId, int minTokenVersion) {
+        minTokenVersions.merge(userId, minTokenVersion, Math::max);
+    }
+
+    /**
+     * Reject every token of a deleted user
+     */
+    public void revokeDeleted(Long userId) {
+        deletedUsers.put(userId, Instant.now().plus(jwtService.getExpiration()));
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${jwt.revocation-refresh-interval:PT1M}")
+    public void refresh() {
+        try {
+            for (Object[] row : userRepository.findRaisedTokenVersions()) {
+                revokeBefore((Long) row[0], (Integer) row[1]);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not reload revoked token versions", e);
+        }
+        Instant now = Instant.now();
+        deletedUsers.values().removeIf(until -> until.isBefore(now));
+    }
+}
@@ -0,0 +1,223 @@
+package com.learning.system.service;
+
+import com.learning.system.entity.UploadedFile;
+import com.learning.system.exception.UploadRejectedException;
+import com.learning.system.repository.UploadUsageRepository;
+import com.learning.system.repository.UploadedFileRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides whether an upload may start, using only its declared Content-Length.
+ *
+ * An admitted upload holds one slot of the global concurrency limit, its size in the global
+ * in-flight byte budget and one of the uploader's own slots until the request finishes.
+ * Rejections happen before the body is read, so a refused upload costs no disk or memory.
+ *
+ * Quota-counted uploads reserve their declared size in the uploader's usage in one conditional
+ * update, so concurrent uploads cannot all pass the same check. Stored files are recorded with
+ * their size, which goes back to the quota when the file is deleted.
+ */
+@Service
+public class UploadAdmissionService {
+
+    /**
+     * Request attribute under which UploadAdmissionFilter exposes the Admission to the handler
+     */
+    public static final String ADMISSION_ATTRIBUTE = "com.learning.system.service.UploadAdmissionService.ADMISSION";
+
+    @Autowired
+    private UploadUsageRepository uploadUsageRepository;
+
+    @Autowired
+    private UploadedFileRepository uploadedFileRepository;
+
+    @Value("${upload.max-size:10MB}")
+    private DataSize maxSize;
+
+    @Value("${upload.max-per-user:2}")
+    private int maxPerUser;
+
+    @Value("${upload.admission-timeout:PT2S}")
+    private Duration admissionTimeout;
+
+    @Value("${upload.quota-per-user:2GB}")
+    private DataSize quotaPerUser;
+
+    private final Semaphore concurrentUploads;
+
+    // Counted in KB so budgets of several GB fit into int permits
+    private final Semaphore inFlightKilobytes;
+
+    private final int inFlightKilobytesTotal;
+
+    private final Map<String, Integer> uploadsPerUser = new ConcurrentHashMap<>();
+
+    public UploadAdmissionService(@Value("${upload.max-concurrent:8}") int maxConcurrent,
+                                  @Value("${upload.max-in-flight-bytes:200MB}") DataSize maxInFlight) {
+        this.concurrentUploads = new Semaphore(maxConcurrent, true);
+        this.inFlightKilobytesTotal = (int) Math.min(Integer.MAX_VALUE, maxInFlight.toKilobytes());
+        this.inFlightKilobytes = new Semaphore(inFlightKilobytesTotal, true);
+    }
+
+    /**
+     * Admit an upload or throw an UploadRejectedException with the status to answer with
+     *
+     * @param uploader Key of the uploading user
+     * @param quotaUserId The user whose storage quota the upload counts against, or null when it is not counted
+     * @param contentLength The declared request size, or -1 when unknown
+     * @return A ticket that must be closed when the request finishes; closing it releases whatever part of
+     *         the reserved quota was not recorded as stored
+     */
+    public Admission admit(String uploader, Long quotaUserId, long contentLength) {
+        if (contentLength < 0) {
+            throw new UploadRejectedException(HttpStatus.LENGTH_REQUIRED, "Uploads must declare a Content-Length");
+        }
+        if (contentLength > maxSize.toBytes()) {
+            throw new UploadRejectedException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Upload exceeds the maximum size of " + maxSize.toMegabytes() + "MB");
+        }
+        if (quotaUserId != null) {
+            reserve(quotaUserId, contentLength);
+        }
+        try {
+            return acquire(uploader, quotaUserId, contentLength);
+        } catch (UploadRejectedException e) {
+            if (quotaUserId != null) {
+                release(quotaUserId, contentLength);
+            }
+            throw e;
+        }
+    }
+
+    private Admission acquire(String uploader, Long quotaUserId, long contentLength) {
+        if (uploadsPerUser.merge(uploader, 1, Integer::sum) > maxPerUser) {
+            releaseUserSlot(uploader);
+            throw new UploadRejectedException(HttpStatus.TOO_MANY_REQUESTS, "Too many uploads in progress");
+        }
+
+        int kilobytes = (int) Math.min(inFlightKilobytesTotal, Math.max(1, (contentLength + 1023) / 1024));
+        boolean slotAcquired = false;
+        boolean bytesAcquired = false;
+        try {
+            long timeout = admissionTimeout.toMillis();
+            slotAcquired = concurrentUploads.tryAcquire(timeout, TimeUnit.MILLISECONDS);
+            bytesAcquired = slotAcquired && inFlightKilobytes.tryAcquire(kilobytes, timeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!bytesAcquired) {
+            if (slotAcquired) {
+                concurrentUploads.release();
+            }
+            releaseUserSlot(uploader);
+            throw new UploadRejectedException(HttpStatus.TOO_MANY_REQUESTS, "Upload capacity is exhausted, try again shortly");
+        }
+        return new Admission(uploader, kilobytes, quotaUserId, quotaUserId != null ? contentLength : 0);
+    }
+
+    /**
+     * Count bytes against a user's quota ahead of storing them, or reject with 413 when they do not fit
+     */
+    public void reserve(Long userId, long bytes) {
+        uploadUsageRepository.createIfMissing(userId);
+        if (uploadUsageRepository.reserveBytes(userId, bytes, quotaPerUser.toBytes()) == 0) {
+            throw new UploadRejectedException(HttpStatus.PAYLOAD_TOO_LARGE, "Storage quota exceeded");
+        }
+    }
+
+    /**
+     * Give reserved or stored bytes back to a user's quota
+     */
+    public void release(Long userId, long bytes) {
+        if (bytes > 0) {
+            uploadUsageRepository.releaseBytes(userId, bytes);
+        }
+    }
+
+    /**
+     * Remember who stored a file and its size; the bytes must already be reserved
+     */
+    public void recordStored(Long userId, String storageKey, long bytes) {
+        uploadedFileRepository.save(UploadedFile.builder()
+                .storageKey(storageKey)
+                .userId(userId)
+                .sizeBytes(bytes)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * Give a deleted file's bytes back to its uploader; files stored before uploads were recorded are ignored.
+     * Runs in its own transaction, as it is called after the deleting transaction has committed.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void recordDeleted(String storageKey) {
+        uploadedFileRepository.findById(storageKey).ifPresent(file -> {
+            if (uploadedFileRepository.deleteByStorageKey(storageKey) > 0) {
+                release(file.getUserId(), file.getSizeBytes());
+            }
+        });
+    }
+
+    public long getUsedBytes(Long userId) {
+        return uploadUsageRepository.findUsedBytes(userId).orElse(0L);
+    }
+
+    private void releaseUserSlot(String uploader) {
+        uploadsPerUser.computeIfPresent(uploader, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    public class Admission implements AutoCloseable {
+        private final String uploader;
+        private final int kilobytes;
+        private final Long quotaUserId;
+        private long reservedBytes;
+        private boolean closed;
+
+        private Admission(String uploader, int kilobytes, Long quotaUserId, long reservedBytes) {
+            this.uploader = uploader;
+            this.kilobytes = kilobytes;
+            this.quotaUserId = quotaUserId;
+            this.reservedBytes = reservedBytes;
+        }
+
+        /**
+         * Record a stored file against the reservation; the part of the declared size it did not use is released
+         */
+        public void recordStored(String storageKey, long bytes) {
+            if (quotaUserId == null) {
+                return;
+            }
+            UploadAdmissionService.this.recordStored(quotaUserId, storageKey, bytes);
+            release(quotaUserId, reservedBytes - bytes);
+            reservedBytes = 0;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (quotaUserId != null) {
+                release(quotaUserId, reservedBytes);
+            }
+            inFlightKilobytes.release(kilobytes);
+            concurrentUploads.release();
+            releaseUserSlot(uploader);
+        }
+    }
+}
@@ -1,13 +1,18 @@
 package com.learning.system.service;
 
+import com.learning.system.entity.Role;
 import com.learning.system.entity.User;
+import com.learning.system.repository.RefreshTokenRepository;
 import com.learning.system.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class UserService {
@@ -17,6 +22,15 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
     public User createUser(User user) {
         if (userRepository.existsByUsername(user.getUsername())) {
             throw new RuntimeException("Username already exists");
@@ -41,13 +55,36 @@ public class UserService {
     }
 
     public User updateUser(User user) {
-        if (!userRepository.existsById(user.getId())) {
-            throw new RuntimeException("User not found");
+        User existing = userRepository.findById(user.getId())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        // Issued tokens carry the username and roles; revoke them when those, the password or the active flag change
+        boolean revokeTokens = !Objects.equals(existing.getUsername(), user.getUsername())
+                || !roleNames(existing).equals(roleNames(user))
+                || !Objects.equals(existing.getPassword(), user.getPassword())
+                || (existing.isActive() && !user.isActive());
+        user.setTokenVersion(existing.getTokenVersion() + (revokeTokens ? 1 : 0));
+
+        User saved = userRepository.save(user);
+        if (revokeTokens) {
+            tokenRevocationService.revokeBefore(saved.getId(), saved.getTokenVersion());
         }
-        return userRepository.save(user);
+        // A refresh picks up new roles and username; a new password or deactivation ends every session
+        if (!Objects.equals(existing.getPassword(), user.getPassword()) || !saved.isActive()) {
+            refreshTokenService.revokeAll(saved.getId());
+        }
+        return saved;
     }
 
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        refreshTokenRepository.deleteByUserId(id);
+        tokenRevocationService.revokeDeleted(id);
+    }
+
+    private Set<String> roleNames(User user) {
+        return user.getRoles() == null ? Set.of() : user.getRoles().stream()
+                .map(Role::getName)
+                .collect(Collectors.toSet());
     }
 } 
\ No newline at end of file
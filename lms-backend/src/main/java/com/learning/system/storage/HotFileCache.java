@@ -0,0 +1,255 @@
+package com.learning.system.storage;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps frequently downloaded files in memory in front of the storage backend.
+ *
+ * Files up to storage.hot-cache.max-file-size are read once into a direct buffer, outside the heap,
+ * and served from read-only views of it. The cache is bounded by total bytes and uses Caffeine's
+ * W-TinyLFU policy, so a burst of one-off downloads does not push out the files everyone reads.
+ * Overall statistics are published as cache.* metrics tagged cache=hot_files; hits per file are
+ * available from the hotfiles actuator endpoint.
+ */
+@Slf4j
+@Component
+public class HotFileCache {
+
+    private static final long ACCESS_RECORD_INTERVAL_MILLIS = Duration.ofHours(1).toMillis();
+
+    private final StorageBackend storageBackend;
+
+    private final Cache<String, CachedFile> cache;
+
+    private final long maxFileSize;
+
+    public HotFileCache(StorageBackend storageBackend,
+                        MeterRegistry meterRegistry,
+                        @Value("${storage.hot-cache.max-size:128MB}") DataSize maxSize,
+                        @Value("${storage.hot-cache.max-file-size:8MB}") DataSize maxFileSize) {
+        this.storageBackend = storageBackend;
+        this.maxFileSize = Math.min(maxFileSize.toBytes(), Integer.MAX_VALUE);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, CachedFile file) -> file.buffer.capacity())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "hot_files");
+    }
+
+    /**
+     * Look up a file, from memory when it is cached; small enough files are cached on the way
+     */
+    public Optional<Resource> load(String key) throws IOException {
+        CachedFile cached = cache.getIfPresent(key);
+        if (cached != null) {
+            cached.hits.increment();
+            recordAccess(cached);
+            return Optional.of(cached.resource());
+        }
+
+        Optional<Resource> loaded = storageBackend.load(key);
+        if (loaded.isEmpty()) {
+            return loaded;
+        }
+        long length = loaded.get().contentLength();
+        if (length < 0 || length > maxFileSize) {
+            return loaded;
+        }
+
+        CachedFile file = read(key, loaded.get(), (int) length);
+        if (file == null) {
+            return loaded;
+        }
+        // A concurrent miss may have cached the file first; keep a single copy
+        CachedFile winner = cache.asMap().putIfAbsent(key, file);
+        return Optional.of((winner != null ? winner : file).resource());
+    }
+
+    /**
+     * Drop a file from memory, e.g. after it was deleted or replaced
+     */
+    public void invalidate(String key) {
+        cache.invalidate(key);
+    }
+
+    /**
+     * Cache statistics and the most read cached files, for the hotfiles actuator endpoint
+     */
+    public Map<String, Object> describe(int limit) {
+        CacheStats stats = cache.stats();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("files", cache.estimatedSize());
+        summary.put("bytes", cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L));
+        summary.put("hitRate", stats.hitRate());
+        summary.put("evictions", stats.evictionCount());
+
+        List<Map<String, Object>> files = cache.asMap().entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, CachedFile> entry) -> entry.getValue().hits.sum()).reversed())
+                .limit(limit)
+                .map(entry -> {
+                    Map<String, Object> file = new LinkedHashMap<>();
+                    file.put("key", entry.getKey());
+                    file.put("size", entry.getValue().buffer.capacity());
+                    file.put("hits", entry.getValue().hits.sum());
+                    return file;
+                })
+                .collect(Collectors.toList());
+        summary.put("topFiles", files);
+        return summary;
+    }
+
+    /**
+     * Pass cache hits on to the backend, which tracks access for tiering; at most once per interval per file
+     */
+    private void recordAccess(CachedFile file) {
+        long now = System.currentTimeMillis();
+        long last = file.accessRecordedAt.get();
+        if (now - last >= ACCESS_RECORD_INTERVAL_MILLIS && file.accessRecordedAt.compareAndSet(last, now)) {
+            storageBackend.recordAccess(file.key);
+        }
+    }
+
+    /**
+     * Copy a file into a direct buffer; null when it turns out not to have the announced length
+     */
+    private CachedFile read(String key, Resource resource, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(length);
+        try (ReadableByteChannel channel = resource.readableChannel()) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    log.debug("File {} is shorter than its reported length, not caching it", key);
+                    return null;
+                }
+            }
+            if (channel.read(ByteBuffer.allocate(1)) >= 0) {
+                log.debug("File {} is longer than its reported length, not caching it", key);
+                return null;
+            }
+        }
+        buffer.flip();
+        return new CachedFile(key, buffer.asReadOnlyBuffer());
+    }
+
+    private static final class CachedFile {
+        private final String key;
+        private final ByteBuffer buffer;
+        private final LongAdder hits = new LongAdder();
+        // Loaded from the backend, which counted that read
+        private final AtomicLong accessRecordedAt = new AtomicLong(System.currentTimeMillis());
+
+        private CachedFile(String key, ByteBuffer buffer) {
+            this.key = key;
+            this.buffer = buffer;
+        }
+
+        private Resource resource() {
+            return new ByteBufferResource(key, buffer.duplicate());
+        }
+    }
+
+    /**
+     * A cached file; every stream reads its own view of the shared buffer
+     */
+    private static final class ByteBufferResource extends AbstractResource {
+        private final String key;
+        private final ByteBuffer buffer;
+
+        private ByteBufferResource(String key, ByteBuffer buffer) {
+            this.key = key;
+            this.buffer = buffer;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new ByteBufferInputStream(buffer.duplicate());
+        }
+
+        @Override
+        public long contentLength() {
+            return buffer.remaining();
+        }
+
+        @Override
+        public String getFilename() {
+            return key.substring(key.lastIndexOf('/') + 1);
+        }
+
+        @Override
+        public String getDescription() {
+            return "Cached file [" + key + "]";
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return this == other;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(target, offset, count);
+            return count;
+        }
+
+        @Override
+        public long skip(long count) {
+            int skipped = (int) Math.max(0, Math.min(count, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.learning.system.storage;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * /actuator/hotfiles: hot file cache statistics and hits per cached file
+ */
+@Component
+@Endpoint(id = "hotfiles")
+public class HotFileCacheEndpoint {
+
+    private final HotFileCache hotFileCache;
+
+    public HotFileCacheEndpoint(HotFileCache hotFileCache) {
+        this.hotFileCache = hotFileCache;
+    }
+
+    @ReadOperation
+    public Map<String, Object> hotFiles(@Nullable Integer limit) {
+        return hotFileCache.describe(limit != null ? Math.max(1, Math.min(limit, 500)) : 50);
+    }
+}
@@ -0,0 +1,38 @@
+package com.learning.system.storage;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps files in memory; for tests and throwaway environments only
+ */
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "memory")
+public class InMemoryStorageBackend implements StorageBackend {
+
+    private final Map<String, byte[]> files = new ConcurrentHashMap<>();
+
+    @Override
+    public void store(String key, InputStream content, long size) throws IOException {
+        files.put(StorageBackend.checkKey(key), content.readAllBytes());
+    }
+
+    @Override
+    public Optional<Resource> load(String key) {
+        byte[] content = files.get(StorageBackend.checkKey(key));
+        return Optional.ofNullable(content).map(ByteArrayResource::new);
+    }
+
+    @Override
+    public void delete(String key) {
+        files.remove(StorageBackend.checkKey(key));
+    }
+}
@@ -0,0 +1,206 @@
+package com.learning.system.storage;
+
+import com.learning.system.config.FileStorageConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Stores files below the upload directory, spread over 65536 hash-prefixed subdirectories
+ * (ab/cd/key) so that no directory grows to millions of entries.
+ *
+ * With storage.local.cold-dir set, files not read for storage.local.cold-after are moved to the
+ * same relative path below the cold directory (e.g. a cheaper disk); reads look in the hot tier,
+ * then the cold tier. Reads refresh a file's modification time at most once a day to track access.
+ * Files stored before sharding was introduced are still found at their flat location.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local", matchIfMissing = true)
+public class LocalStorageBackend implements StorageBackend {
+
+    private static final Pattern SHARDED = Pattern.compile("[0-9a-f]{2}/[0-9a-f]{2}/.+");
+    private static final Duration ACCESS_STAMP_INTERVAL = Duration.ofDays(1);
+
+    @Autowired
+    private FileStorageConfig fileStorageConfig;
+
+    @Value("${storage.local.cold-dir:}")
+    private String coldDir;
+
+    @Value("${storage.local.cold-after:P30D}")
+    private Duration coldAfter;
+
+    @Override
+    public void store(String key, InputStream content, long size) throws IOException {
+        Path target = shardedPath(hotRoot(), key);
+        Files.createDirectories(target.getParent());
+        // Write next to the target and rename, so readers never see a partial file
+        Path temp = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            Files.copy(content, temp);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        deleteFromColdTier(key);
+    }
+
+    @Override
+    public void store(String key, Path source) throws IOException {
+        Path target = shardedPath(hotRoot(), key);
+        Files.createDirectories(target.getParent());
+        Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        deleteFromColdTier(key);
+    }
+
+    @Override
+    public Optional<Resource> load(String key) throws IOException {
+        Path hot = shardedPath(hotRoot(), key);
+        if (Files.isRegularFile(hot)) {
+            stampAccess(hot);
+            return Optional.of(new FileSystemResource(hot));
+        }
+        if (StringUtils.hasText(coldDir)) {
+            Path cold = shardedPath(Paths.get(coldDir), key);
+            if (Files.isRegularFile(cold)) {
+                return Optional.of(new FileSystemResource(cold));
+            }
+        }
+        Path legacy = hotRoot().resolve(StorageBackend.checkKey(key));
+        if (Files.isRegularFile(legacy)) {
+            return Optional.of(new FileSystemResource(legacy));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Cached reads count as access too, so files served from memory are not moved to the cold tier
+     */
+    @Override
+    public void recordAccess(String key) {
+        Path hot = shardedPath(hotRoot(), key);
+        if (Files.isRegularFile(hot)) {
+            stampAccess(hot);
+        }
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(shardedPath(hotRoot(), key));
+        deleteFromColdTier(key);
+        Files.deleteIfExists(hotRoot().resolve(StorageBackend.checkKey(key)));
+    }
+
+    /**
+     * Move files that were not read for the cold-after period to the cold tier
+     */
+    @Scheduled(initialDelayString = "${storage.local.tiering-interval:PT6H}",
+            fixedDelayString = "${storage.local.tiering-interval:PT6H}")
+    public void moveIdleFilesToColdTier() {
+        if (!StringUtils.hasText(coldDir)) {
+            return;
+        }
+        Path hotRoot = hotRoot();
+        Path coldRoot = Paths.get(coldDir);
+        FileTime cutoff = FileTime.from(Instant.now().minus(coldAfter));
+        List<Path> idle;
+        try (Stream<Path> files = Files.walk(hotRoot)) {
+            idle = files.filter(Files::isRegularFile)
+                    .filter(file -> SHARDED.matcher(relativeKey(hotRoot, file)).matches())
+                    .filter(file -> isOlderThan(file, cutoff))
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            log.warn("Could not scan {} for idle files", hotRoot, e);
+            return;
+        }
+
+        int moved = 0;
+        for (Path file : idle) {
+            try {
+                Path target = coldRoot.resolve(hotRoot.relativize(file));
+                Files.createDirectories(target.getParent());
+                Files.move(file, target, StandardCopyOption.REPLACE_EXISTING);
+                moved++;
+            } catch (IOException e) {
+                log.warn("Could not move {} to the cold tier", file, e);
+            }
+        }
+        if (moved > 0) {
+            log.info("Moved {} idle files to the cold tier", moved);
+        }
+    }
+
+    private Path hotRoot() {
+        return Paths.get(fileStorageConfig.getUploadDir());
+    }
+
+    private Path shardedPath(Path root, String key) {
+        String hash = sha256Hex(StorageBackend.checkKey(key));
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(key);
+    }
+
+    private void deleteFromColdTier(String key) throws IOException {
+        if (StringUtils.hasText(coldDir)) {
+            Files.deleteIfExists(shardedPath(Paths.get(coldDir), key));
+        }
+    }
+
+    private void stampAccess(Path file) {
+        try {
+            FileTime now = FileTime.from(Instant.now());
+            if (Files.getLastModifiedTime(file).toInstant().isBefore(now.toInstant().minus(ACCESS_STAMP_INTERVAL))) {
+                Files.setLastModifiedTime(file, now);
+            }
+        } catch (IOException e) {
+            log.debug("Could not record access to {}", file, e);
+        }
+    }
+
+    private boolean isOlderThan(Path file, FileTime cutoff) {
+        try {
+            return Files.getLastModifiedTime(file).compareTo(cutoff) < 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private String relativeKey(Path root, Path file) {
+        return root.relativize(file).toString().replace('\\', '/');
+    }
+
+    private static String sha256Hex(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
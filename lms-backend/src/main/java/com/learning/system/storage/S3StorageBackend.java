@@ -0,0 +1,395 @@
+package com.learning.system.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Stores files in an S3-compatible bucket (AWS S3, MinIO, ...) through its REST API,
+ * signing requests with AWS Signature Version 4. Bodies are streamed and sent as UNSIGNED-PAYLOAD.
+ *
+ * S3 refuses single PUTs over 5 GB, so files above storage.s3.multipart-threshold are uploaded
+ * with a multipart upload, one storage.s3.part-size part at a time.
+ *
+ * Hot/cold tiering is left to the bucket's own lifecycle rules.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "s3")
+public class S3StorageBackend implements StorageBackend {
+
+    private static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+    private static final int MAX_PARTS = 10000;
+    private static final Pattern UPLOAD_ID = Pattern.compile("<UploadId>([^<]+)</UploadId>");
+    private static final DateTimeFormatter AMZ_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    @Value("${storage.s3.endpoint}")
+    private String endpoint;
+
+    @Value("${storage.s3.region:us-east-1}")
+    private String region;
+
+    @Value("${storage.s3.bucket}")
+    private String bucket;
+
+    @Value("${storage.s3.access-key}")
+    private String accessKey;
+
+    @Value("${storage.s3.secret-key}")
+    private String secretKey;
+
+    // MinIO and most self-hosted stores need path-style URLs (endpoint/bucket/key)
+    @Value("${storage.s3.path-style:true}")
+    private boolean pathStyle;
+
+    @Value("${storage.s3.multipart-threshold:64MB}")
+    private DataSize multipartThreshold;
+
+    // S3 needs at least 5 MB for every part but the last; raised for files that would need over 10000 parts
+    @Value("${storage.s3.part-size:64MB}")
+    private DataSize partSize;
+
+    @Override
+    public void store(String key, InputStream content, long size) throws IOException {
+        if (size > multipartThreshold.toBytes()) {
+            storeInParts(key, content, size);
+            return;
+        }
+        HttpResponse<String> response = send(signed(HttpRequest.newBuilder(objectUri(key, null))
+                .PUT(body(content, size)), "PUT"), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("S3 PUT " + key + " failed with " + response.statusCode() + ": " + response.body());
+        }
+    }
+
+    /**
+     * Multipart upload; the upload is aborted when a part fails, so no orphaned parts are billed
+     */
+    private void storeInParts(String key, InputStream content, long size) throws IOException {
+        HttpResponse<String> created = send(signed(HttpRequest.newBuilder(objectUri(key, "uploads"))
+                .POST(HttpRequest.BodyPublishers.noBody()), "POST"), HttpResponse.BodyHandlers.ofString());
+        Matcher uploadIdMatcher = UPLOAD_ID.matcher(created.body());
+        if (created.statusCode() / 100 != 2 || !uploadIdMatcher.find()) {
+            throw new IOException("S3 multipart upload of " + key + " could not be started: "
+                    + created.statusCode() + ": " + created.body());
+        }
+        String uploadId = encodeQueryValue(uploadIdMatcher.group(1));
+
+        long partLength = Math.max(partSize.toBytes(), (size + MAX_PARTS - 1) / MAX_PARTS);
+        StringBuilder completion = new StringBuilder("<CompleteMultipartUpload>");
+        try {
+            int partNumber = 1;
+            for (long offset = 0; offset < size; offset += partLength, partNumber++) {
+                long length = Math.min(partLength, size - offset);
+                HttpResponse<String> part = send(signed(HttpRequest.newBuilder(
+                                objectUri(key, "partNumber=" + partNumber + "&uploadId=" + uploadId))
+                        .PUT(body(new PartInputStream(content, length), length)), "PUT"), HttpResponse.BodyHandlers.ofString());
+                String etag = part.headers().firstValue("ETag").orElse(null);
+                if (part.statusCode() / 100 != 2 || etag == null) {
+                    throw new IOException("S3 upload of part " + partNumber + " of " + key + " failed with "
+                            + part.statusCode() + ": " + part.body());
+                }
+                completion.append("<Part><PartNumber>").append(partNumber).append("</PartNumber><ETag>")
+                        .append(etag.replace("&", "&amp;").replace("<", "&lt;")).append("</ETag></Part>");
+            }
+            completion.append("</CompleteMultipartUpload>");
+
+            HttpResponse<String> completed = send(signed(HttpRequest.newBuilder(objectUri(key, "uploadId=" + uploadId))
+                    .POST(HttpRequest.BodyPublishers.ofString(completion.toString())), "POST"),
+                    HttpResponse.BodyHandlers.ofString());
+            // S3 can report a failed completion with a 200 and an Error document
+            if (completed.statusCode() / 100 != 2 || completed.body().contains("<Error>")) {
+                throw new IOException("S3 multipart upload of " + key + " could not be completed: "
+                        + completed.statusCode() + ": " + completed.body());
+            }
+        } catch (IOException | RuntimeException e) {
+            abort(key, uploadId, e);
+            throw e;
+        }
+    }
+
+    private void abort(String key, String uploadId, Exception cause) {
+        try {
+            send(signed(HttpRequest.newBuilder(objectUri(key, "uploadId=" + uploadId)).DELETE(), "DELETE"),
+                    HttpResponse.BodyHandlers.discarding());
+        } catch (IOException | RuntimeException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    @Override
+    public Optional<Resource> load(String key) throws IOException {
+        HttpResponse<Void> head = send(signed(HttpRequest.newBuilder(objectUri(key, null))
+                .method("HEAD", HttpRequest.BodyPublishers.noBody()), "HEAD"), HttpResponse.BodyHandlers.discarding());
+        if (head.statusCode() == 404) {
+            return Optional.empty();
+        }
+        if (head.statusCode() / 100 != 2) {
+            throw new IOException("S3 HEAD " + key + " failed with " + head.statusCode());
+        }
+        long length = head.headers().firstValueAsLong("Content-Length").orElse(-1);
+        return Optional.of(new S3ObjectResource(key, length));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        HttpResponse<String> response = send(signed(HttpRequest.newBuilder(objectUri(key, null)).DELETE(), "DELETE"),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2 && response.statusCode() != 404) {
+            throw new IOException("S3 DELETE " + key + " failed with " + response.statusCode() + ": " + response.body());
+        }
+    }
+
+    private InputStream get(String key) throws IOException {
+        HttpResponse<InputStream> response = send(signed(HttpRequest.newBuilder(objectUri(key, null)).GET(), "GET"),
+                HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() == 404) {
+            response.body().close();
+            throw new FileNotFoundException("No S3 object " + key);
+        }
+        if (response.statusCode() / 100 != 2) {
+            response.body().close();
+            throw new IOException("S3 GET " + key + " failed with " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException {
+        try {
+            return httpClient.send(request, handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while talking to S3", e);
+        }
+    }
+
+    private static HttpRequest.BodyPublisher body(InputStream content, long length) {
+        return HttpRequest.BodyPublishers.fromPublisher(HttpRequest.BodyPublishers.ofInputStream(() -> content), length);
+    }
+
+    /**
+     * @param query An already encoded query string, or null
+     */
+    private URI objectUri(String key, String query) {
+        String base = endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint;
+        String path = encodePath(StorageBackend.checkKey(key)) + (query != null ? "?" + query : "");
+        if (pathStyle) {
+            return URI.create(base + "/" + bucket + "/" + path);
+        }
+        URI endpointUri = URI.create(base);
+        return URI.create(endpointUri.getScheme() + "://" + bucket + "." + endpointUri.getRawAuthority() + "/" + path);
+    }
+
+    private HttpRequest signed(HttpRequest.Builder builder, String method) {
+        URI uri = builder.copy().build().uri();
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        Map<String, String> headers = new TreeMap<>();
+        headers.put("x-amz-content-sha256", UNSIGNED_PAYLOAD);
+        headers.put("x-amz-date", AMZ_DATE.format(now));
+        String authorization = authorization(method, uri, headers, UNSIGNED_PAYLOAD, now);
+        headers.forEach(builder::header);
+        return builder.header("Authorization", authorization).build();
+    }
+
+    /**
+     * The SigV4 Authorization header for a request whose query parameters are already URI-encoded.
+     * Package-private for checking against the published AWS examples.
+     *
+     * @param headers Headers to sign besides host, keyed by lower-case name
+     */
+    String authorization(String method, URI uri, Map<String, String> headers, String payloadHash, ZonedDateTime time) {
+        Map<String, String> signedHeaders = new TreeMap<>(headers);
+        signedHeaders.put("host", uri.getPort() == -1 ? uri.getHost() : uri.getHost() + ":" + uri.getPort());
+
+        StringBuilder canonicalHeaders = new StringBuilder();
+        signedHeaders.forEach((name, value) -> canonicalHeaders.append(name).append(':').append(value.trim()).append('\n'));
+        String signedHeaderNames = String.join(";", signedHeaders.keySet());
+
+        String canonicalRequest = method + "\n"
+                + uri.getRawPath() + "\n"
+                + canonicalQuery(uri.getRawQuery()) + "\n"
+                + canonicalHeaders + "\n"
+                + signedHeaderNames + "\n"
+                + payloadHash;
+
+        String date = time.format(DateTimeFormatter.BASIC_ISO_DATE).substring(0, 8);
+        String scope = date + "/" + region + "/s3/aws4_request";
+        String stringToSign = "AWS4-HMAC-SHA256\n"
+                + AMZ_DATE.format(time) + "\n"
+                + scope + "\n"
+                + HexFormat.of().formatHex(sha256(canonicalRequest));
+
+        byte[] signingKey = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), date);
+        signingKey = hmac(signingKey, region);
+        signingKey = hmac(signingKey, "s3");
+        signingKey = hmac(signingKey, "aws4_request");
+        String signature = HexFormat.of().formatHex(hmac(signingKey, stringToSign));
+
+        return "AWS4-HMAC-SHA256 Credential=" + accessKey + "/" + scope
+                + ",SignedHeaders=" + signedHeaderNames
+                + ",Signature=" + signature;
+    }
+
+    /**
+     * Query parameters sorted by name, each as name=value (value empty for a bare name)
+     */
+    private static String canonicalQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return "";
+        }
+        return Arrays.stream(rawQuery.split("&"))
+                .map(param -> param.contains("=") ? param.split("=", 2) : new String[]{param, ""})
+                .sorted(Comparator.<String[], String>comparing(param -> param[0]).thenComparing(param -> param[1]))
+                .map(param -> param[0] + "=" + param[1])
+                .collect(Collectors.joining("&"));
+    }
+
+    /**
+     * URI-encode each segment of an object key as S3 expects (RFC 3986 unreserved characters stay)
+     */
+    private static String encodePath(String key) {
+        return encode(key, true);
+    }
+
+    private static String encodeQueryValue(String value) {
+        return encode(value, false);
+    }
+
+    private static String encode(String value, boolean keepSlash) {
+        StringBuilder encoded = new StringBuilder();
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xff);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == '~' || (keepSlash && c == '/')) {
+                encoded.append(c);
+            } else {
+                encoded.append('%').append(String.format("%02X", b & 0xff));
+            }
+        }
+        return encoded.toString();
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] hmac(byte[] key, String value) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(value.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The next length bytes of a stream shared by all parts; closing a part leaves the stream open
+     */
+    private static class PartInputStream extends FilterInputStream {
+        private long remaining;
+
+        private PartInputStream(InputStream content, long length) {
+            super(content);
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = super.read(buffer, offset, (int) Math.min(length, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * An object opened lazily with a fresh GET on each read
+     */
+    private class S3ObjectResource extends AbstractResource {
+        private final String key;
+        private final long length;
+
+        private S3ObjectResource(String key, long length) {
+            this.key = key;
+            this.length = length;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return get(key);
+        }
+
+        @Override
+        public long contentLength() {
+            return length;
+        }
+
+        @Override
+        public String getFilename() {
+            return key.substring(key.lastIndexOf('/') + 1);
+        }
+
+        @Override
+        public String getDescription() {
+            return "S3 object [" + bucket + "/" + key + "]";
+        }
+    }
+}
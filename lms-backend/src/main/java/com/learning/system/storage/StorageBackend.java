@@ -0,0 +1,65 @@
+package com.learning.system.storage;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Where uploaded files are kept. Files are addressed by key, the path below /uploads in their URL;
+ * keys may contain '/' but never empty or relative segments.
+ *
+ * The implementation is chosen with storage.backend: local (default), memory or s3.
+ */
+public interface StorageBackend {
+
+    /**
+     * Store a file under a key, replacing any existing file with that key
+     */
+    void store(String key, InputStream content, long size) throws IOException;
+
+    /**
+     * Store a file that already exists on local disk; the source file is consumed
+     */
+    default void store(String key, Path source) throws IOException {
+        try (InputStream content = Files.newInputStream(source)) {
+            store(key, content, Files.size(source));
+        }
+        Files.delete(source);
+    }
+
+    /**
+     * Look up a file for reading; empty when no file has that key
+     */
+    Optional<Resource> load(String key) throws IOException;
+
+    /**
+     * Delete a file; deleting a missing key is not an error
+     */
+    void delete(String key) throws IOException;
+
+    /**
+     * Note a read that was served without calling load, e.g. from the hot file cache
+     */
+    default void recordAccess(String key) {
+    }
+
+    /**
+     * Reject keys that could escape the storage root or are otherwise malformed
+     */
+    static String checkKey(String key) {
+        if (key == null || key.isEmpty() || key.startsWith("/") || key.endsWith("/")
+                || key.contains("\\") || key.indexOf('\0') >= 0) {
+            throw new IllegalArgumentException("Invalid storage key");
+        }
+        for (String segment : key.split("/")) {
+            if (segment.isEmpty() || segment.equals(".") || segment.equals("..")) {
+                throw new IllegalArgumentException("Invalid storage key");
+            }
+        }
+        return key;
+    }
+}
@@ -0,0 +1,328 @@
+-- Schema as created by spring.jpa.hibernate.ddl-auto=update before the switch to migrations.
+-- Databases that already hold this schema are baselined at version 1 and skip this script.
+
+create table chapter_completions (
+    chapter_id bigint not null,
+    user_id bigint not null
+) engine=InnoDB;
+
+create table chapter_progress (
+    id bigint not null auto_increment,
+    completed bit not null,
+    last_updated datetime(6) not null,
+    progress_percentage integer not null,
+    time_spent_seconds integer not null,
+    chapter_id bigint not null,
+    user_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table chapters (
+    id bigint not null auto_increment,
+    content varchar(1000),
+    description varchar(1000) not null,
+    is_free bit not null,
+    is_video_content bit not null,
+    order_index integer not null,
+    title varchar(255) not null,
+    video_url varchar(1000),
+    youtube_link varchar(1000),
+    document_id bigint,
+    module_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table courses (
+    id bigint not null auto_increment,
+    active bit not null,
+    description varchar(1000) not null,
+    duration_in_weeks integer,
+    fee decimal(38,2) not null,
+    free_chapters integer not null,
+    number_of_modules integer not null,
+    is_published bit not null,
+    thumbnail_url varchar(255),
+    title varchar(255) not null,
+    total_chapters integer not null,
+    created_by bigint,
+    instructor_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table documents (
+    id bigint not null auto_increment,
+    name varchar(255) not null,
+    size bigint,
+    type varchar(255),
+    url varchar(255) not null,
+    chapter_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table module_completions (
+    module_id bigint not null,
+    user_id bigint not null
+) engine=InnoDB;
+
+create table modules (
+    id bigint not null auto_increment,
+    is_completed bit not null,
+    description varchar(1000) not null,
+    order_index integer not null,
+    title varchar(255) not null,
+    course_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table permissions (
+    id bigint not null auto_increment,
+    description varchar(255),
+    name varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table role_permissions (
+    role_id bigint not null,
+    permission_id bigint not null,
+    primary key (role_id, permission_id)
+) engine=InnoDB;
+
+create table roles (
+    id bigint not null auto_increment,
+    name varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table student_course_request_courses (
+    request_id bigint not null,
+    course_id bigint not null
+) engine=InnoDB;
+
+create table student_request_courses (
+    request_id bigint not null,
+    course_id bigint not null
+) engine=InnoDB;
+
+create table student_course_enrollment (
+    id bigint not null auto_increment,
+    enrollment_date date,
+    status enum ('ACTIVE','COMPLETED','DROPPED'),
+    course_id bigint,
+    student_profile_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table student_course_request (
+    id bigint not null auto_increment,
+    processed_date datetime(6),
+    reason varchar(255),
+    request_date datetime(6),
+    status enum ('APPROVED','PENDING','REJECTED'),
+    processed_by_id bigint,
+    student_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table student_profile (
+    id bigint not null auto_increment,
+    address varchar(255),
+    bio varchar(255),
+    date_of_birth date,
+    department varchar(255),
+    emergency_contact_name varchar(255),
+    emergency_contact_phone varchar(255),
+    emergency_contact_relation varchar(255),
+    enrollment_date date,
+    gender varchar(255),
+    knowledge varchar(255),
+    profile_image varchar(255),
+    student_id varchar(255),
+    whats_app_number varchar(255),
+    user_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table student_request (
+    id bigint not null auto_increment,
+    address varchar(255),
+    bio varchar(255),
+    date_of_birth date,
+    department varchar(255),
+    email varchar(255),
+    full_name varchar(255),
+    gender varchar(255),
+    knowledge varchar(255),
+    phone_number varchar(255),
+    processed_date datetime(6),
+    request_date datetime(6),
+    status enum ('APPROVED','PENDING','REJECTED'),
+    whats_app_number varchar(255),
+    processed_by_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table user_roles (
+    user_id bigint not null,
+    role_id bigint not null,
+    primary key (user_id, role_id)
+) engine=InnoDB;
+
+create table users (
+    id bigint not null auto_increment,
+    active bit not null,
+    contact_number varchar(255) not null,
+    email varchar(255) not null,
+    first_name varchar(255) not null,
+    last_name varchar(255),
+    password varchar(255) not null,
+    username varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table chapters
+   add constraint UKmf4g3c09upug8q6i0laf13487 unique (document_id);
+
+alter table permissions
+   add constraint UKpnvtwliis6p05pn6i3ndjrqt2 unique (name);
+
+alter table roles
+   add constraint UKofx66keruapi6vyqpv6f2or37 unique (name);
+
+alter table student_profile
+   add constraint UK99mm2qc8gq78mojsjmdhqqrtd unique (user_id);
+
+alter table users
+   add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email);
+
+alter table users
+   add constraint UKr43af9ap4edm43mmtq01oddj6 unique (username);
+
+alter table chapter_completions
+   add constraint FKth6mauhtu2p81c3s8dqvdaruf
+   foreign key (user_id)
+   references users (id);
+
+alter table chapter_completions
+   add constraint FKkc7wc8w4vd03vtvncfyrul4js
+   foreign key (chapter_id)
+   references chapters (id);
+
+alter table chapter_progress
+   add constraint FK3533ogmd39xygnrub4e96khbs
+   foreign key (chapter_id)
+   references chapters (id);
+
+alter table chapter_progress
+   add constraint FKv4lcvj8xomcv3tmeylctrldg
+   foreign key (user_id)
+   references users (id);
+
+alter table chapters
+   add constraint FKdx3serbvw2q78ntshywmdleqb
+   foreign key (document_id)
+   references documents (id);
+
+alter table chapters
+   add constraint FK44e0ctk7iiss9j8dm6tf5v1ci
+   foreign key (module_id)
+   references modules (id);
+
+alter table courses
+   add constraint FK4u40nf46n1nqa5h38sn5g17ac
+   foreign key (created_by)
+   references users (id);
+
+alter table courses
+   add constraint FKcyfum8goa6q5u13uog0563gyp
+   foreign key (instructor_id)
+   references users (id);
+
+alter table documents
+   add constraint FKgc3cd983254klkynfj3xkufe3
+   foreign key (chapter_id)
+   references chapters (id);
+
+alter table module_completions
+   add constraint FK97xw2ir22cxa5xkqa4a8sd7vn
+   foreign key (user_id)
+   references users (id);
+
+alter table module_completions
+   add constraint FKpa6bk0dl7p1897h42qkhtntxa
+   foreign key (module_id)
+   references modules (id);
+
+alter table modules
+   add constraint FK8qnnp812q1jd38fx7mxrhpw9
+   foreign key (course_id)
+   references courses (id);
+
+alter table role_permissions
+   add constraint FKegdk29eiy7mdtefy5c7eirr6e
+   foreign key (permission_id)
+   references permissions (id);
+
+alter table role_permissions
+   add constraint FKn5fotdgk8d1xvo8nav9uv3muc
+   foreign key (role_id)
+   references roles (id);
+
+alter table student_course_request_courses
+   add constraint FKh4br7nk4gj6b66n5939sko2hg
+   foreign key (course_id)
+   references courses (id);
+
+alter table student_course_request_courses
+   add constraint FK29fjo4kwkl0ut9ergt92ro9xk
+   foreign key (request_id)
+   references student_course_request (id);
+
+alter table student_request_courses
+   add constraint FKdamu8iunn53b8mfrct0e30jnp
+   foreign key (course_id)
+   references courses (id);
+
+alter table student_request_courses
+   add constraint FK76v7i7b96e97bvbsudvaduwjf
+   foreign key (request_id)
+   references student_request (id);
+
+alter table student_course_enrollment
+   add constraint FKdxags150oaab7cfvi4ftdwt8j
+   foreign key (course_id)
+   references courses (id);
+
+alter table student_course_enrollment
+   add constraint FKn5e0qqw19kqrw59ermwy7hoto
+   foreign key (student_profile_id)
+   references student_profile (id);
+
+alter table student_course_request
+   add constraint FKn5bs0xo3115nptgka355xsarg
+   foreign key (processed_by_id)
+   references users (id);
+
+alter table student_course_request
+   add constraint FKtoweg3busuys0e109r8jx7cw7
+   foreign key (student_id)
+   references users (id);
+
+alter table student_profile
+   add constraint FKh6555c9k0gv0yddac6llslk3t
+   foreign key (user_id)
+   references users (id);
+
+alter table student_request
+   add constraint FKr8jukfk94ha8qdlyl0b3hdfyi
+   foreign key (processed_by_id)
+   references users (id);
+
+alter table user_roles
+   add constraint FKh8ciramu9cc9q3qcqiv4ue8a6
+   foreign key (role_id)
+   references roles (id);
+
+alter table user_roles
+   add constraint FKhfh9dx7w3ubf1co1vdev94g3f
+   foreign key (user_id)
+   references users (id);
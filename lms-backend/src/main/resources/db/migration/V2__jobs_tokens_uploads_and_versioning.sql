@@ -0,0 +1,147 @@
+-- Schema changes made on top of the baseline before the switch to migrations: bulk approval jobs,
+-- student id sequences, refresh tokens, chunked uploads and upload quotas, optimistic locking
+-- versions, course and user counters, and the indexes for the directory, catalog and sync queries.
+
+-- Bulk approval jobs
+create table bulk_approval_jobs (
+    id bigint not null auto_increment,
+    created_at datetime(6) not null,
+    finished_at datetime(6),
+    started_at datetime(6),
+    status enum ('COMPLETED','QUEUED','RUNNING') not null,
+    total_items integer not null,
+    created_by bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table bulk_approval_job_items (
+    id bigint not null auto_increment,
+    error_message varchar(1000),
+    processed_at datetime(6),
+    request_id bigint not null,
+    status enum ('APPROVED','FAILED','PENDING','SKIPPED') not null,
+    job_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_bulk_approval_jobs_status
+   on bulk_approval_jobs (status);
+
+create index idx_bulk_approval_items_job_status
+   on bulk_approval_job_items (job_id, status);
+
+alter table bulk_approval_job_items
+   add constraint FKoxgm30781h2c8a2fsgwp8ui78
+   foreign key (job_id)
+   references bulk_approval_jobs (id);
+
+alter table bulk_approval_jobs
+   add constraint FKlwujqykuwrooh3uu3d62h5fq4
+   foreign key (created_by)
+   references users (id);
+
+-- Student id blocks
+create table id_sequences (
+    name varchar(50) not null,
+    next_value bigint not null,
+    primary key (name)
+) engine=InnoDB;
+
+-- Refresh tokens
+create table refresh_tokens (
+    id bigint not null auto_increment,
+    created_at datetime(6) not null,
+    expires_at datetime(6) not null,
+    family_id varchar(36) not null,
+    revoked bit not null,
+    rotated_at datetime(6),
+    token_hash varchar(64) not null,
+    user_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_refresh_tokens_family
+   on refresh_tokens (family_id);
+
+create index idx_refresh_tokens_user
+   on refresh_tokens (user_id);
+
+create index idx_refresh_tokens_expires
+   on refresh_tokens (expires_at);
+
+alter table refresh_tokens
+   add constraint idx_refresh_tokens_hash unique (token_hash);
+
+alter table users
+   add column token_version integer default 0 not null;
+
+-- Chunked uploads and upload quotas
+create table upload_sessions (
+    id varchar(36) not null,
+    content_type varchar(255),
+    created_at datetime(6) not null,
+    file_name varchar(255) not null,
+    received_bytes bigint not null,
+    sha256 varchar(64),
+    status enum ('COMPLETED','COMPLETING','IN_PROGRESS') not null,
+    total_size bigint not null,
+    updated_at datetime(6) not null,
+    url varchar(1000),
+    user_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_upload_sessions_status_updated
+   on upload_sessions (status, updated_at);
+
+create table upload_usage (
+    user_id bigint not null,
+    used_bytes bigint not null,
+    primary key (user_id)
+) engine=InnoDB;
+
+alter table student_profile
+   add column profile_image_thumbnail varchar(255);
+
+-- Optimistic locking
+alter table courses
+   add column version bigint default 0 not null;
+
+alter table modules
+   add column version bigint default 0 not null;
+
+alter table chapters
+   add column version bigint default 0 not null;
+
+alter table chapter_progress
+   add column version bigint default 0 not null;
+
+-- Course counters; the others already exist and are kept up to date by CourseCounterService
+alter table courses
+   add column video_chapters integer default 0 not null;
+
+update courses c
+set c.video_chapters = (select count(*) from chapters ch join modules m on m.id = ch.module_id
+                        where m.course_id = c.id and ch.is_video_content = true);
+
+-- Query indexes
+create index idx_courses_published_id
+   on courses (is_published, id);
+
+create index idx_chapter_progress_user_changes
+   on chapter_progress (user_id, last_updated, id);
+
+create index idx_enrollment_course_student
+   on student_course_enrollment (course_id, student_profile_id);
+
+create index idx_student_profile_student_id
+   on student_profile (student_id);
+
+create index idx_student_profile_department_id
+   on student_profile (department, id);
+
+create index idx_users_first_name
+   on users (first_name);
+
+create index idx_users_last_name
+   on users (last_name);
@@ -0,0 +1,46 @@
+-- Roles and permissions, formerly created by DataInitializer on every startup.
+-- Names are unique, so rows that already exist are left untouched and the script is safe
+-- to run against databases seeded by the old initializer.
+
+insert ignore into permissions (name, description) values
+    ('COURSE_CREATE', 'Create new courses'),
+    ('COURSE_READ', 'View courses'),
+    ('COURSE_UPDATE', 'Update courses'),
+    ('COURSE_DELETE', 'Delete courses'),
+    ('MODULE_CREATE', 'Create modules'),
+    ('MODULE_READ', 'View modules'),
+    ('MODULE_UPDATE', 'Update modules'),
+    ('MODULE_DELETE', 'Delete modules'),
+    ('CHAPTER_CREATE', 'Create chapters'),
+    ('CHAPTER_READ', 'View chapters'),
+    ('CHAPTER_UPDATE', 'Update chapters'),
+    ('CHAPTER_DELETE', 'Delete chapters'),
+    ('USER_MANAGE', 'Manage users');
+
+insert ignore into roles (name) values
+    ('ROLE_ADMIN'),
+    ('ROLE_INSTRUCTOR'),
+    ('ROLE_STUDENT');
+
+-- Admins hold every permission
+insert ignore into role_permissions (role_id, permission_id)
+select r.id, p.id
+from roles r
+cross join permissions p
+where r.name = 'ROLE_ADMIN';
+
+-- Instructors manage course content but not users
+insert ignore into role_permissions (role_id, permission_id)
+select r.id, p.id
+from roles r
+cross join permissions p
+where r.name = 'ROLE_INSTRUCTOR'
+  and p.name <> 'USER_MANAGE';
+
+-- Students can only read course content
+insert ignore into role_permissions (role_id, permission_id)
+select r.id, p.id
+from roles r
+cross join permissions p
+where r.name = 'ROLE_STUDENT'
+  and p.name in ('COURSE_READ', 'MODULE_READ', 'CHAPTER_READ');
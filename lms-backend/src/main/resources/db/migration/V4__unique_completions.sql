@@ -0,0 +1,28 @@
+-- One completion entry per user and chapter or module, so concurrent roll-ups can insert with
+-- INSERT IGNORE instead of checking first. Duplicates left by the old check-then-insert are removed.
+
+create table chapter_completions_distinct as
+    select distinct chapter_id, user_id from chapter_completions;
+
+delete from chapter_completions;
+
+insert into chapter_completions (chapter_id, user_id)
+    select chapter_id, user_id from chapter_completions_distinct;
+
+drop table chapter_completions_distinct;
+
+alter table chapter_completions
+   add constraint uk_chapter_completions_user_chapter unique (user_id, chapter_id);
+
+create table module_completions_distinct as
+    select distinct module_id, user_id from module_completions;
+
+delete from module_completions;
+
+insert into module_completions (module_id, user_id)
+    select module_id, user_id from module_completions_distinct;
+
+drop table module_completions_distinct;
+
+alter table module_completions
+   add constraint uk_module_completions_user_module unique (user_id, module_id);
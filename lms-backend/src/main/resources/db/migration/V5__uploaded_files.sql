@@ -0,0 +1,9 @@
+-- Owner and size of every file stored through the upload endpoints, so deleting a file gives its
+-- bytes back to the owner's quota. Files stored before this table existed stay counted.
+create table uploaded_files (
+    storage_key varchar(500) not null,
+    created_at datetime(6) not null,
+    size_bytes bigint not null,
+    user_id bigint not null,
+    primary key (storage_key)
+) engine=InnoDB;
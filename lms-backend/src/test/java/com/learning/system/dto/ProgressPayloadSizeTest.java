@@ -0,0 +1,124 @@
+package com.learning.system.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Payload sizes of the full and compact progress views, raw and gzipped, for a large overall progress
+ * response: 10 courses of 5 modules with 40 chapters each, with 1,000-character descriptions and content.
+ */
+class ProgressPayloadSizeTest {
+
+    private static final int COURSES = 10;
+    private static final int MODULES = 5;
+    private static final int CHAPTERS = 40;
+    private static final int TEXT_LENGTH = 1000;
+
+    // Configured like the application's mapper, which leaves fields without a view out of view output
+    private static final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private static byte[] full;
+    private static byte[] compact;
+
+    @BeforeAll
+    static void serialize() throws IOException {
+        StudentOverallProgressDTO payload = largeOverallProgress();
+        full = objectMapper.writeValueAsBytes(payload);
+        compact = objectMapper.writerWithView(ProgressViews.Compact.class).writeValueAsBytes(payload);
+    }
+
+    @Test
+    void compactViewIsAFractionOfTheFullView() {
+        assertTrue(compact.length * 10 < full.length,
+                "compact " + compact.length + " bytes vs full " + full.length + " bytes");
+    }
+
+    @Test
+    void gzipShrinksBothViews() throws IOException {
+        int fullGzipped = gzip(full).length;
+        int compactGzipped = gzip(compact).length;
+
+        assertTrue(fullGzipped * 20 < full.length, "full " + full.length + " bytes, gzipped " + fullGzipped);
+        assertTrue(compactGzipped * 5 < compact.length, "compact " + compact.length + " bytes, gzipped " + compactGzipped);
+        assertTrue(compactGzipped < fullGzipped, "compact gzipped " + compactGzipped + " vs full gzipped " + fullGzipped);
+    }
+
+    @Test
+    void compactViewKeepsProgressAndDropsText() throws IOException {
+        String json = new String(compact, StandardCharsets.UTF_8);
+
+        assertTrue(json.contains("\"progressPercentage\""));
+        assertTrue(json.contains("\"orderIndex\""));
+        assertFalse(json.contains("\"description\""));
+        assertFalse(json.contains("\"content\""));
+        assertFalse(json.contains("\"title\""));
+        assertEquals(COURSES, objectMapper.readTree(compact).get("courseProgress").size());
+    }
+
+    private static StudentOverallProgressDTO largeOverallProgress() {
+        String text = "x".repeat(TEXT_LENGTH);
+        List<ProgressDTO> courses = new ArrayList<>();
+        long nextId = 1;
+        for (int c = 0; c < COURSES; c++) {
+            List<ProgressDTO.ProgressItemDTO> modules = new ArrayList<>();
+            for (int m = 0; m < MODULES; m++) {
+                List<ProgressDTO.ChapterProgressDTO> chapters = new ArrayList<>();
+                for (int ch = 0; ch < CHAPTERS; ch++) {
+                    chapters.add(ProgressDTO.ChapterProgressDTO.builder()
+                            .id(nextId++)
+                            .title("Chapter " + ch)
+                            .description(text)
+                            .content(text)
+                            .orderIndex(ch)
+                            .progressPercentage(ch % 2 == 0 ? 100 : 40)
+                            .completed(ch % 2 == 0)
+                            .isVideoContent(true)
+                            .youtubeLink("https://www.youtube.com/watch?v=" + ch)
+                            .documents(List.of())
+                            .build());
+                }
+                modules.add(ProgressDTO.ProgressItemDTO.builder()
+                        .id(nextId++)
+                        .title("Module " + m)
+                        .description(text)
+                        .orderIndex(m)
+                        .totalChapters(CHAPTERS)
+                        .completedChapters(CHAPTERS / 2)
+                        .progressPercentage(50)
+                        .chapters(chapters)
+                        .build());
+            }
+            courses.add(ProgressDTO.builder()
+                    .id(nextId++)
+                    .title("Course " + c)
+                    .description(text)
+                    .totalModules(MODULES)
+                    .totalChapters(MODULES * CHAPTERS)
+                    .completedChapters(MODULES * CHAPTERS / 2)
+                    .progressPercentage(50)
+                    .items(modules)
+                    .build());
+        }
+        ProgressDTO overall = ProgressDTO.builder().id(0L).title("Overall").progressPercentage(50).build();
+        return new StudentOverallProgressDTO(overall, courses);
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+}
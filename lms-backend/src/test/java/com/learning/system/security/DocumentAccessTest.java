@@ -0,0 +1,83 @@
+package com.learning.system.security;
+
+import com.learning.system.entity.StudentCourseEnrollment;
+import com.learning.system.repository.StudentCourseEnrollmentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DocumentAccessTest {
+
+    private StudentCourseEnrollmentRepository enrollmentRepository;
+    private DocumentAccess documentAccess;
+
+    @BeforeEach
+    void setUp() {
+        enrollmentRepository = mock(StudentCourseEnrollmentRepository.class);
+        when(enrollmentRepository.findCourseIdsByUserIdAndStatusNot(7L, StudentCourseEnrollment.EnrollmentStatus.DROPPED))
+                .thenReturn(List.of(1L, 2L));
+
+        documentAccess = new DocumentAccess();
+        ReflectionTestUtils.setField(documentAccess, "enrollmentRepository", enrollmentRepository);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void anonymousCallersAreNotEntitled() {
+        assertFalse(documentAccess.isEntitled(1L));
+
+        SecurityContextHolder.getContext().setAuthentication(new AnonymousAuthenticationToken(
+                "key", "anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+        assertFalse(documentAccess.isEntitled(1L));
+        verify(enrollmentRepository, never()).findCourseIdsByUserIdAndStatusNot(anyLong(), any());
+    }
+
+    @Test
+    void studentsAreEntitledToTheCoursesTheyAreEnrolledIn() {
+        authenticate("ROLE_STUDENT");
+
+        assertTrue(documentAccess.isEntitled(1L));
+        assertTrue(documentAccess.isEntitled(2L));
+        assertFalse(documentAccess.isEntitled(3L));
+        // Looked up once per request
+        verify(enrollmentRepository, times(1)).findCourseIdsByUserIdAndStatusNot(anyLong(), any());
+    }
+
+    @Test
+    void staffAreEntitledToEveryCourse() {
+        authenticate("ROLE_INSTRUCTOR");
+
+        assertTrue(documentAccess.isEntitled(3L));
+        verify(enrollmentRepository, never()).findCourseIdsByUserIdAndStatusNot(anyLong(), any());
+    }
+
+    private static void authenticate(String role) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(7L, "user"), null, AuthorityUtils.createAuthorityList(role)));
+    }
+}
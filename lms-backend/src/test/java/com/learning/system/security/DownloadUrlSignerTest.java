@@ -0,0 +1,113 @@
+package com.learning.system.security;
+
+import com.learning.system.service.FileStorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DownloadUrlSignerTest {
+
+    private static final String PREFIX = "http://localhost:8080/uploads/";
+    private static final String URL = PREFIX + "documents/notes.pdf";
+
+    private DownloadUrlSigner signer;
+
+    @BeforeEach
+    void setUp() {
+        signer = newSigner("secret");
+    }
+
+    @Test
+    void signedUrlVerifiesUntilItExpires() {
+        Map<String, String> params = params(signer.sign(URL));
+        long expires = Long.parseLong(params.get(DownloadUrlSigner.EXPIRES_PARAM));
+
+        long now = System.currentTimeMillis() / 1000;
+        assertTrue(expires >= now + Duration.ofHours(2).toSeconds(), "expires " + expires + ", now " + now);
+        assertTrue(signer.verify("documents/notes.pdf", params.get(DownloadUrlSigner.EXPIRES_PARAM),
+                params.get(DownloadUrlSigner.SIGNATURE_PARAM)));
+    }
+
+    @Test
+    void urlsSignedInTheSameWindowAreIdentical() {
+        assertEquals(signer.sign(URL), signer.sign(URL));
+    }
+
+    @Test
+    void rejectsTamperedExpiredAndForeignSignatures() {
+        Map<String, String> params = params(signer.sign(URL));
+        String expires = params.get(DownloadUrlSigner.EXPIRES_PARAM);
+        String signature = params.get(DownloadUrlSigner.SIGNATURE_PARAM);
+
+        assertFalse(signer.verify("documents/other.pdf", expires, signature));
+        assertFalse(signer.verify("documents/notes.pdf", String.valueOf(Long.parseLong(expires) + 1), signature));
+        assertFalse(signer.verify("documents/notes.pdf", expires, null));
+        assertFalse(signer.verify("documents/notes.pdf", "soon", signature));
+
+        Map<String, String> foreign = params(newSigner("other-secret").sign(URL));
+        assertFalse(signer.verify("documents/notes.pdf", foreign.get(DownloadUrlSigner.EXPIRES_PARAM),
+                foreign.get(DownloadUrlSigner.SIGNATURE_PARAM)));
+
+        long expired = System.currentTimeMillis() / 1000 - 1;
+        ReflectionTestUtils.setField(signer, "urlTtl", Duration.ofHours(-3));
+        Map<String, String> old = params(signer.sign(URL));
+        assertTrue(Long.parseLong(old.get(DownloadUrlSigner.EXPIRES_PARAM)) <= expired);
+        assertFalse(signer.verify("documents/notes.pdf", old.get(DownloadUrlSigner.EXPIRES_PARAM),
+                old.get(DownloadUrlSigner.SIGNATURE_PARAM)));
+    }
+
+    @Test
+    void leavesPublicExternalAndMissingUrlsUnsigned() {
+        assertEquals(PREFIX + "avatars/1.jpg", signer.sign(PREFIX + "avatars/1.jpg"));
+        assertEquals("https://example.com/notes.pdf", signer.sign("https://example.com/notes.pdf"));
+        assertNull(signer.sign(null));
+    }
+
+    @Test
+    void unsignRestoresTheStoredUrl() {
+        assertEquals(URL, signer.unsign(signer.sign(URL)));
+        assertEquals(URL + "?v=2", signer.unsign(signer.sign(URL + "?v=2")));
+        assertEquals(URL, signer.unsign(URL));
+    }
+
+    @Test
+    void requiresASecretWhileSignedUrlsAreRequired() {
+        assertThrows(IllegalStateException.class, () -> new DownloadUrlSigner("", true));
+        assertThrows(IllegalStateException.class, () -> new DownloadUrlSigner(null, true));
+        assertDoesNotThrow(() -> new DownloadUrlSigner("", false));
+    }
+
+    private static DownloadUrlSigner newSigner(String secret) {
+        FileStorageService fileStorageService = mock(FileStorageService.class);
+        when(fileStorageService.toKey(anyString())).thenAnswer(invocation -> {
+            String url = invocation.getArgument(0);
+            if (!url.startsWith(PREFIX)) {
+                return Optional.empty();
+            }
+            String path = url.substring(PREFIX.length());
+            return Optional.of(path.contains("?") ? path.substring(0, path.indexOf('?')) : path);
+        });
+
+        DownloadUrlSigner signer = new DownloadUrlSigner(secret, true);
+        ReflectionTestUtils.setField(signer, "fileStorageService", fileStorageService);
+        ReflectionTestUtils.setField(signer, "urlTtl", Duration.ofHours(2));
+        ReflectionTestUtils.setField(signer, "signatureWindow", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(signer, "publicPrefixes", List.of("avatars/"));
+        return signer;
+    }
+
+    private static Map<String, String> params(String url) {
+        return UriComponentsBuilder.fromUriString(url).build().getQueryParams().toSingleValueMap();
+    }
+}
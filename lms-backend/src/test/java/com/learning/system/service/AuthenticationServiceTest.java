@@ -0,0 +1,96 @@
+package com.learning.system.service;
+
+import com.learning.system.dto.AuthenticationResponse;
+import com.learning.system.dto.RefreshTokenRequest;
+import com.learning.system.dto.RegisterRequest;
+import com.learning.system.entity.Role;
+import com.learning.system.entity.User;
+import com.learning.system.repository.RoleRepository;
+import com.learning.system.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthenticationServiceTest {
+
+    private UserRepository userRepository;
+    private RefreshTokenService refreshTokenService;
+    private AuthenticationService service;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            user.setId(7L);
+            return user;
+        });
+        RoleRepository roleRepository = mock(RoleRepository.class);
+        when(roleRepository.findByName("ROLE_STUDENT")).thenReturn(Optional.of(new Role()));
+        PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.encode(anyString())).thenReturn("hash");
+        JwtService jwtService = mock(JwtService.class);
+        when(jwtService.generateToken(any(User.class))).thenReturn("access");
+        when(jwtService.getExpiration()).thenReturn(Duration.ofMinutes(15));
+        refreshTokenService = mock(RefreshTokenService.class);
+        when(refreshTokenService.issue(anyLong())).thenReturn("refresh");
+
+        service = new AuthenticationService(userRepository, roleRepository, passwordEncoder, jwtService,
+                mock(PasswordVerificationService.class), mock(LoginRateLimiter.class), refreshTokenService);
+    }
+
+    @Test
+    void createAccountDoesNotIssueTokens() {
+        User user = service.createAccount(student());
+
+        assertEquals(7L, user.getId());
+        assertEquals("student@example.com", user.getUsername());
+        verify(refreshTokenService, never()).issue(anyLong());
+    }
+
+    @Test
+    void registerLogsTheNewAccountIn() {
+        AuthenticationResponse response = service.register(student());
+
+        assertEquals("access", response.getToken());
+        assertEquals("refresh", response.getRefreshToken());
+        verify(refreshTokenService).issue(7L);
+    }
+
+    @Test
+    void refreshIsRejectedForDeactivatedUsers() {
+        User user = User.builder().id(7L).username("student@example.com").active(false).build();
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+        when(refreshTokenService.rotate("token")).thenReturn(new RefreshTokenService.Rotation(7L, "rotated"));
+
+        assertThrows(DisabledException.class,
+                () -> service.refresh(RefreshTokenRequest.builder().refreshToken("token").build()));
+        verify(refreshTokenService).revokeAll(7L);
+
+        user.setActive(true);
+        assertEquals("rotated", service.refresh(RefreshTokenRequest.builder().refreshToken("token").build()).getRefreshToken());
+    }
+
+    private static RegisterRequest student() {
+        return RegisterRequest.builder()
+                .username("student@example.com")
+                .email("student@example.com")
+                .password("secret")
+                .role("ROLE_STUDENT")
+                .active(true)
+                .build();
+    }
+}
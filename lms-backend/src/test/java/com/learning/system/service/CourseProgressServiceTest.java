@@ -0,0 +1,152 @@
+package com.learning.system.service;
+
+import com.learning.system.dto.ProgressDTO;
+import com.learning.system.entity.Chapter;
+import com.learning.system.entity.Course;
+import com.learning.system.entity.Document;
+import com.learning.system.entity.Module;
+import com.learning.system.entity.StudentCourseEnrollment;
+import com.learning.system.entity.StudentProfile;
+import com.learning.system.entity.User;
+import com.learning.system.repository.ChapterProgressRepository;
+import com.learning.system.repository.ChapterRepository;
+import com.learning.system.repository.CourseRepository;
+import com.learning.system.repository.ModuleRepository;
+import com.learning.system.repository.StudentCourseEnrollmentRepository;
+import com.learning.system.repository.StudentProfileRepository;
+import com.learning.system.security.AuthenticatedUser;
+import com.learning.system.security.DocumentAccess;
+import com.learning.system.security.DownloadUrlSigner;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CourseProgressServiceTest {
+
+    private static final Long COURSE_ID = 30L;
+
+    private final User user = User.builder().id(1L).username("student").build();
+    private final StudentProfile student = StudentProfile.builder().id(2L).user(user).build();
+
+    private StudentCourseEnrollmentRepository enrollmentRepository;
+    private CourseProgressService service;
+
+    @BeforeEach
+    void setUp() {
+        Course course = Course.builder().id(COURSE_ID).title("Course").build();
+        Module module = Module.builder().id(20L).course(course).orderIndex(1).build();
+        Chapter free = chapter(101L, module, true);
+        Chapter paid = chapter(102L, module, false);
+
+        CourseRepository courseRepository = mock(CourseRepository.class);
+        when(courseRepository.findById(COURSE_ID)).thenReturn(Optional.of(course));
+        ModuleRepository moduleRepository = mock(ModuleRepository.class);
+        when(moduleRepository.findByCourse_IdOrderByOrderIndexAsc(COURSE_ID)).thenReturn(List.of(module));
+        ChapterRepository chapterRepository = mock(ChapterRepository.class);
+        when(chapterRepository.findByModule_Id(20L)).thenReturn(List.of(free, paid));
+        when(chapterRepository.findById(101L)).thenReturn(Optional.of(free));
+        when(chapterRepository.findById(102L)).thenReturn(Optional.of(paid));
+        ChapterProgressRepository chapterProgressRepository = mock(ChapterProgressRepository.class);
+        when(chapterProgressRepository.findByChapterAndUser(any(Chapter.class), any(User.class))).thenReturn(List.of());
+        StudentProfileRepository studentProfileRepository = mock(StudentProfileRepository.class);
+        when(studentProfileRepository.findByUser(user)).thenReturn(List.of(student));
+
+        RequestCoalescer requestCoalescer = mock(RequestCoalescer.class);
+        when(requestCoalescer.execute(anyString(), any(), any())).thenAnswer(invocation -> {
+            Supplier<?> loader = invocation.getArgument(2);
+            return loader.get();
+        });
+        DownloadUrlSigner downloadUrlSigner = mock(DownloadUrlSigner.class);
+        when(downloadUrlSigner.sign(anyString())).thenAnswer(invocation -> invocation.getArgument(0) + "?signature=s");
+
+        enrollmentRepository = mock(StudentCourseEnrollmentRepository.class);
+        DocumentAccess documentAccess = new DocumentAccess();
+        ReflectionTestUtils.setField(documentAccess, "enrollmentRepository", enrollmentRepository);
+
+        service = new CourseProgressService();
+        ReflectionTestUtils.setField(service, "courseRepository", courseRepository);
+        ReflectionTestUtils.setField(service, "moduleRepository", moduleRepository);
+        ReflectionTestUtils.setField(service, "chapterRepository", chapterRepository);
+        ReflectionTestUtils.setField(service, "chapterProgressRepository", chapterProgressRepository);
+        ReflectionTestUtils.setField(service, "studentProfileRepository", studentProfileRepository);
+        ReflectionTestUtils.setField(service, "requestCoalescer", requestCoalescer);
+        ReflectionTestUtils.setField(service, "downloadUrlSigner", downloadUrlSigner);
+        ReflectionTestUtils.setField(service, "documentAccess", documentAccess);
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(user.getId(), user.getUsername()), null,
+                AuthorityUtils.createAuthorityList("ROLE_STUDENT")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void studentWhoIsNotEnrolledGetsSignedUrlsForFreeChaptersOnly() {
+        when(enrollmentRepository.findCourseIdsByUserIdAndStatusNot(anyLong(), any())).thenReturn(List.of());
+
+        ProgressDTO progress = service.getCourseProgress(COURSE_ID, user);
+
+        assertEquals("NOT_ENROLLED", progress.getStudentCourseEnrollmentStatus());
+        Map<Long, String> urls = documentUrls(progress);
+        assertEquals("http://localhost/uploads/documents/101.pdf?signature=s", urls.get(101L));
+        assertNull(urls.get(102L));
+    }
+
+    @Test
+    void enrolledStudentGetsSignedUrlsForEveryChapter() {
+        student.addCourseEnrollment(Course.builder().id(COURSE_ID).build(), LocalDate.now());
+        when(enrollmentRepository.findCourseIdsByUserIdAndStatusNot(user.getId(), StudentCourseEnrollment.EnrollmentStatus.DROPPED))
+                .thenReturn(List.of(COURSE_ID));
+
+        Map<Long, String> urls = documentUrls(service.getCourseProgress(COURSE_ID, user));
+
+        assertEquals("http://localhost/uploads/documents/101.pdf?signature=s", urls.get(101L));
+        assertEquals("http://localhost/uploads/documents/102.pdf?signature=s", urls.get(102L));
+    }
+
+    private static Chapter chapter(Long id, Module module, boolean free) {
+        Chapter chapter = Chapter.builder().id(id).module(module).orderIndex(id.intValue()).isFree(free).build();
+        Document document = new Document();
+        document.setId(id);
+        document.setName("Notes " + id);
+        document.setUrl("http://localhost/uploads/documents/" + id + ".pdf");
+        document.setChapter(chapter);
+        chapter.setDocuments(new ArrayList<>(List.of(document)));
+        return chapter;
+    }
+
+    /**
+     * Document URL by chapter id
+     */
+    private static Map<Long, String> documentUrls(ProgressDTO progress) {
+        Map<Long, String> urls = new HashMap<>();
+        for (ProgressDTO.ProgressItemDTO module : progress.getItems()) {
+            for (ProgressDTO.ChapterProgressDTO chapter : module.getChapters()) {
+                chapter.getDocuments().forEach(document -> urls.put(chapter.getId(), document.getUrl()));
+            }
+        }
+        return urls;
+    }
+}
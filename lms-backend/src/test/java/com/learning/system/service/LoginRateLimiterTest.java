@@ -0,0 +1,90 @@
+package com.learning.system.service;
+
+import com.learning.system.exception.RequestThrottledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginRateLimiterTest {
+
+    private static final String ADDRESS = "10.0.0.1";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void addressLimitIsOffByDefault() {
+        LoginRateLimiter limiter = new LoginRateLimiter(0, 0, 10, 10, 1000, meterRegistry);
+
+        // A whole class logging in from behind one NAT address
+        for (int i = 0; i < 5000; i++) {
+            limiter.acquireAddress(ADDRESS);
+        }
+    }
+
+    @Test
+    void usernameBucketRunsOutAfterItsCapacity() {
+        LoginRateLimiter limiter = new LoginRateLimiter(0, 0, 10, 10, 1000, meterRegistry);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.acquireUsername("alice", ADDRESS);
+        }
+        RequestThrottledException e = assertThrows(RequestThrottledException.class, () -> limiter.acquireUsername("alice", ADDRESS));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getStatus());
+        // One token per 6 seconds
+        assertTrue(e.getRetryAfter().toSeconds() > 0 && e.getRetryAfter().toSeconds() <= 6, e.getRetryAfter().toString());
+        assertEquals(1, meterRegistry.counter("login.throttled", "reason", "rate_limit_username").count());
+        // Other users are not affected
+        limiter.acquireUsername("bob", ADDRESS);
+    }
+
+    @Test
+    void guessingFromAnotherAddressDoesNotLockTheUserOut() {
+        LoginRateLimiter limiter = new LoginRateLimiter(0, 0, 10, 10, 1000, meterRegistry);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.acquireUsername("alice", "203.0.113.9");
+        }
+        assertThrows(RequestThrottledException.class, () -> limiter.acquireUsername("alice", "203.0.113.9"));
+
+        limiter.acquireUsername("alice", ADDRESS);
+    }
+
+    @Test
+    void usernamesDifferingInCaseOrSpacesShareABucket() {
+        LoginRateLimiter limiter = new LoginRateLimiter(0, 0, 2, 2, 1000, meterRegistry);
+
+        limiter.acquireUsername("Alice", ADDRESS);
+        limiter.acquireUsername(" alice ", ADDRESS);
+        assertThrows(RequestThrottledException.class, () -> limiter.acquireUsername("ALICE", ADDRESS));
+    }
+
+    @Test
+    void configuredAddressLimitThrottlesTheAddress() {
+        LoginRateLimiter limiter = new LoginRateLimiter(3, 3, 10, 10, 1000, meterRegistry);
+
+        for (int i = 0; i < 3; i++) {
+            limiter.acquireAddress(ADDRESS);
+        }
+        assertThrows(RequestThrottledException.class, () -> limiter.acquireAddress(ADDRESS));
+        limiter.acquireAddress("10.0.0.2");
+        assertEquals(1, meterRegistry.counter("login.throttled", "reason", "rate_limit_address").count());
+    }
+
+    @Test
+    void idleBucketsAreEvictedBeyondMaxKeys() {
+        // One key per stripe
+        LoginRateLimiter limiter = new LoginRateLimiter(0, 0, 1, 1, 64, meterRegistry);
+
+        limiter.acquireUsername("alice", ADDRESS);
+        assertThrows(RequestThrottledException.class, () -> limiter.acquireUsername("alice", ADDRESS));
+        for (int i = 0; i < 10_000; i++) {
+            limiter.acquireUsername("user" + i, ADDRESS);
+        }
+
+        // Alice's bucket was evicted and starts full again
+        limiter.acquireUsername("alice", ADDRESS);
+    }
+}
@@ -0,0 +1,181 @@
+package com.learning.system.service;
+
+import com.learning.system.dto.ProgressChangesDTO;
+import com.learning.system.entity.Chapter;
+import com.learning.system.entity.ChapterProgress;
+import com.learning.system.entity.Course;
+import com.learning.system.entity.Module;
+import com.learning.system.entity.User;
+import com.learning.system.repository.ChapterProgressRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProgressChangesServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 10, 0);
+
+    private final List<ChapterProgress> rows = new ArrayList<>();
+    private final User user = User.builder().id(1L).build();
+    private final Module module = Module.builder().id(20L).course(Course.builder().id(30L).build()).build();
+
+    private ChapterProgressRepository chapterProgressRepository;
+    private ProgressChangesService service;
+
+    @BeforeEach
+    void setUp() {
+        chapterProgressRepository = mock(ChapterProgressRepository.class);
+        // Same semantics as the JPQL query: after (since, sinceId) in (lastUpdated, id) order, one page
+        when(chapterProgressRepository.findChangedSince(anyLong(), any(LocalDateTime.class), anyLong(), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    LocalDateTime since = invocation.getArgument(1);
+                    Long sinceId = invocation.getArgument(2);
+                    Pageable pageable = invocation.getArgument(3);
+                    return rows.stream()
+                            .filter(cp -> cp.getLastUpdated().isAfter(since)
+                                    || cp.getLastUpdated().isEqual(since) && cp.getId() > sinceId)
+                            .sorted(Comparator.comparing(ChapterProgress::getLastUpdated).thenComparing(ChapterProgress::getId))
+                            .limit(pageable.getPageSize())
+                            .collect(Collectors.toList());
+                });
+        when(chapterProgressRepository.countChaptersByModule(anyCollection(), anyLong())).thenReturn(List.of());
+
+        service = new ProgressChangesService();
+        ReflectionTestUtils.setField(service, "chapterProgressRepository", chapterProgressRepository);
+        ReflectionTestUtils.setField(service, "gracePeriod", Duration.ofSeconds(5));
+    }
+
+    @Test
+    void caughtUpPollReturnsNothingAndSkipsTheSummaries() {
+        save(1L, NOW.minusSeconds(2), 0L);
+        save(2L, NOW.minusSeconds(1), 0L);
+
+        ProgressChangesDTO first = service.getChanges(user, null, 10);
+        assertEquals(List.of(1L, 2L), progressIds(first));
+
+        ProgressChangesDTO second = service.getChanges(user, first.getCursor(), 10);
+        ProgressChangesDTO third = service.getChanges(user, second.getCursor(), 10);
+
+        assertTrue(second.getChapters().isEmpty());
+        assertTrue(third.getChapters().isEmpty());
+        assertEquals(first.getCursor(), second.getCursor());
+        // Only the first poll had changes to summarize
+        verify(chapterProgressRepository).countChaptersByModule(anyCollection(), anyLong());
+    }
+
+    @Test
+    void lateCommitInsideTheGracePeriodIsReturnedOnce() {
+        save(1L, NOW, 0L);
+        ProgressChangesDTO first = service.getChanges(user, null, 10);
+
+        // Stamped before row 1 but committed after the first poll
+        save(2L, NOW.minusSeconds(3), 0L);
+        ProgressChangesDTO second = service.getChanges(user, first.getCursor(), 10);
+        ProgressChangesDTO third = service.getChanges(user, second.getCursor(), 10);
+
+        assertEquals(List.of(2L), progressIds(second));
+        assertTrue(third.getChapters().isEmpty());
+    }
+
+    @Test
+    void updatedRecordIsReturnedAgain() {
+        save(1L, NOW, 0L);
+        ProgressChangesDTO first = service.getChanges(user, null, 10);
+
+        rows.clear();
+        save(1L, NOW.plusSeconds(1), 1L);
+        ProgressChangesDTO second = service.getChanges(user, first.getCursor(), 10);
+
+        assertEquals(List.of(1L), progressIds(second));
+        assertEquals(1L, second.getChapters().get(0).getVersion());
+    }
+
+    @Test
+    void pagesThroughRecordsWithTheSameTimestamp() {
+        for (long id = 1; id <= 250; id++) {
+            save(id, NOW, 0L);
+        }
+
+        List<Long> received = new ArrayList<>();
+        String cursor = null;
+        ProgressChangesDTO page;
+        do {
+            page = service.getChanges(user, cursor, 40);
+            received.addAll(progressIds(page));
+            cursor = page.getCursor();
+        } while (page.isHasMore());
+
+        assertEquals(250, received.size());
+        assertEquals(250, received.stream().distinct().count());
+        assertTrue(service.getChanges(user, cursor, 40).getChapters().isEmpty());
+        // The cursor stays small enough for a query string
+        assertTrue(cursor.length() < 4096, "cursor of " + cursor.length() + " characters");
+    }
+
+    @Test
+    void cursorFromBeforeTheReceivedListIsAccepted() {
+        save(1L, NOW, 0L);
+        String legacy = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((NOW.minusSeconds(10) + "|0").getBytes());
+
+        assertEquals(List.of(1L), progressIds(service.getChanges(user, legacy, 10)));
+        assertThrows(IllegalArgumentException.class, () -> service.getChanges(user, "not-a-cursor", 10));
+    }
+
+    @Test
+    void unchangedRecordsAreNotSummarized() {
+        service.getChanges(user, null, 10);
+
+        verify(chapterProgressRepository, never()).countChaptersByModule(anyCollection(), anyLong());
+    }
+
+    @Test
+    void describesAChapterWithoutSummariesUnlessAsked() {
+        save(1L, NOW, 0L);
+        when(chapterProgressRepository.findAllById(List.of(1L))).thenReturn(rows);
+
+        ProgressChangesDTO row = service.describeChanges(1L, List.of(1L), false);
+        assertEquals(List.of(1L), progressIds(row));
+        assertTrue(row.getCourses().isEmpty());
+        verify(chapterProgressRepository, never()).countChaptersByModule(anyCollection(), anyLong());
+
+        service.describeChanges(1L, List.of(1L), true);
+        verify(chapterProgressRepository).countChaptersByModule(anyCollection(), anyLong());
+    }
+
+    private void save(Long id, LocalDateTime lastUpdated, Long version) {
+        rows.add(ChapterProgress.builder()
+                .id(id)
+                .user(user)
+                .chapter(Chapter.builder().id(100 + id).module(module).build())
+                .progressPercentage(50)
+                .timeSpentSeconds(60)
+                .lastUpdated(lastUpdated)
+                .version(version)
+                .build());
+    }
+
+    private static List<Long> progressIds(ProgressChangesDTO changes) {
+        return changes.getChapters().stream()
+                .map(ProgressChangesDTO.ChapterChangeDTO::getProgressId)
+                .collect(Collectors.toList());
+    }
+}
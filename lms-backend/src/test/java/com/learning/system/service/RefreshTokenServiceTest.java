@@ -0,0 +1,173 @@
+package com.learning.system.service;
+
+import com.learning.system.entity.RefreshToken;
+import com.learning.system.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.CredentialsExpiredException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenServiceTest {
+
+    private static final int THREADS = 8;
+
+    /**
+     * The refresh_tokens table; the mocked updates are conditional like the real ones
+     */
+    private final List<RefreshToken> rows = new ArrayList<>();
+
+    private RefreshTokenService service;
+
+    @BeforeEach
+    void setUp() {
+        RefreshTokenRepository repository = mock(RefreshTokenRepository.class);
+        when(repository.save(any(RefreshToken.class))).thenAnswer(invocation -> {
+            synchronized (rows) {
+                RefreshToken token = invocation.getArgument(0);
+                token.setId((long) rows.size() + 1);
+                rows.add(copy(token));
+                return token;
+            }
+        });
+        when(repository.findByTokenHash(anyString())).thenAnswer(invocation -> {
+            synchronized (rows) {
+                String hash = invocation.getArgument(0);
+                return rows.stream().filter(row -> row.getTokenHash().equals(hash)).findFirst().map(this::copy);
+            }
+        });
+        when(repository.markRotated(anyLong(), any(LocalDateTime.class))).thenAnswer(invocation -> {
+            synchronized (rows) {
+                Long id = invocation.getArgument(0);
+                Optional<RefreshToken> row = rows.stream()
+                        .filter(t -> t.getId().equals(id) && t.getRotatedAt() == null && !t.isRevoked())
+                        .findFirst();
+                row.ifPresent(t -> t.setRotatedAt(invocation.getArgument(1)));
+                return row.isPresent() ? 1 : 0;
+            }
+        });
+        when(repository.revokeFamily(anyString())).thenAnswer(invocation -> {
+            synchronized (rows) {
+                String familyId = invocation.getArgument(0);
+                List<RefreshToken> family = rows.stream()
+                        .filter(t -> t.getFamilyId().equals(familyId) && !t.isRevoked())
+                        .toList();
+                family.forEach(t -> t.setRevoked(true));
+                return family.size();
+            }
+        });
+
+        service = new RefreshTokenService();
+        ReflectionTestUtils.setField(service, "refreshTokenRepository", repository);
+        ReflectionTestUtils.setField(service, "refreshExpiration", Duration.ofDays(14));
+    }
+
+    @Test
+    void rotationReplacesTheTokenWithinItsFamily() {
+        String first = service.issue(5L);
+
+        RefreshTokenService.Rotation rotation = service.rotate(first);
+        RefreshTokenService.Rotation next = service.rotate(rotation.getRefreshToken());
+
+        assertEquals(5L, rotation.getUserId());
+        assertEquals(5L, next.getUserId());
+        assertNotEquals(first, rotation.getRefreshToken());
+        assertEquals(3, rows.size());
+        assertEquals(1, rows.stream().map(RefreshToken::getFamilyId).distinct().count());
+        // Only hashes are stored
+        assertTrue(rows.stream().noneMatch(row -> row.getTokenHash().equals(first)));
+    }
+
+    @Test
+    void reusingARotatedTokenRevokesTheWholeFamily() {
+        String stolen = service.issue(5L);
+        String other = service.issue(6L);
+        String current = service.rotate(stolen).getRefreshToken();
+
+        CredentialsExpiredException reuse = assertThrows(CredentialsExpiredException.class, () -> service.rotate(stolen));
+        assertEquals("Refresh token was already used", reuse.getMessage());
+
+        // The legitimate client's newer token is gone too, other logins are not
+        assertThrows(CredentialsExpiredException.class, () -> service.rotate(current));
+        assertEquals(6L, service.rotate(other).getUserId());
+    }
+
+    @Test
+    void concurrentRotationsOfOneTokenLetOnlyOneThrough() throws Exception {
+        String token = service.issue(5L);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<RefreshTokenService.Rotation>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                Callable<RefreshTokenService.Rotation> task = () -> {
+                    start.await();
+                    return service.rotate(token);
+                };
+                results.add(pool.submit(task));
+            }
+            start.countDown();
+
+            int rotated = 0;
+            for (Future<RefreshTokenService.Rotation> result : results) {
+                try {
+                    result.get();
+                    rotated++;
+                } catch (ExecutionException e) {
+                    assertInstanceOf(CredentialsExpiredException.class, e.getCause());
+                }
+            }
+            assertEquals(1, rotated);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void rejectsUnknownExpiredAndRevokedTokens() {
+        assertThrows(CredentialsExpiredException.class, () -> service.rotate(null));
+        assertThrows(CredentialsExpiredException.class, () -> service.rotate("unknown"));
+
+        String expired = service.issue(5L);
+        rows.get(0).setExpiresAt(LocalDateTime.now().minusSeconds(1));
+        assertEquals("Refresh token has expired",
+                assertThrows(CredentialsExpiredException.class, () -> service.rotate(expired)).getMessage());
+
+        String loggedOut = service.issue(5L);
+        service.revoke(loggedOut);
+        assertEquals("Refresh token was revoked",
+                assertThrows(CredentialsExpiredException.class, () -> service.rotate(loggedOut)).getMessage());
+    }
+
+    private RefreshToken copy(RefreshToken token) {
+        return RefreshToken.builder()
+                .id(token.getId())
+                .tokenHash(token.getTokenHash())
+                .familyId(token.getFamilyId())
+                .userId(token.getUserId())
+                .createdAt(token.getCreatedAt())
+                .expiresAt(token.getExpiresAt())
+                .rotatedAt(token.getRotatedAt())
+                .revoked(token.isRevoked())
+                .build();
+    }
+}
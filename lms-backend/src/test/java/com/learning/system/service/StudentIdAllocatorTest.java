@@ -0,0 +1,158 @@
+package com.learning.system.service;
+
+import com.learning.system.entity.IdSequence;
+import com.learning.system.repository.IdSequenceRepository;
+import com.learning.system.repository.StudentProfileRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StudentIdAllocatorTest {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 400;
+    private static final int BLOCK_SIZE = 7;
+
+    /**
+     * The id_sequences row; the lock stands in for the database row lock held until commit
+     */
+    private final ReentrantLock rowLock = new ReentrantLock();
+    private volatile IdSequence storedRow;
+    private final AtomicInteger reservations = new AtomicInteger();
+
+    private IdSequenceRepository idSequenceRepository;
+    private StudentProfileRepository studentProfileRepository;
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        idSequenceRepository = mock(IdSequenceRepository.class);
+        when(idSequenceRepository.findByNameForUpdate(anyString())).thenAnswer(invocation -> {
+            rowLock.lock();
+            IdSequence row = storedRow;
+            return Optional.ofNullable(row == null ? null : new IdSequence(row.getName(), row.getNextValue()));
+        });
+        when(idSequenceRepository.saveAndFlush(any(IdSequence.class))).thenAnswer(invocation -> {
+            IdSequence row = invocation.getArgument(0);
+            storedRow = new IdSequence(row.getName(), row.getNextValue());
+            reservations.incrementAndGet();
+            return row;
+        });
+
+        studentProfileRepository = mock(StudentProfileRepository.class);
+        when(studentProfileRepository.findMaxId()).thenReturn(41L);
+
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        doAnswer(invocation -> releaseRow()).when(transactionManager).commit(any(TransactionStatus.class));
+        doAnswer(invocation -> releaseRow()).when(transactionManager).rollback(any(TransactionStatus.class));
+    }
+
+    @Test
+    void allocatesUniqueIdsFromParallelThreads() throws Exception {
+        StudentIdAllocator allocator = newAllocator();
+
+        List<String> ids = allocateInParallel(List.of(allocator));
+
+        assertEquals(THREADS * IDS_PER_THREAD, ids.size());
+        assertEquals(ids.size(), new HashSet<>(ids).size(), "duplicate student ids");
+        String expectedPrefix = String.format("ST%02d", LocalDate.now().getYear() % 100);
+        for (String id : ids) {
+            assertTrue(id.matches("ST\\d{2}\\d{4}"), id);
+            assertTrue(id.startsWith(expectedPrefix), id);
+        }
+    }
+
+    @Test
+    void reservesBlocksInsteadOfOneRowUpdatePerId() throws Exception {
+        StudentIdAllocator allocator = newAllocator();
+
+        List<String> ids = allocateInParallel(List.of(allocator));
+
+        int blocksNeeded = (ids.size() + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        assertEquals(blocksNeeded, reservations.get());
+        // The first block starts after the highest profile id the old generator could have used
+        String first = ids.stream().min(String::compareTo).orElseThrow();
+        assertEquals(42, Integer.parseInt(first.substring(4)));
+    }
+
+    @Test
+    void nodesSharingTheSequenceRowNeverHandOutTheSameId() throws Exception {
+        List<StudentIdAllocator> nodes = List.of(newAllocator(), newAllocator(), newAllocator());
+
+        List<String> ids = allocateInParallel(nodes);
+
+        assertEquals(THREADS * IDS_PER_THREAD, ids.size());
+        assertEquals(ids.size(), new HashSet<>(ids).size(), "duplicate student ids across nodes");
+    }
+
+    private StudentIdAllocator newAllocator() {
+        StudentIdAllocator allocator = new StudentIdAllocator(transactionManager);
+        ReflectionTestUtils.setField(allocator, "idSequenceRepository", idSequenceRepository);
+        ReflectionTestUtils.setField(allocator, "studentProfileRepository", studentProfileRepository);
+        ReflectionTestUtils.setField(allocator, "blockSize", BLOCK_SIZE);
+        return allocator;
+    }
+
+    /**
+     * Allocate ids from THREADS threads that start together, spreading the threads over the given nodes
+     */
+    private List<String> allocateInParallel(List<StudentIdAllocator> nodes) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<String>>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                StudentIdAllocator node = nodes.get(t % nodes.size());
+                Callable<List<String>> task = () -> {
+                    start.await();
+                    List<String> ids = new ArrayList<>();
+                    for (int i = 0; i < IDS_PER_THREAD; i++) {
+                        ids.add(node.nextStudentId());
+                    }
+                    return ids;
+                };
+                results.add(pool.submit(task));
+            }
+            start.countDown();
+
+            List<String> ids = new ArrayList<>();
+            for (Future<List<String>> result : results) {
+                ids.addAll(result.get());
+            }
+            return ids;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Object releaseRow() {
+        if (rowLock.isHeldByCurrentThread()) {
+            rowLock.unlock();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,122 @@
+package com.learning.system.storage;
+
+import com.learning.system.config.FileStorageConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LocalStorageBackendTest {
+
+    private static final String KEY = "documents/notes.pdf";
+
+    @TempDir
+    Path hotRoot;
+
+    @TempDir
+    Path coldRoot;
+
+    private LocalStorageBackend backend;
+
+    @BeforeEach
+    void setUp() {
+        FileStorageConfig fileStorageConfig = mock(FileStorageConfig.class);
+        when(fileStorageConfig.getUploadDir()).thenReturn(hotRoot.toString());
+
+        backend = new LocalStorageBackend();
+        ReflectionTestUtils.setField(backend, "fileStorageConfig", fileStorageConfig);
+        ReflectionTestUtils.setField(backend, "coldDir", coldRoot.toString());
+        ReflectionTestUtils.setField(backend, "coldAfter", Duration.ofDays(30));
+    }
+
+    @Test
+    void storesFilesBelowTheirHashPrefix() throws Exception {
+        store(KEY, "notes");
+
+        Path sharded = shardedPath(hotRoot, KEY);
+        assertEquals("notes", Files.readString(sharded));
+        assertFalse(Files.exists(hotRoot.resolve(KEY)));
+        // No temp files are left next to it
+        try (var siblings = Files.list(sharded.getParent())) {
+            assertEquals(1, siblings.count());
+        }
+        assertEquals("notes", read(KEY));
+
+        backend.delete(KEY);
+        assertFalse(Files.exists(sharded));
+        assertTrue(backend.load(KEY).isEmpty());
+    }
+
+    @Test
+    void movesIdleFilesToTheColdTier() throws Exception {
+        store(KEY, "old notes");
+        store("documents/recent.pdf", "recent notes");
+        Files.setLastModifiedTime(shardedPath(hotRoot, KEY), FileTime.from(Instant.now().minus(Duration.ofDays(31))));
+
+        backend.moveIdleFilesToColdTier();
+
+        assertFalse(Files.exists(shardedPath(hotRoot, KEY)));
+        assertEquals("old notes", Files.readString(shardedPath(coldRoot, KEY)));
+        assertTrue(Files.exists(shardedPath(hotRoot, "documents/recent.pdf")));
+        assertEquals("old notes", read(KEY));
+
+        // Storing the key again puts it back in the hot tier and drops the cold copy
+        store(KEY, "new notes");
+        assertFalse(Files.exists(shardedPath(coldRoot, KEY)));
+        assertEquals("new notes", read(KEY));
+    }
+
+    @Test
+    void findsFilesStoredBeforeSharding() throws Exception {
+        Path legacy = hotRoot.resolve(KEY);
+        Files.createDirectories(legacy.getParent());
+        Files.writeString(legacy, "legacy notes");
+        Files.setLastModifiedTime(legacy, FileTime.from(Instant.now().minus(Duration.ofDays(365))));
+
+        assertEquals("legacy notes", read(KEY));
+
+        // Flat files are not moved by tiering
+        backend.moveIdleFilesToColdTier();
+        assertTrue(Files.exists(legacy));
+
+        backend.delete(KEY);
+        assertFalse(Files.exists(legacy));
+        assertTrue(backend.load(KEY).isEmpty());
+    }
+
+    private void store(String key, String content) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        backend.store(key, new ByteArrayInputStream(bytes), bytes.length);
+    }
+
+    private String read(String key) throws IOException {
+        Resource resource = backend.load(key).orElseThrow();
+        try (InputStream in = resource.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Path shardedPath(Path root, String key) throws NoSuchAlgorithmException {
+        String hash = HexFormat.of().formatHex(
+                MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8)));
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(key);
+    }
+}
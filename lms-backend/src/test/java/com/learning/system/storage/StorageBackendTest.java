@@ -0,0 +1,33 @@
+package com.learning.system.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StorageBackendTest {
+
+    @Test
+    void acceptsRelativeKeys() {
+        for (String key : List.of("notes.pdf", "documents/notes.pdf", "avatars/7/thumb.jpg", "a..b/.hidden", "with space.txt")) {
+            assertEquals(key, StorageBackend.checkKey(key));
+        }
+    }
+
+    @Test
+    void rejectsKeysThatEscapeTheStorageRoot() {
+        for (String key : List.of("..", "../etc/passwd", "documents/../../etc/passwd", "documents/..", "./notes.pdf",
+                "documents/./notes.pdf", "/etc/passwd", "..\\windows", "documents\\notes.pdf")) {
+            assertThrows(IllegalArgumentException.class, () -> StorageBackend.checkKey(key), key);
+        }
+    }
+
+    @Test
+    void rejectsMalformedKeys() {
+        for (String key : List.of("", "documents/", "documents//notes.pdf", "notes.pdf\0.jpg")) {
+            assertThrows(IllegalArgumentException.class, () -> StorageBackend.checkKey(key), key);
+        }
+        assertThrows(IllegalArgumentException.class, () -> StorageBackend.checkKey(null));
+    }
+}